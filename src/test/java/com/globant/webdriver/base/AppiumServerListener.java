@@ -0,0 +1,43 @@
+package com.globant.webdriver.base;
+
+import com.globant.webdriver.utils.AppiumServerManager;
+import com.globant.webdriver.utils.CommandRecorder;
+import com.globant.webdriver.utils.DeviceRegistry;
+import org.testng.IAlterSuiteListener;
+import org.testng.ISuite;
+import org.testng.ISuiteListener;
+import org.testng.xml.XmlSuite;
+
+import java.util.List;
+
+/**
+ * Suite listener that drives the lifecycle of the managed Appium servers.
+ * <p>
+ * Servers are launched in the background right after the suite file is parsed, before test
+ * classes are loaded and instantiated, and stopped when the suite finishes.
+ * It does nothing unless {@code appium.managed=true}.
+ */
+public class AppiumServerListener implements IAlterSuiteListener, ISuiteListener {
+
+    /**
+     * Starts one server per registered device without waiting for them to boot.
+     *
+     * @param suites the suites about to run.
+     */
+    @Override
+    public void alter(List<XmlSuite> suites) {
+        if (AppiumServerManager.isManaged() && !CommandRecorder.isReplaying()) {
+            DeviceRegistry.getDevices().forEach(device -> AppiumServerManager.start(device.serial()));
+        }
+    }
+
+    /**
+     * Stops the managed servers once the suite is done.
+     *
+     * @param suite the finished suite.
+     */
+    @Override
+    public void onFinish(ISuite suite) {
+        AppiumServerManager.stopAll();
+    }
+}
@@ -1,39 +1,235 @@
 package com.globant.webdriver.base;
+import com.globant.webdriver.utils.AppReset;
+import com.globant.webdriver.utils.ArtifactPipeline;
+import com.globant.webdriver.utils.CommandMetrics;
+import com.globant.webdriver.utils.CommandRecorder;
 import com.globant.webdriver.utils.DriverManager;
+import com.globant.webdriver.utils.Flow;
+import com.globant.webdriver.utils.LocatorProfiler;
+import com.globant.webdriver.utils.ResourceSampler;
+import com.globant.webdriver.utils.ScreenCache;
+import com.globant.webdriver.utils.SessionPool;
+import com.globant.webdriver.utils.SessionStartup;
+import com.globant.webdriver.utils.Settle;
+import com.globant.webdriver.utils.TestConfig;
+import com.globant.webdriver.utils.TestDependencies;
+import com.globant.webdriver.utils.Transitions;
+import com.globant.webdriver.utils.UiSnapshot;
+import com.globant.webdriver.utils.Waits;
 import io.appium.java_client.AppiumDriver;
+import org.testng.ITestResult;
+import org.testng.Reporter;
 import org.testng.annotations.AfterMethod;
+import org.testng.annotations.AfterSuite;
 import org.testng.annotations.BeforeMethod;
 import org.testng.asserts.SoftAssert;
 
+import java.lang.reflect.Method;
+import java.nio.file.Path;
 import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
 
 /**
  * Base class for all tests, providing setup and teardown methods.
- * Initializes the Appium driver and manages implicit waits.
+ * Obtains a warm Appium session from the session pool and reports the time each test spent waiting.
+ * No implicit wait is set: screen elements are waited for explicitly by the {@link Waits} engine.
+ * <p>
+ * The driver and the {@link SoftAssert} are bound to the thread running the test,
+ * so test methods and classes can run in parallel, one per registered device.
  */
 public class BaseTest {
 
-    protected AppiumDriver driver;
-    protected SoftAssert softAssert = new SoftAssert();
+    /** Soft assertions of the test running on the current thread. */
+    private static final ThreadLocal<SoftAssert> SOFT_ASSERT = ThreadLocal.withInitial(SoftAssert::new);
 
     /**
-     * Sets up the Appium driver and configures implicit wait time before each test method.
+     * Returns the Appium driver bound to the current test thread.
+     *
+     * @return the current {@link AppiumDriver}.
+     */
+    protected AppiumDriver getDriver() {
+        return DriverManager.getDriver();
+    }
+
+    /**
+     * Returns the soft assertions of the current test. A new instance is used for every test method.
+     *
+     * @return the current {@link SoftAssert}.
+     */
+    protected SoftAssert softAssert() {
+        return SOFT_ASSERT.get();
+    }
+
+    /**
+     * Obtains an Appium session and resets the wait counters before each test method.
+     * Server commands issued from here on are attributed to the test in the {@link CommandMetrics}.
+     * The {@link AppReset} tier the pooled session needed, and its duration, are reported and kept as
+     * the {@code resetTier} and {@code resetMillis} attributes of the test result.
+     * A test retried by {@link CheckpointRetry} finds the session of its failed attempt still bound, skips
+     * the reset and resumes its {@link Flow} after the steps that attempt completed; the attempt number and
+     * the skipped steps are kept as the {@code retryAttempt} and {@code resumedSteps} attributes.
+     * Step screenshots the {@link ArtifactPipeline} kept for earlier tests on the session are dropped.
+     * When enabled, the {@link ResourceSampler} of the session labels its samples with the test from here on.
+     * The screens and fields the test touches are recorded in the {@link TestDependencies}.
+     *
+     * @param method the test method about to run.
+     * @param result the result of the test method about to run.
      */
     @BeforeMethod
-    public void setUp() {
-        driver = DriverManager.getDriver();
-        driver.manage().timeouts().implicitlyWait(Duration.ofSeconds(10));
+    public void setUp(Method method, ITestResult result) {
+        SOFT_ASSERT.set(new SoftAssert());
+        Waits.resetTestTotals();
+        AppReset.clearLastResult();
+        String name = method.getDeclaringClass().getSimpleName() + "." + method.getName();
+        CommandMetrics.startTest(name);
+        boolean kept = DriverManager.getDevice() != null;
+        getDriver();
+        AppReset.lastResult().ifPresentOrElse(reset -> {
+            result.setAttribute("resetTier", reset.tier().name());
+            result.setAttribute("resetMillis", reset.millis());
+            Reporter.log(String.format("%s reset the app with %s in %d ms (%d tiers tried)",
+                    method.getName(), reset.tier(), reset.millis(), reset.attempts()), true);
+        }, () -> result.setAttribute("resetTier", kept ? "KEPT_FOR_RETRY" : "NEW_SESSION"));
+
+        String test = CheckpointRetry.testKey(result);
+        result.setAttribute(CheckpointRetry.RETRY_ATTEMPT, CheckpointRetry.attempts(test));
+        int resumed = Flow.begin(test, String.valueOf(getDriver().getSessionId()));
+        if (resumed > 0) {
+            result.setAttribute("resumedSteps", resumed);
+            Reporter.log(String.format("%s retry %d resumes after %d completed steps",
+                    method.getName(), CheckpointRetry.attempts(test), resumed), true);
+        }
+        ArtifactPipeline.startTest(getDriver());
+        ResourceSampler.start(getDriver(), DriverManager.getDevice().serial(), name);
+        TestDependencies.startTest();
     }
 
     /**
-     * Tears down the Appium driver after each test method.
-     * Asserts all soft assertions and quits the driver.
+     * Releases the Appium session after each test method.
+     * Reports the time spent waiting, asserts all soft assertions and gives the session back to the pool,
+     * or discards it if the test left it unhealthy. Failed tests on a healthy session hand their screenshot,
+     * page source and logcat to the {@link ArtifactPipeline}, which writes them in the background.
+     * A healthy session whose test will be retried by {@link CheckpointRetry} stays bound to the thread,
+     * together with the checkpoints of the test, for the retry to resume on.
+     *
+     * @param result the result of the test method that just ran.
      */
-    @AfterMethod
-    public void tearDown() {
-        if (driver != null) {
+    @AfterMethod(alwaysRun = true)
+    public void tearDown(ITestResult result) {
+        result.setAttribute("waitMillis", Waits.testWaitMillis());
+        CheckpointRetry.charge(result);
+        ResourceSampler.endTest();
+        TestDependencies.endTest(result.getTestClass().getName() + "#" + result.getMethod().getMethodName(),
+                result.getStatus() == ITestResult.SUCCESS);
+        Reporter.log(String.format("%s waited %d ms in %d waits", result.getMethod().getMethodName(),
+                Waits.testWaitMillis(), Waits.testWaitCount()), true);
+        AppiumDriver driver = DriverManager.getDevice() != null ? DriverManager.getDriver() : null;
+        if (driver == null) {
+            Flow.end();
+        } else {
+            boolean failed = result.getStatus() == ITestResult.FAILURE || result.wasRetried();
+            boolean healthy = !failed || SessionPool.isHealthy(driver);
+            if (failed && healthy) {
+                ArtifactPipeline.captureFailure(driver, result.getTestClass().getRealClass().getSimpleName()
+                        + "." + result.getMethod().getMethodName());
+            }
+            boolean retry = failed && CheckpointRetry.willRetry(result);
+            if (!healthy) {
+                Flow.end();
+                DriverManager.discardDriver();
+            } else if (retry) {
+                Reporter.log(String.format("%s will be retried on session %s after %d completed steps",
+                        result.getMethod().getMethodName(), driver.getSessionId(), Flow.suspend()), true);
+            } else {
+                Flow.end();
+                DriverManager.releaseDriver();
+            }
+        }
+        // cleared on both paths, so nothing of this test leaks into the next one on the worker thread
+        SoftAssert softAssert = SOFT_ASSERT.get();
+        SOFT_ASSERT.remove();
+        CommandMetrics.endTest();
+        if (softAssert != null) {
             softAssert.assertAll();
-            driver.quit();
+        }
+    }
+
+    /**
+     * Quits the pooled sessions, finishes the command recordings if any, and reports how many sessions were created versus reused,
+     * and how many server commands the UI snapshots saved.
+     */
+    @AfterSuite(alwaysRun = true)
+    public void shutdownSessionPool() {
+        Reporter.log(SessionPool.stats().toString(), true);
+        Reporter.log(SessionStartup.stats().toString(), true);
+        Reporter.log(UiSnapshot.stats().toString(), true);
+        Reporter.log(ScreenCache.stats().toString(), true);
+        Reporter.log(AppReset.stats().toString(), true);
+        Reporter.log(Settle.stats().toString(), true);
+        Reporter.log(CheckpointRetry.stats() + ", " + Flow.skippedSteps() + " completed steps skipped on resume", true);
+        SessionPool.shutdown();
+        if (ResourceSampler.isEnabled()) {
+            Reporter.log(ResourceSampler.stats().toString(), true);
+        }
+        CommandRecorder.closeAll();
+        if (!ArtifactPipeline.drain(Duration.ofSeconds(30))) {
+            Reporter.log("Some failure artifacts were still being written at the end of the suite", true);
+        }
+        Reporter.log(ArtifactPipeline.stats().toString(), true);
+    }
+
+    /**
+     * Writes the command latency histograms to {@code target/command-metrics.json} and {@code .csv}.
+     */
+    @AfterSuite(alwaysRun = true)
+    public void exportCommandMetrics() {
+        if (CommandMetrics.isEnabled()) {
+            CommandMetrics.export(Path.of("target"));
+        }
+    }
+
+    /**
+     * Reports the percentiles of the timed {@link Transitions} and fails the suite if any of them is
+     * significantly slower than its baseline. Writes the baseline instead when there is none yet or
+     * {@code transitions.updateBaseline=true}. Neither is done while the {@link ResourceSampler} runs, since its
+     * commands delay those of the tests and the samples are not comparable.
+     */
+    @AfterSuite(alwaysRun = true)
+    public void checkTransitionBaselines() {
+        Map<String, List<Double>> samples = Transitions.samples();
+        if (!Transitions.isEnabled() || samples.isEmpty()) {
+            return;
+        }
+        Transitions.export(Path.of("target")).forEach(summary -> Reporter.log(summary.toString(), true));
+        if (ResourceSampler.isEnabled()) {
+            Reporter.log("Transition baselines not checked, resource sampling delays the timed commands", true);
+            return;
+        }
+        Path file = Path.of(TestConfig.get("transitions.baseline", "transition-baselines.json"));
+        Map<String, List<Double>> baseline = Transitions.loadBaseline(file);
+        if (baseline.isEmpty() || TestConfig.getBoolean("transitions.updateBaseline", false)) {
+            Transitions.saveBaseline(file, samples);
+            Reporter.log("Transition baselines written to " + file, true);
+            return;
+        }
+        List<Transitions.Regression> regressions = Transitions.compare(baseline, samples);
+        if (!regressions.isEmpty()) {
+            throw new AssertionError("Transition latency regressions against " + file + ":\n"
+                    + regressions.stream().map(Transitions.Regression::toString).collect(Collectors.joining("\n")));
+        }
+        Reporter.log("No transition regressions against " + file, true);
+    }
+
+    /**
+     * Writes the locator cost report to {@code target/locator-profile.txt} when profiling is enabled.
+     */
+    @AfterSuite(alwaysRun = true)
+    public void reportLocatorProfile() {
+        if (LocatorProfiler.isEnabled()) {
+            Reporter.log("Locator profile:\n" + LocatorProfiler.report(), true);
+            LocatorProfiler.writeReport(Path.of("target", "locator-profile.txt"));
         }
     }
 }
@@ -0,0 +1,136 @@
+package com.globant.webdriver.base;
+
+import com.globant.webdriver.utils.TestConfig;
+import org.testng.IRetryAnalyzer;
+import org.testng.ITestResult;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Retry analyzer that reruns a failed test from its last good checkpoint, on the same session.
+ * <p>
+ * {@link BaseTest} keeps the session of a test that will be retried bound to its thread instead of giving
+ * it back to the pool, so the retry skips both the app reset and the steps the failed attempt completed
+ * (see {@link com.globant.webdriver.utils.Flow}). If the session is left unhealthy, the retry starts over on
+ * a fresh one. Each test is retried at most {@code retry.maxAttempts} times (default 1), and retries stop
+ * for the whole suite once the retried attempts have used {@code retry.budgetSeconds} (default 120).
+ * Enable it per test with {@code @Test(retryAnalyzer = CheckpointRetry.class)}. The checks of such a test must
+ * be hard assertions: soft assertions only fail in the teardown, after the retry decision was taken.
+ */
+public class CheckpointRetry implements IRetryAnalyzer {
+
+    /** Result attribute holding the retry decision, so the analyzer and the teardown agree on it. */
+    private static final String DECISION = "retryDecision";
+
+    /** Result attribute holding the number of retries the test had been granted when the attempt started. */
+    static final String RETRY_ATTEMPT = "retryAttempt";
+
+    /** Retries granted so far, by test key. */
+    private static final Map<String, Integer> ATTEMPTS = new ConcurrentHashMap<>();
+
+    private static final LongAdder RETRIES = new LongAdder();
+    private static final LongAdder DENIED = new LongAdder();
+    private static final LongAdder SPENT_MILLIS = new LongAdder();
+
+    /**
+     * Retry counters across the suite.
+     *
+     * @param retries     retries granted.
+     * @param denied      failures not retried because their test used its attempts or the budget ran out.
+     * @param spentMillis time spent in retried attempts.
+     * @param budgetMillis the suite retry budget.
+     */
+    public record Stats(long retries, long denied, long spentMillis, long budgetMillis) {
+
+        @Override
+        public String toString() {
+            return String.format("Retries: %d granted, %d denied, %d of %d ms of budget used",
+                    retries, denied, spentMillis, budgetMillis);
+        }
+    }
+
+    @Override
+    public boolean retry(ITestResult result) {
+        return willRetry(result);
+    }
+
+    /**
+     * Decides whether a failed test is retried. The decision is taken once per attempt and remembered,
+     * whichever of the analyzer and the teardown asks first.
+     *
+     * @param result the result of the attempt.
+     * @return true if the test will run again.
+     */
+    public static boolean willRetry(ITestResult result) {
+        Object decided = result.getAttribute(DECISION);
+        if (decided != null) {
+            return (Boolean) decided;
+        }
+        boolean retry = false;
+        if (result.getStatus() == ITestResult.FAILURE
+                && CheckpointRetry.class.equals(result.getMethod().getRetryAnalyzerClass())) {
+            String test = testKey(result);
+            retry = attempts(test) < TestConfig.getInt("retry.maxAttempts", 1)
+                    && SPENT_MILLIS.sum() < budgetMillis();
+            if (retry) {
+                ATTEMPTS.merge(test, 1, Integer::sum);
+                RETRIES.increment();
+            } else {
+                DENIED.increment();
+            }
+        }
+        result.setAttribute(DECISION, retry);
+        return retry;
+    }
+
+    /**
+     * Charges the duration of a retried attempt to the suite budget. Whether the attempt is a retry is read from
+     * the {@code retryAttempt} attribute {@link BaseTest} sets when it starts, since the live count of the test
+     * already includes the retry granted to this attempt once the analyzer has run.
+     *
+     * @param result the result of the attempt.
+     */
+    public static void charge(ITestResult result) {
+        if (result.getAttribute(RETRY_ATTEMPT) instanceof Integer attempt && attempt > 0) {
+            SPENT_MILLIS.add(Math.max(0, result.getEndMillis() - result.getStartMillis()));
+        }
+    }
+
+    /**
+     * Returns how many times a test has been retried so far.
+     *
+     * @param test the test key.
+     * @return the retries granted to the test.
+     */
+    public static int attempts(String test) {
+        return ATTEMPTS.getOrDefault(test, 0);
+    }
+
+    /**
+     * Identifies a test across its attempts: class, method and parameters.
+     *
+     * @param result a result of the test.
+     * @return the test key.
+     */
+    public static String testKey(ITestResult result) {
+        String key = result.getTestClass().getName() + "#" + result.getMethod().getMethodName();
+        Object[] parameters = result.getParameters();
+        return parameters == null || parameters.length == 0 ? key : key + Arrays.deepToString(parameters);
+    }
+
+    /**
+     * Returns the retry counters.
+     *
+     * @return a {@link Stats} snapshot.
+     */
+    public static Stats stats() {
+        return new Stats(RETRIES.sum(), DENIED.sum(), SPENT_MILLIS.sum(), budgetMillis());
+    }
+
+    private static long budgetMillis() {
+        return TestConfig.getInt("retry.budgetSeconds", 120) * 1000L;
+    }
+}
@@ -0,0 +1,23 @@
+package com.globant.webdriver.base;
+
+import com.globant.webdriver.utils.TestDependencies;
+import org.testng.ISuite;
+import org.testng.ISuiteListener;
+
+/**
+ * Listener that merges the screens and fields touched by the tests of the suite into the
+ * {@link TestDependencies} map at the end of the suite, so the {@link com.globant.webdriver.utils.TestSelector}
+ * selects the next change-based run from up-to-date dependencies.
+ */
+public class DependencyListener implements ISuiteListener {
+
+    /**
+     * Saves the dependencies recorded by the suite that just finished.
+     *
+     * @param suite the finished suite.
+     */
+    @Override
+    public void onFinish(ISuite suite) {
+        TestDependencies.save();
+    }
+}
@@ -0,0 +1,39 @@
+package com.globant.webdriver.base;
+
+import com.globant.webdriver.utils.TestDurations;
+import org.testng.ISuite;
+import org.testng.ISuiteListener;
+import org.testng.ITestListener;
+import org.testng.ITestResult;
+
+/**
+ * Listener that stores the duration of every finished test in {@link TestDurations} at the end of the suite,
+ * so the next shard plan can balance the devices with up-to-date numbers. Skipped tests are not recorded.
+ */
+public class DurationListener implements ITestListener, ISuiteListener {
+
+    @Override
+    public void onTestSuccess(ITestResult result) {
+        record(result);
+    }
+
+    @Override
+    public void onTestFailure(ITestResult result) {
+        record(result);
+    }
+
+    /**
+     * Saves the durations of the suite that just finished.
+     *
+     * @param suite the finished suite.
+     */
+    @Override
+    public void onFinish(ISuite suite) {
+        TestDurations.save();
+    }
+
+    private static void record(ITestResult result) {
+        String test = result.getTestClass().getName() + "#" + result.getMethod().getMethodName();
+        TestDurations.record(test, result.getEndMillis() - result.getStartMillis());
+    }
+}
@@ -0,0 +1,41 @@
+package com.globant.webdriver.base;
+
+import com.globant.webdriver.utils.CommandRecorder;
+import com.globant.webdriver.utils.DeviceRegistry;
+import com.globant.webdriver.utils.TestConfig;
+import org.testng.IAlterSuiteListener;
+import org.testng.xml.XmlSuite;
+
+import java.util.List;
+
+/**
+ * Suite listener that sizes TestNG parallelism to the registered devices.
+ * <p>
+ * The thread count and the parallel data provider thread count of every suite are set to the number
+ * of devices in {@link DeviceRegistry}, so each worker thread can lease its own device.
+ * The parallel mode is read from the {@code parallel} configuration key ({@code methods}, {@code classes} or {@code none});
+ * when it is not configured, the mode declared in the suite file is kept. While commands are recorded or replayed
+ * the suites run on a single thread, so the tests reach the recording in the same order on every run.
+ * It must be registered in the suite file, since TestNG only applies alter listeners declared there.
+ */
+public class ParallelSuiteListener implements IAlterSuiteListener {
+
+    /**
+     * Adjusts the parallel mode and thread count of the suites before they run.
+     *
+     * @param suites the suites about to run.
+     */
+    @Override
+    public void alter(List<XmlSuite> suites) {
+        String mode = TestConfig.get("parallel", "");
+        for (XmlSuite suite : suites) {
+            if (CommandRecorder.isRecording() || CommandRecorder.isReplaying()) {
+                suite.setParallel(XmlSuite.ParallelMode.NONE);
+            } else if (!mode.isEmpty()) {
+                suite.setParallel(XmlSuite.ParallelMode.getValidParallel(mode));
+            }
+            suite.setThreadCount(DeviceRegistry.size());
+            suite.setDataProviderThreadCount(DeviceRegistry.size());
+        }
+    }
+}
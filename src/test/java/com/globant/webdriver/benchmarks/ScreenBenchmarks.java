@@ -0,0 +1,72 @@
+package com.globant.webdriver.benchmarks;
+
+import com.globant.webdriver.screens.LoginScreen;
+import com.globant.webdriver.screens.SwipeScreen;
+import io.appium.java_client.AppiumBy;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openqa.selenium.WebElement;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Overhead of the screen objects: building a screen with {@code PageFactory}, and calling an element
+ * through a screen field (decorator dispatch, adaptive wait and element cache) compared with calling
+ * the same element directly on the driver.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ScreenBenchmarks {
+
+    /**
+     * A Login screen and the raw element behind its title field, on the stub session.
+     */
+    @State(Scope.Benchmark)
+    public static class LoginState {
+
+        LoginScreen screen;
+        WebElement rawTitle;
+
+        @Setup(Level.Trial)
+        public void create(StubSession session) {
+            screen = new LoginScreen(session.driver);
+            rawTitle = session.driver.findElement(AppiumBy.androidUIAutomator("text(\"Login / Sign up Form\")"));
+        }
+    }
+
+    /** @return a Login screen with its ten field proxies. */
+    @Benchmark
+    public LoginScreen newLoginScreen(StubSession session) {
+        return new LoginScreen(session.driver);
+    }
+
+    /** @return a Swipe screen with its nine field proxies. */
+    @Benchmark
+    public SwipeScreen newSwipeScreen(StubSession session) {
+        return new SwipeScreen(session.driver);
+    }
+
+    /** @return the title visibility, read through the screen field proxy. */
+    @Benchmark
+    public boolean fieldCallThroughScreen(LoginState login) {
+        return login.screen.isLoginSignUpTitleDisplayed();
+    }
+
+    /** @return the title visibility, read on the element directly: the baseline of {@link #fieldCallThroughScreen}. */
+    @Benchmark
+    public boolean fieldCallOnRawElement(LoginState login) {
+        return login.rawTitle.isDisplayed();
+    }
+}
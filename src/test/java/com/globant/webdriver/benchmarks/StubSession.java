@@ -0,0 +1,48 @@
+package com.globant.webdriver.benchmarks;
+
+import com.globant.webdriver.utils.StubAppiumServer;
+import io.appium.java_client.AppiumDriver;
+import io.appium.java_client.android.AndroidDriver;
+import io.appium.java_client.android.options.UiAutomator2Options;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Benchmark state holding a session on an in-process {@link StubAppiumServer}.
+ * <p>
+ * The stub answers every command immediately, so what the benchmarks measure is the cost added by the
+ * framework and the client, not by a device. Profiling and command metrics are turned off, so the
+ * default code paths of a suite run are measured.
+ */
+@State(Scope.Benchmark)
+public class StubSession {
+
+    /** The stub server the session talks to. */
+    public StubAppiumServer stub;
+
+    /** The session on the stub server. */
+    public AppiumDriver driver;
+
+    /**
+     * Starts the stub server and opens a session on it.
+     */
+    @Setup(Level.Trial)
+    public void start() {
+        System.setProperty("profiler.enabled", "false");
+        System.setProperty("metrics.enabled", "false");
+        stub = new StubAppiumServer();
+        driver = new AndroidDriver(stub.getUrl(), new UiAutomator2Options().setDeviceName("stub"));
+    }
+
+    /**
+     * Quits the session and stops the stub server.
+     */
+    @TearDown(Level.Trial)
+    public void stop() {
+        driver.quit();
+        stub.close();
+    }
+}
@@ -0,0 +1,73 @@
+package com.globant.webdriver.benchmarks;
+
+import com.globant.webdriver.utils.CredentialsFactory;
+import com.globant.webdriver.utils.Gestures;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openqa.selenium.Rectangle;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Overhead of the utilities used in test flows: picking credentials and building and sending gestures.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UtilsBenchmarks {
+
+    /** Bounds of a carousel card, as the stub server reports them. */
+    private static final Rectangle CARD = new Rectangle(0, 0, 400, 1080);
+
+    /** @return a random predefined user. */
+    @Benchmark
+    public CredentialsFactory.User randomUser() {
+        return CredentialsFactory.randomUser();
+    }
+
+    /** @return a unique user, from a single thread. */
+    @Benchmark
+    public CredentialsFactory.User uniqueUser() {
+        return CredentialsFactory.uniqueUser();
+    }
+
+    /** @return a unique user, from four threads at once, to show the sequences do not contend. */
+    @Benchmark
+    @Threads(4)
+    public CredentialsFactory.User uniqueUserContended() {
+        return CredentialsFactory.uniqueUser();
+    }
+
+    /** @return a left swipe built but not sent. */
+    @Benchmark
+    public Gestures buildSwipe(StubSession session) {
+        return Gestures.with(session.driver).swipe(CARD, Gestures.Direction.LEFT, 0.5);
+    }
+
+    /** @return five chained left swipes built but not sent. */
+    @Benchmark
+    public Gestures buildChainedSwipes(StubSession session) {
+        Gestures gestures = Gestures.with(session.driver);
+        for (int i = 0; i < 5; i++) {
+            gestures.swipe(CARD, Gestures.Direction.LEFT, 0.5);
+        }
+        return gestures;
+    }
+
+    /**
+     * Builds and sends a left swipe to the stub server.
+     */
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public void performSwipe(StubSession session) {
+        Gestures.swipe(session.driver, CARD, Gestures.Direction.LEFT, 0.5);
+    }
+}
@@ -1,11 +1,27 @@
 package com.globant.webdriver.screens;
 
+import com.globant.webdriver.utils.ArtifactPipeline;
+import com.globant.webdriver.utils.FormFill;
+import com.globant.webdriver.utils.Gestures;
+import com.globant.webdriver.utils.ScreenCache;
+import com.globant.webdriver.utils.ScreenFieldDecorator;
+import com.globant.webdriver.utils.ScrollSearch;
+import com.globant.webdriver.utils.Settle;
+import com.globant.webdriver.utils.TestConfig;
+import com.globant.webdriver.utils.TestDependencies;
+import com.globant.webdriver.utils.Transitions;
+import com.globant.webdriver.utils.UiLocator;
+import com.globant.webdriver.utils.UiSnapshot;
+import com.globant.webdriver.utils.Waits;
 import io.appium.java_client.AppiumDriver;
 import io.appium.java_client.pagefactory.AndroidFindBy;
-import io.appium.java_client.pagefactory.AppiumFieldDecorator;
 import org.openqa.selenium.WebElement;
 import org.openqa.selenium.support.PageFactory;
 
+import java.lang.reflect.Field;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.function.Function;
 
 /**
  * Base screen that centralizes navigation between the main sections of the WEBDRIVER I/O application.
@@ -13,12 +29,22 @@ import org.openqa.selenium.support.PageFactory;
  * Provides methods to access different screens through the bottom menu,
  * making navigation logic reusable and maintainable across tests.
  * Each method returns the corresponding screen, allowing fluent chaining in test flows.
+ * Screen instances are cached per session by the {@link ScreenCache}, so navigating back to a section
+ * does not initialize its elements again.
+ * <p>
+ * Screens can also be verified through a {@link UiSnapshot}: the UI hierarchy is fetched once and
+ * the locators of the annotated fields are resolved against it in memory, so checking several
+ * elements costs one server command instead of a find and an {@code isDisplayed} call per element.
  */
 public class BaseScreen {
 
     /** Appium driver used to interact with the application. */
     protected AppiumDriver driver;
 
+    /** Menu element to access the Home section. */
+    @AndroidFindBy(uiAutomator = "text(\"Home\")")
+    private WebElement homeSection;
+
     /** Menu element to access the Webview section. */
     @AndroidFindBy(uiAutomator = "text(\"Webview\")")
     private WebElement webviewSection;
@@ -41,13 +67,25 @@ public class BaseScreen {
 
     /**
      * Constructor that initializes the BaseScreen with the provided Appium driver.
-     * Uses PageFactory to initialize the elements annotated with @AndroidFindBy.
+     * Uses PageFactory to initialize the elements annotated with @AndroidFindBy,
+     * through the {@link ScreenFieldDecorator} so lookups wait adaptively and can be profiled.
+     * The screen is recorded as a dependency of the running test in the {@link TestDependencies}.
      *
      * @param driver instance of {@link AppiumDriver} to interact with the app.
      */
     public BaseScreen(AppiumDriver driver) {
         this.driver = driver;
-        PageFactory.initElements(new AppiumFieldDecorator(driver),this);
+        TestDependencies.touch(getClass());
+        PageFactory.initElements(new ScreenFieldDecorator(driver),this);
+    }
+
+    /**
+     * Selects the Home section from the bottom menu. The home screen has no screen object of its own.
+     *
+     * @return the base screen, to keep navigating from the home screen.
+     */
+    public BaseScreen selectHome() {
+        return open(homeSection::click, BaseScreen.class, BaseScreen::new);
     }
 
     /**
@@ -56,8 +94,7 @@ public class BaseScreen {
      * @return instance of {@link WebviewScreen}
      */
     public WebviewScreen selectWebview() {
-        webviewSection.click();
-        return new WebviewScreen(driver);
+        return open(webviewSection::click, WebviewScreen.class, WebviewScreen::new);
     }
 
     /**
@@ -66,8 +103,7 @@ public class BaseScreen {
      * @return instance of {@link LoginScreen}
      */
     public LoginScreen selectLogin(){
-        loginSection.click();
-        return new LoginScreen(driver);
+        return open(loginSection::click, LoginScreen.class, LoginScreen::new);
     }
 
     /**
@@ -76,8 +112,7 @@ public class BaseScreen {
      * @return instance of {@link FormsScreen}
      */
     public FormsScreen selectForms() {
-        formsSection.click();
-        return new FormsScreen(driver);
+        return open(formsSection::click, FormsScreen.class, FormsScreen::new);
     }
 
     /**
@@ -86,8 +121,7 @@ public class BaseScreen {
      * @return instance of {@link SwipeScreen}
      */
     public SwipeScreen selectSwipe() {
-        swipeSection.click();
-        return new SwipeScreen(driver);
+        return open(swipeSection::click, SwipeScreen.class, SwipeScreen::new);
     }
 
     /**
@@ -96,8 +130,247 @@ public class BaseScreen {
      * @return instance of {@link DragScreen}
      */
     public DragScreen selectDrag() {
-        dragSection.click();
-        return new DragScreen(driver);
+        return open(dragSection::click, DragScreen.class, DragScreen::new);
+    }
+
+    /**
+     * Selects the Webview section by tapping the position the menu item has in the given snapshot.
+     *
+     * @param menu a snapshot where the bottom menu is visible.
+     * @return instance of {@link WebviewScreen}
+     */
+    public WebviewScreen selectWebview(UiSnapshot menu) {
+        return open(() -> tap(menu, "webviewSection", webviewSection), WebviewScreen.class, WebviewScreen::new);
+    }
+
+    /**
+     * Selects the Login section by tapping the position the menu item has in the given snapshot.
+     *
+     * @param menu a snapshot where the bottom menu is visible.
+     * @return instance of {@link LoginScreen}
+     */
+    public LoginScreen selectLogin(UiSnapshot menu) {
+        return open(() -> tap(menu, "loginSection", loginSection), LoginScreen.class, LoginScreen::new);
+    }
+
+    /**
+     * Selects the Forms section by tapping the position the menu item has in the given snapshot.
+     *
+     * @param menu a snapshot where the bottom menu is visible.
+     * @return instance of {@link FormsScreen}
+     */
+    public FormsScreen selectForms(UiSnapshot menu) {
+        return open(() -> tap(menu, "formsSection", formsSection), FormsScreen.class, FormsScreen::new);
+    }
+
+    /**
+     * Selects the Swipe section by tapping the position the menu item has in the given snapshot.
+     *
+     * @param menu a snapshot where the bottom menu is visible.
+     * @return instance of {@link SwipeScreen}
+     */
+    public SwipeScreen selectSwipe(UiSnapshot menu) {
+        return open(() -> tap(menu, "swipeSection", swipeSection), SwipeScreen.class, SwipeScreen::new);
+    }
+
+    /**
+     * Selects the Drag section by tapping the position the menu item has in the given snapshot.
+     *
+     * @param menu a snapshot where the bottom menu is visible.
+     * @return instance of {@link DragScreen}
+     */
+    public DragScreen selectDrag(UiSnapshot menu) {
+        return open(() -> tap(menu, "dragSection", dragSection), DragScreen.class, DragScreen::new);
+    }
+
+    /**
+     * Fetches the current UI hierarchy with a single server command.
+     *
+     * @return a {@link UiSnapshot} of the screen.
+     */
+    public UiSnapshot snapshot() {
+        return UiSnapshot.capture(driver);
+    }
+
+    /**
+     * Fetches the UI hierarchy once the screen has finished loading, i.e. once the element named by
+     * {@link #loadedField()} is visible, or after the {@code snapshot.timeout} (seconds, default 10) expires.
+     *
+     * @return a {@link UiSnapshot} of the loaded screen.
+     */
+    public UiSnapshot snapshotWhenLoaded() {
+        Optional<UiLocator> marker = loadedField() == null ? Optional.empty() : UiLocator.ofField(getClass(), loadedField());
+        if (marker.isEmpty()) {
+            return snapshot();
+        }
+        return UiSnapshot.captureWhen(driver, marker.get(), Duration.ofSeconds(TestConfig.getInt("snapshot.timeout", 10)));
+    }
+
+    /**
+     * Fetches the UI hierarchy once the screen has stopped moving, e.g. after a gesture or a navigation,
+     * and reports the settle time under {@code <Screen>.<step>}.
+     *
+     * @param step the name of the step that moved the screen.
+     * @return a {@link UiSnapshot} of the settled screen.
+     */
+    public UiSnapshot snapshotWhenSettled(String step) {
+        return Settle.settled(driver, getClass().getSimpleName() + "." + step);
+    }
+
+    /**
+     * Scrolls the screen down until the element of an annotated field is visible, with the {@link ScrollSearch}.
+     *
+     * @param fieldName the name of the {@link AndroidFindBy} annotated field.
+     * @return the search outcome, with the scroll steps and server commands it took.
+     * @throws IllegalArgumentException if the field locator cannot be expressed as a UiSelector.
+     */
+    protected ScrollSearch.Result scrollTo(String fieldName) {
+        UiLocator target = UiLocator.ofField(getClass(), fieldName)
+                .orElseThrow(() -> new IllegalArgumentException("Field " + fieldName + " cannot be searched by scrolling"));
+        return ScrollSearch.scrollTo(driver, target);
+    }
+
+    /**
+     * Fills a form whose entries name annotated fields of this screen, with the {@link FormFill} engine.
+     *
+     * @param form the form description.
+     * @return the fill outcome, with the server commands it took.
+     */
+    protected FormFill.Result fill(FormFill form) {
+        return form.fill(driver, getClass(), this::field);
+    }
+
+    /**
+     * Returns the name of the field whose visibility means the screen has loaded.
+     * Screens override it with their title field.
+     *
+     * @return the field name, or null to take snapshots without waiting.
+     */
+    protected String loadedField() {
+        return null;
+    }
+
+    /**
+     * Checks in a snapshot whether the element of an annotated field of this screen is visible.
+     * Fields whose locator cannot be resolved locally fall back to a live {@code isDisplayed} call.
+     *
+     * @param snapshot  the snapshot to check.
+     * @param fieldName the name of the {@link AndroidFindBy} annotated field.
+     * @return true if the element is visible.
+     */
+    protected boolean isDisplayed(UiSnapshot snapshot, String fieldName) {
+        return UiLocator.ofField(getClass(), fieldName)
+                .map(snapshot::isDisplayed)
+                .orElseGet(() -> field(fieldName).isDisplayed());
+    }
+
+    /**
+     * Waits for the element of an annotated field of this screen to be gone, with {@link Waits#isAbsent}.
+     *
+     * @param fieldName the name of the {@link AndroidFindBy} annotated field.
+     * @return true if the element is gone within the adaptive timeout.
+     * @throws IllegalArgumentException if the field locator cannot be checked in a snapshot.
+     */
+    protected boolean isAbsent(String fieldName) {
+        UiLocator locator = UiLocator.ofField(getClass(), fieldName)
+                .orElseThrow(() -> new IllegalArgumentException("Field " + fieldName + " cannot be checked in a snapshot"));
+        return Waits.isAbsent(driver, locator, getClass().getSimpleName() + "." + fieldName);
+    }
+
+    /**
+     * Taps the center of an element using its bounds from a snapshot, which saves the find command.
+     * Falls back to a regular click when the element is not in the snapshot.
+     *
+     * @param snapshot  the snapshot holding the element bounds.
+     * @param fieldName the name of the annotated field.
+     * @param element   the field value, used for the fallback click.
+     */
+    protected void tap(UiSnapshot snapshot, String fieldName, WebElement element) {
+        Optional<UiSnapshot.Node> node = UiLocator.ofField(getClass(), fieldName).flatMap(snapshot::find);
+        if (node.isEmpty() || !node.get().isVisible()) {
+            element.click();
+            return;
+        }
+        Gestures.with(driver).tap(node.get().bounds()).perform();
+    }
+
+    /**
+     * Taps a menu item, records the navigation to its section and returns its screen, reusing the instance
+     * cached for the session. When step capture is enabled, the section is also kept in the
+     * {@link ArtifactPipeline} ring buffer. When {@link Transitions} are timed, the time from the tap until
+     * the title of the section is visible is recorded as {@code navigate.<Screen>}. The section is a
+     * dependency of the running test even when its screen comes from the cache.
+     *
+     * @param tap     the tap on the menu item.
+     * @param type    the screen class.
+     * @param factory the screen constructor.
+     * @param <T>     the screen type.
+     * @return the screen of the section.
+     */
+    private <T extends BaseScreen> T open(Runnable tap, Class<T> type, Function<AppiumDriver, T> factory) {
+        long start = System.nanoTime();
+        tap.run();
+        ScreenCache.navigatedTo(driver, type);
+        TestDependencies.touch(type);
+        T screen = ScreenCache.screen(driver, type, factory);
+        Optional<UiLocator> marker = Transitions.isEnabled() && screen.loadedField() != null
+                ? UiLocator.ofField(type, screen.loadedField()) : Optional.empty();
+        if (marker.isPresent() && Transitions.awaitVisible(driver, marker.get())) {
+            long elapsed = System.nanoTime() - start;
+            if (screen.isDisplayed(screen.snapshot(), screen.loadedField())) {
+                Transitions.record("navigate." + type.getSimpleName(), elapsed);
+            }
+        }
+        ArtifactPipeline.captureStep(driver, type.getSimpleName());
+        return screen;
+    }
+
+    /**
+     * Performs an action and, when {@link Transitions} are timed, records the time until the element of
+     * a field becomes visible as {@code <Screen>.<action>}. The clock stops when {@link Transitions#awaitVisible}
+     * finds the element, and a single snapshot then confirms it. Samples where the element never shows up are
+     * not recorded, since they measure the timeout rather than the app.
+     *
+     * @param action      the action name, e.g. {@code signUpAlert}.
+     * @param trigger     the action, e.g. the tap on a submit button.
+     * @param markerField the name of the field whose element ends the transition.
+     */
+    protected void timed(String action, Runnable trigger, String markerField) {
+        if (!Transitions.isEnabled()) {
+            trigger.run();
+            return;
+        }
+        UiLocator marker = UiLocator.ofField(getClass(), markerField)
+                .orElseThrow(() -> new IllegalArgumentException("Field " + markerField + " cannot be checked in a snapshot"));
+        long start = System.nanoTime();
+        trigger.run();
+        if (Transitions.awaitVisible(driver, marker)) {
+            long elapsed = System.nanoTime() - start;
+            if (snapshot().isDisplayed(marker)) {
+                Transitions.record(getClass().getSimpleName() + "." + action, elapsed);
+            }
+        }
+    }
+
+    /**
+     * Reads the value of an annotated field of this screen.
+     *
+     * @param fieldName the field name.
+     * @return the element proxy stored in the field.
+     */
+    private WebElement field(String fieldName) {
+        for (Class<?> type = getClass(); type != null; type = type.getSuperclass()) {
+            try {
+                Field field = type.getDeclaredField(fieldName);
+                field.setAccessible(true);
+                return (WebElement) field.get(this);
+            } catch (NoSuchFieldException e) {
+                // keep looking in the superclass
+            } catch (IllegalAccessException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+        throw new IllegalArgumentException("No field " + fieldName + " in " + getClass().getName());
     }
 
 }
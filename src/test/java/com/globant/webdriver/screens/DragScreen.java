@@ -1,5 +1,6 @@
 package com.globant.webdriver.screens;
 
+import com.globant.webdriver.utils.UiSnapshot;
 import io.appium.java_client.AppiumDriver;
 import io.appium.java_client.pagefactory.AndroidFindBy;
 import org.openqa.selenium.WebElement;
@@ -34,4 +35,24 @@ public class DragScreen extends BaseScreen{
     public boolean isDragAndDropTitleDisplayed() {
         return dragAndDropTitle.isDisplayed();
     }
+
+    /**
+     * Checks in a snapshot if the Drag and Drop title is displayed, without any server command.
+     *
+     * @param snapshot a {@link UiSnapshot} of the screen, e.g. from {@link #snapshotWhenLoaded()}.
+     * @return true if the Drag and Drop title is displayed in the snapshot, false otherwise.
+     */
+    public boolean isDragAndDropTitleDisplayed(UiSnapshot snapshot) {
+        return isDisplayed(snapshot, "dragAndDropTitle");
+    }
+
+    /**
+     * Returns the field that marks this screen as loaded.
+     *
+     * @return the name of the Drag and Drop title field.
+     */
+    @Override
+    protected String loadedField() {
+        return "dragAndDropTitle";
+    }
 }
@@ -1,5 +1,7 @@
 package com.globant.webdriver.screens;
 
+import com.globant.webdriver.utils.FormFill;
+import com.globant.webdriver.utils.UiSnapshot;
 import io.appium.java_client.AppiumDriver;
 import io.appium.java_client.pagefactory.AndroidFindBy;
 import org.openqa.selenium.WebElement;
@@ -8,7 +10,8 @@ import org.openqa.selenium.WebElement;
  * Screen representing the Forms section in the WEBDRIVER I/O application.
  * <p>
  * Provides methods to interact with elements specific to the Forms section,
- * such as verifying the presence of the form components title.
+ * such as verifying the presence of the form components title and filling the form components
+ * with the {@link FormFill} engine.
  */
 public class FormsScreen extends BaseScreen{
 
@@ -16,6 +19,22 @@ public class FormsScreen extends BaseScreen{
     @AndroidFindBy(uiAutomator = "text(\"Form components\")")
     private WebElement formComponentsTitle;
 
+    /** Text input of the form. */
+    @AndroidFindBy(accessibility = "text-input")
+    private WebElement textInput;
+
+    /** Label echoing the text typed in the text input. */
+    @AndroidFindBy(accessibility = "input-text-result")
+    private WebElement textInputResult;
+
+    /** On/off switch of the form. */
+    @AndroidFindBy(accessibility = "switch")
+    private WebElement switchToggle;
+
+    /** Label describing the state of the switch. */
+    @AndroidFindBy(accessibility = "switch-text")
+    private WebElement switchText;
+
     /**
      * Constructor that initializes the FormsScreen with the provided Appium driver.
      * Uses PageFactory to initialize the elements annotated with @AndroidFindBy.
@@ -34,4 +53,54 @@ public class FormsScreen extends BaseScreen{
     public boolean isFormComponentsTitleDisplayed() {
         return formComponentsTitle.isDisplayed();
     }
+
+    /**
+     * Types a text in the text input and optionally flips the switch.
+     *
+     * @param text         the text to type.
+     * @param toggleSwitch true to tap the switch once the text is typed.
+     * @return the fill outcome, with the server commands it took.
+     */
+    public FormFill.Result fillForm(String text, boolean toggleSwitch) {
+        FormFill form = FormFill.form("formComponents").type("textInput", text);
+        return fill(toggleSwitch ? form.tap("switchToggle") : form);
+    }
+
+    /**
+     * Retrieves the text the form echoes from its text input.
+     *
+     * @return the echoed text.
+     */
+    public String getTypedText() {
+        return textInputResult.getText();
+    }
+
+    /**
+     * Retrieves the label describing the state of the switch.
+     *
+     * @return the switch label, e.g. {@code Click to turn the switch OFF} once it is on.
+     */
+    public String getSwitchText() {
+        return switchText.getText();
+    }
+
+    /**
+     * Checks in a snapshot if the Form Components title is displayed, without any server command.
+     *
+     * @param snapshot a {@link UiSnapshot} of the screen, e.g. from {@link #snapshotWhenLoaded()}.
+     * @return true if the Form Components title is displayed in the snapshot, false otherwise.
+     */
+    public boolean isFormComponentsTitleDisplayed(UiSnapshot snapshot) {
+        return isDisplayed(snapshot, "formComponentsTitle");
+    }
+
+    /**
+     * Returns the field that marks this screen as loaded.
+     *
+     * @return the name of the Form Components title field.
+     */
+    @Override
+    protected String loadedField() {
+        return "formComponentsTitle";
+    }
 }
@@ -1,5 +1,8 @@
 package com.globant.webdriver.screens;
 
+import com.globant.webdriver.utils.Flow;
+import com.globant.webdriver.utils.FormFill;
+import com.globant.webdriver.utils.UiSnapshot;
 import io.appium.java_client.AppiumDriver;
 import io.appium.java_client.pagefactory.AndroidFindBy;
 import org.openqa.selenium.WebElement;
@@ -8,7 +11,9 @@ import org.openqa.selenium.WebElement;
  * Screen representing the Login and Sign up functionality in the WEBDRIVER I/O application.
  * <p>
  * Provides methods to interact with the login and sign-up forms, including switching between
- * the two forms, submitting credentials, and handling alert dialogs.
+ * the two forms, submitting credentials, and handling alert dialogs. The forms are filled with the
+ * {@link FormFill} engine. Each of these operations is a {@link Flow} checkpoint, so a retried test
+ * resumes after the last one its failed attempt completed.
  */
 public class LoginScreen extends BaseScreen{
 
@@ -71,12 +76,15 @@ public class LoginScreen extends BaseScreen{
      * @param password the password to use for sign up.
      */
     public void signUp(String username, String password) {
-        selectLogin();
-        signUpTab.click();
-        emailInput.sendKeys(username);
-        passwordInput.sendKeys(password);
-        repeatPasswordInput.sendKeys(password);
-        signUpButton.click();
+        Flow.step("LoginScreen.signUp", () -> {
+            selectLogin();
+            fill(FormFill.form("signUp")
+                    .tap("signUpTab")
+                    .type("emailInput", username)
+                    .type("passwordInput", password)
+                    .type("repeatPasswordInput", password));
+            timed("signUpAlert", signUpButton::click, "alertTitle");
+        });
     }
 
     /**
@@ -86,22 +94,29 @@ public class LoginScreen extends BaseScreen{
      * @param password the password to use for login.
      */
     public void login(String username, String password) {
-        selectLogin();
-        loginTab.click();
-        emailInput.sendKeys(username);
-        passwordInput.sendKeys(password);
-        loginButton.click();
+        Flow.step("LoginScreen.login", () -> {
+            selectLogin();
+            fill(FormFill.form("login")
+                    .tap("loginTab")
+                    .type("emailInput", username)
+                    .type("passwordInput", password));
+            timed("loginAlert", loginButton::click, "alertTitle");
+        });
     }
 
     /**
      * Retrieves the text of the alert dialog title and closes the dialog.
+     * It is a {@link Flow#check(String, java.util.function.Supplier) check} of the sign up or login before it,
+     * so a retry of a failed check or of a failed assertion on the title submits the form again.
      *
      * @return the text of the alert dialog title.
      */
     public String getAlertTitle() {
-        String isAlertDisplayed = alertTitle.getText();
-        OKButton.click();
-        return isAlertDisplayed;
+        return Flow.check("LoginScreen.getAlertTitle", () -> {
+            String isAlertDisplayed = alertTitle.getText();
+            OKButton.click();
+            return isAlertDisplayed;
+        });
     }
 
     /**
@@ -112,4 +127,24 @@ public class LoginScreen extends BaseScreen{
     public boolean isLoginSignUpTitleDisplayed() {
         return loginSignUpTitle.isDisplayed();
     }
+
+    /**
+     * Checks in a snapshot if the Login / Sign up title is displayed, without any server command.
+     *
+     * @param snapshot a {@link UiSnapshot} of the screen, e.g. from {@link #snapshotWhenLoaded()}.
+     * @return true if the Login / Sign up title is displayed in the snapshot, false otherwise.
+     */
+    public boolean isLoginSignUpTitleDisplayed(UiSnapshot snapshot) {
+        return isDisplayed(snapshot, "loginSignUpTitle");
+    }
+
+    /**
+     * Returns the field that marks this screen as loaded.
+     *
+     * @return the name of the Login / Sign up title field.
+     */
+    @Override
+    protected String loadedField() {
+        return "loginSignUpTitle";
+    }
 }
@@ -1,22 +1,21 @@
 package com.globant.webdriver.screens;
 
+import com.globant.webdriver.utils.Flow;
+import com.globant.webdriver.utils.Gestures;
+import com.globant.webdriver.utils.Transitions;
+import com.globant.webdriver.utils.UiSnapshot;
 import io.appium.java_client.AppiumDriver;
 import io.appium.java_client.pagefactory.AndroidFindBy;
-import org.openqa.selenium.TimeoutException;
+import org.openqa.selenium.Rectangle;
 import org.openqa.selenium.WebElement;
-import org.openqa.selenium.interactions.PointerInput;
-import org.openqa.selenium.interactions.Sequence;
-import org.openqa.selenium.support.ui.ExpectedConditions;
-import org.openqa.selenium.support.ui.WebDriverWait;
-
-import java.time.Duration;
-import java.util.List;
 
 /**
  * Screen representing the Swipe functionality in the WEBDRIVER I/O application.
  * <p>
  * Provides methods to interact with swipeable cards and to scroll within the Swipe section,
  * such as swiping left on cards and scrolling to specific elements.
+ * Gestures are built by {@link Gestures} from a single rect command per element, not from
+ * separate location and size calls. Every card swipe and the final scroll are {@link Flow} checkpoints.
  */
 public class SwipeScreen extends BaseScreen{
 
@@ -51,10 +50,6 @@ public class SwipeScreen extends BaseScreen{
     @AndroidFindBy(uiAutomator = "text(\"COMPATIBLE\")")
     private WebElement compatibleCard;
 
-    /** Group element containing sections */
-    @AndroidFindBy(uiAutomator = "new UiSelector().className(\"android.view.ViewGroup\").instance(16)")
-    private WebElement groupSections;
-
     /**
      * Element that indicates the user has found a hidden message.
      * This element is displayed when the user scrolls to the end of the Swipe section.
@@ -62,6 +57,9 @@ public class SwipeScreen extends BaseScreen{
     @AndroidFindBy(uiAutomator = "text(\"You found me!!!\")")
     private WebElement youFoundMe;
 
+    /** Bounds of the card centered in the carousel, read once from the first swiped card. */
+    private Rectangle cardArea;
+
     /**
      * Constructor that initializes the SwipeScreen with the provided Appium driver.
      * Uses PageFactory to initialize the elements annotated with @AndroidFindBy.
@@ -81,13 +79,33 @@ public class SwipeScreen extends BaseScreen{
         return swipeHorizontalTitle.isDisplayed();
     }
 
+    /**
+     * Checks in a snapshot if the Swipe horizontal title is displayed, without any server command.
+     *
+     * @param snapshot a {@link UiSnapshot} of the screen, e.g. from {@link #snapshotWhenLoaded()}.
+     * @return true if the title is displayed in the snapshot, false otherwise.
+     */
+    public boolean isSwipeHorizontalTitleDisplayed(UiSnapshot snapshot) {
+        return isDisplayed(snapshot, "swipeHorizontalTitle");
+    }
+
+    /**
+     * Returns the field that marks this screen as loaded.
+     *
+     * @return the name of the Swipe horizontal title field.
+     */
+    @Override
+    protected String loadedField() {
+        return "swipeHorizontalTitle";
+    }
+
     /**
      * Swipes left from the GitHub card to the Community card.
      *
      * @return true if the Community card is displayed and the GitHub card is invisible, false otherwise.
      */
     public boolean swipeLeftGitHubCard() {
-        return swipeLeftCard(gitHubCard,communityCard);
+        return swipeLeftCard(gitHubCard, "gitHubCard", "communityCard");
     }
 
     /**
@@ -96,7 +114,7 @@ public class SwipeScreen extends BaseScreen{
      * @return true if the JS Foundation card is displayed and the Community card is invisible, false otherwise.
      */
     public boolean swipeLeftCommunityCard() {
-        return swipeLeftCard(communityCard, jsFoundationCard);
+        return swipeLeftCard(communityCard, "communityCard", "jsFoundationCard");
     }
 
     /**
@@ -105,7 +123,7 @@ public class SwipeScreen extends BaseScreen{
      * @return true if the Support Videos card is displayed and the JS Foundation card is invisible, false otherwise.
      */
     public boolean swipeLeftJsFoundationCard() {
-        return swipeLeftCard(jsFoundationCard, supportVideosCard);
+        return swipeLeftCard(jsFoundationCard, "jsFoundationCard", "supportVideosCard");
     }
 
     /**
@@ -114,7 +132,7 @@ public class SwipeScreen extends BaseScreen{
      * @return true if the Extendable card is displayed and the Support Videos card is invisible, false otherwise.
      */
     public boolean swipeLeftSupportVideosCard() {
-        return swipeLeftCard(supportVideosCard, extendableCard);
+        return swipeLeftCard(supportVideosCard, "supportVideosCard", "extendableCard");
     }
 
     /**
@@ -123,98 +141,52 @@ public class SwipeScreen extends BaseScreen{
      * @return true if the Compatible card is displayed and the Extendable card is invisible, false otherwise.
      */
     public boolean swipeLeftExtendableCard() {
-        return swipeLeftCard(extendableCard, compatibleCard);
+        return swipeLeftCard(extendableCard, "extendableCard", "compatibleCard");
     }
 
     /**
-     * Scrolls to the "You found me!!!" element and checks if it is displayed.
+     * Scrolls down the Swipe section until the "You found me!!!" element is displayed.
      *
      * @return true if the "You found me!!!" element is displayed, false otherwise.
      */
     public boolean scrollToFundMe() {
-        scrollToYouFoundMe(compatibleCard, groupSections);
-        return youFoundMe.isDisplayed();
+        return Flow.step("SwipeScreen.scrollToFundMe", () -> scrollTo("youFoundMe").found());
     }
 
     /**
-     * Performs a left swipe gesture on the given element.
+     * Performs a left swipe gesture on the given element, from its center to its left edge.
+     * The card geometry is read with a single rect command the first time and reused afterwards,
+     * since every card is centered at the same position of the carousel.
      *
      * @param element the card element to swipe left.
      */
     public void swipeLeft(WebElement element) {
-        int startX = element.getLocation().getX() + (element.getSize().getWidth() / 2);
-        int startY = element.getLocation().getY() + (element.getSize().getHeight() / 2);
-        int endX = element.getLocation().getX();
-
-        PointerInput pointer = new PointerInput(PointerInput.Kind.TOUCH, "pointer");
-        Sequence sequence = new Sequence(pointer, 0)
-                .addAction(pointer.createPointerMove(Duration.ofMillis(0), PointerInput.Origin.viewport(), startX, startY))
-                .addAction(pointer.createPointerDown(PointerInput.MouseButton.LEFT.asArg()))
-                .addAction(pointer.createPointerMove(Duration.ofMillis(200), PointerInput.Origin.viewport(), endX, startY))
-                .addAction(pointer.createPointerUp(PointerInput.MouseButton.LEFT.asArg()));
-
-        driver.perform(List.of(sequence));
+        if (cardArea == null) {
+            cardArea = element.getRect();
+        }
+        Gestures.swipe(driver, cardArea, Gestures.Direction.LEFT, 0.5);
     }
 
     /**
      * Swipes left from the start card to the end card and verifies the transition.
+     * The check waits for the carousel to settle instead of a fixed time, and then reads both
+     * cards from the settled hierarchy, so it returns as soon as the animation ends.
      *
-     * @param startCard the card to swipe from.
-     * @param endCard the card to swipe to.
+     * @param startCard      the card to swipe from.
+     * @param startCardField the name of the start card field.
+     * @param endCardField   the name of the end card field.
      * @return true if the end card is displayed and the start card is invisible, false otherwise.
      */
-    public boolean swipeLeftCard(WebElement startCard, WebElement endCard) {
-        selectSwipe();
-        swipeLeft(startCard);
-
-        driver.manage().timeouts().implicitlyWait(Duration.ofSeconds(0));
-
-        boolean isStartCardInvisible;
-        try {
-            WebDriverWait shortWait = new WebDriverWait(driver, Duration.ofMillis(200));
-            isStartCardInvisible = shortWait.until(ExpectedConditions.invisibilityOf(startCard));
-        } catch (TimeoutException e) {
-            isStartCardInvisible = false;
-        }
-
-        return endCard.isDisplayed() && isStartCardInvisible;
-    }
-
-    /**
-     * Resets the implicit wait timeout to its default value.
-     */
-    public void resetImplicitWait() {
-        driver.manage().timeouts().implicitlyWait(Duration.ofSeconds(10));
-    }
-
-    /**
-     * Performs a vertical scroll gesture using two elements as reference points to calculate the initial Y coordinate.
-     * Both `elementA` and `elementB` are used to determine the starting Y position for the scroll,
-     * allowing the "You found me!!!" element to be revealed on the screen.
-     *
-     * @param elementA reference element to help calculate the initial Y position.
-     * @param elementB another reference element to help calculate the initial Y position.
-     */
-    public void scrollToYouFoundMe(WebElement elementA, WebElement elementB) {
-        int startX = elementA.getLocation().getX() + (elementA.getSize().getWidth() / 2);
-
-        int endYA = elementA.getLocation().getY() + elementA.getSize().getHeight();
-        int startYB = elementB.getLocation().getY();
-
-        int offset = (startYB - endYA) * 80 / 100;
-        int resultY = endYA + offset;
-
-        int endY = 0;
-
-        PointerInput pointer = new PointerInput(PointerInput.Kind.TOUCH, "pointer");
-        Sequence sequence = new Sequence(pointer, 0)
-                .addAction(pointer.createPointerMove(Duration.ofMillis(0), PointerInput.Origin.viewport(), startX, resultY))
-                .addAction(pointer.createPointerDown(PointerInput.MouseButton.LEFT.asArg()))
-                .addAction(pointer.createPointerMove(Duration.ofMillis(500), PointerInput.Origin.viewport(), startX, endY))
-                .addAction(pointer.createPointerUp(PointerInput.MouseButton.LEFT.asArg()));
-
-        driver.perform(List.of(sequence));
+    private boolean swipeLeftCard(WebElement startCard, String startCardField, String endCardField) {
+        return Flow.step("SwipeScreen.swipeLeft." + startCardField, () -> {
+            long start = System.nanoTime();
+            swipeLeft(startCard);
+            UiSnapshot settled = snapshotWhenSettled("swipe");
+            boolean swiped = isDisplayed(settled, endCardField) && !isDisplayed(settled, startCardField);
+            if (swiped && Transitions.isEnabled()) {
+                Transitions.record("SwipeScreen.cardSwipe", System.nanoTime() - start);
+            }
+            return swiped;
+        });
     }
-
-
 }
@@ -1,5 +1,6 @@
 package com.globant.webdriver.screens;
 
+import com.globant.webdriver.utils.UiSnapshot;
 import io.appium.java_client.AppiumDriver;
 import io.appium.java_client.pagefactory.AndroidFindBy;
 import org.openqa.selenium.WebElement;
@@ -33,4 +34,24 @@ public class WebviewScreen extends BaseScreen{
     public boolean isWebViewDisplayed() {
         return webViewClass.isDisplayed();
     }
+
+    /**
+     * Checks in a snapshot if the WebView is displayed, without any server command.
+     *
+     * @param snapshot a {@link UiSnapshot} of the screen, e.g. from {@link #snapshotWhenLoaded()}.
+     * @return true if the WebView is displayed in the snapshot, false otherwise.
+     */
+    public boolean isWebViewDisplayed(UiSnapshot snapshot) {
+        return isDisplayed(snapshot, "webViewClass");
+    }
+
+    /**
+     * Returns the field that marks this screen as loaded.
+     *
+     * @return the name of the WebView field.
+     */
+    @Override
+    protected String loadedField() {
+        return "webViewClass";
+    }
 }
@@ -0,0 +1,108 @@
+package com.globant.webdriver.tests;
+
+import com.globant.webdriver.base.BaseTest;
+import com.globant.webdriver.screens.BaseScreen;
+import com.globant.webdriver.screens.LoginScreen;
+import com.globant.webdriver.screens.SwipeScreen;
+import com.globant.webdriver.utils.CredentialsFactory.User;
+import com.globant.webdriver.utils.DeviceRegistry;
+import com.globant.webdriver.utils.ResourceSampler;
+import com.globant.webdriver.utils.SessionPool;
+import com.globant.webdriver.utils.Soak;
+import com.globant.webdriver.utils.TestConfig;
+import org.testng.Assert;
+import org.testng.SkipException;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import java.nio.file.Path;
+import java.util.stream.IntStream;
+
+import static com.globant.webdriver.utils.CredentialsFactory.uniqueUser;
+
+/**
+ * Repeats the sign-up/login and card swipe flows as {@link Soak} runs, to watch the app over thousands of cycles.
+ * Run with {@code suite-soak.xml}. Each test is invoked once per session ({@code soak.sessions}, default one per
+ * device), and the invocations share the iterations of their run, so the run limits do not depend on the
+ * number of sessions.
+ */
+public class SoakTests extends BaseTest {
+
+    /**
+     * Skips the class unless soak runs are enabled, since a run takes up to {@code soak.minutes} minutes or
+     * {@code soak.iterations} iterations, and while the {@link ResourceSampler} runs, since its commands share the
+     * sessions and would slow the iterations, so the latency trend would not be the app's.
+     */
+    @BeforeClass(alwaysRun = true)
+    public void enableSoak() {
+        if (!TestConfig.getBoolean("soak.enabled", false)) {
+            throw new SkipException("Soak runs are disabled, run with -Dsoak.enabled=true");
+        }
+        if (ResourceSampler.isEnabled()) {
+            throw new SkipException("Resource sampling delays the soak iterations, run without -Dsampler.enabled=true");
+        }
+    }
+
+    /**
+     * One invocation per soak session.
+     *
+     * @return the session numbers.
+     */
+    @DataProvider(name = "soakSessions", parallel = true)
+    public static Object[][] soakSessions() {
+        return IntStream.range(0, TestConfig.getInt("soak.sessions", DeviceRegistry.size()))
+                .mapToObj(session -> new Object[] {session}).toArray(Object[][]::new);
+    }
+
+    /**
+     * Signs up a new user and logs in with it, in a loop.
+     *
+     * @param session the soak session number.
+     */
+    @Test(priority = 1, testName = "Sign up and login soak", dataProvider = "soakSessions")
+    public void loginSoak(int session) {
+        LoginScreen loginScreen = new LoginScreen(getDriver());
+        Soak.Run run = Soak.run("login");
+        while (run.next()) {
+            run.iteration(() -> {
+                User user = uniqueUser();
+                loginScreen.signUp(user.email(), user.password());
+                Assert.assertEquals(loginScreen.getAlertTitle(), "Signed Up!", "Sign up failed");
+                loginScreen.login(user.email(), user.password());
+                Assert.assertEquals(loginScreen.getAlertTitle(), "Success", "Login failed");
+            }, () -> SessionPool.resetAppState(getDriver(), false));
+        }
+    }
+
+    /**
+     * Swipes the five cards of the carousel in a loop, restarting the app between iterations so every
+     * iteration starts from the first card. The restarts are not part of the iteration latency.
+     *
+     * @param session the soak session number.
+     */
+    @Test(priority = 2, testName = "Card swipe soak", dataProvider = "soakSessions")
+    public void swipeSoak(int session) {
+        Soak.Run run = Soak.run("swipe");
+        while (run.next()) {
+            run.iteration(() -> {
+                SwipeScreen swipeScreen = new BaseScreen(getDriver()).selectSwipe();
+                Assert.assertTrue(swipeScreen.swipeLeftGitHubCard(), "Failed to swipe left on GitHub Card");
+                Assert.assertTrue(swipeScreen.swipeLeftCommunityCard(), "Failed to swipe left on Community Card");
+                Assert.assertTrue(swipeScreen.swipeLeftJsFoundationCard(), "Failed to swipe left on JS Foundation Card");
+                Assert.assertTrue(swipeScreen.swipeLeftSupportVideosCard(), "Failed to swipe left on Support Videos Card");
+                Assert.assertTrue(swipeScreen.swipeLeftExtendableCard(), "Failed to swipe left on Extendable Card");
+            }, () -> { });
+            SessionPool.resetAppState(getDriver(), false);
+        }
+    }
+
+    /**
+     * Logs the degradation trend of each run and writes its windows to {@code target/soak.csv}.
+     */
+    @AfterClass(alwaysRun = true)
+    public void reportSoak() {
+        Soak.report(Path.of("target"));
+    }
+}
@@ -1,14 +1,21 @@
 package com.globant.webdriver.tests;
 
 import com.globant.webdriver.base.BaseTest;
+import com.globant.webdriver.base.CheckpointRetry;
 import com.globant.webdriver.screens.BaseScreen;
+import com.globant.webdriver.screens.DragScreen;
+import com.globant.webdriver.screens.FormsScreen;
 import com.globant.webdriver.screens.LoginScreen;
 import com.globant.webdriver.screens.SwipeScreen;
+import com.globant.webdriver.screens.WebviewScreen;
+import com.globant.webdriver.utils.CredentialsFactory;
 import com.globant.webdriver.utils.CredentialsFactory.*;
+import com.globant.webdriver.utils.DriverManager;
+import com.globant.webdriver.utils.UiSnapshot;
 import org.testng.Assert;
 import org.testng.annotations.Test;
 
-import static com.globant.webdriver.utils.CredentialsFactory.randomUser;
+import static com.globant.webdriver.utils.CredentialsFactory.uniqueUser;
 
 /**
  * Contains automated UI tests for the WEBDRIVER I/O application.
@@ -19,39 +26,57 @@ public class Tests extends BaseTest{
     /**
      * Checks that each section in the bottom menu bar
      * can be accessed and displays the correct screen.
+     * The menu positions are read from one snapshot and every section is verified against
+     * a single snapshot of its own, instead of a find and isDisplayed call per element.
      */
     @Test(priority = 1, testName = "Navigation on the bottom menu bar")
     public void navigationBottomMenuBar(){
-        BaseScreen baseScreen = new BaseScreen(driver);
-        softAssert.assertTrue(baseScreen.selectWebview().isWebViewDisplayed(), "Webview section is not displayed");
-        softAssert.assertTrue(baseScreen.selectLogin().isLoginSignUpTitleDisplayed(), "Login/Sign Up section is not displayed");
-        softAssert.assertTrue(baseScreen.selectForms().isFormComponentsTitleDisplayed(), "Form Components section is not displayed");
-        softAssert.assertTrue(baseScreen.selectSwipe().isSwipeHorizontalTitleDisplayed(), "Swipe section is not displayed");
-        softAssert.assertTrue(baseScreen.selectDrag().isDragAndDropTitleDisplayed(), "Drag and Drop section is not displayed");
+        BaseScreen baseScreen = new BaseScreen(getDriver());
+        UiSnapshot menu = baseScreen.snapshot();
+
+        WebviewScreen webviewScreen = baseScreen.selectWebview(menu);
+        softAssert().assertTrue(webviewScreen.isWebViewDisplayed(webviewScreen.snapshotWhenLoaded()), "Webview section is not displayed");
+        LoginScreen loginScreen = baseScreen.selectLogin(menu);
+        softAssert().assertTrue(loginScreen.isLoginSignUpTitleDisplayed(loginScreen.snapshotWhenLoaded()), "Login/Sign Up section is not displayed");
+        FormsScreen formsScreen = baseScreen.selectForms(menu);
+        softAssert().assertTrue(formsScreen.isFormComponentsTitleDisplayed(formsScreen.snapshotWhenLoaded()), "Form Components section is not displayed");
+        SwipeScreen swipeScreen = baseScreen.selectSwipe(menu);
+        softAssert().assertTrue(swipeScreen.isSwipeHorizontalTitleDisplayed(swipeScreen.snapshotWhenLoaded()), "Swipe section is not displayed");
+        DragScreen dragScreen = baseScreen.selectDrag(menu);
+        softAssert().assertTrue(dragScreen.isDragAndDropTitleDisplayed(dragScreen.snapshotWhenLoaded()), "Drag and Drop section is not displayed");
     }
 
     /**
      * Verifies that a new user can sign up successfully,
-     * using random credentials and checking for the success alert.
+     * using unique credentials and checking for the success alert.
+     * The created user is registered so login flows on the same device can reuse it.
      */
     @Test(priority = 2, testName = "Successful Sign Up")
     public void successfulSignUp(){
-        LoginScreen loginScreen = new LoginScreen(driver);
-        User user = randomUser();
+        LoginScreen loginScreen = new LoginScreen(getDriver());
+        User user = uniqueUser();
         loginScreen.signUp(user.email(), user.password());
         Assert.assertEquals(loginScreen.getAlertTitle(), "Signed Up!", "Sign up failed");
+        CredentialsFactory.registerCreated(DriverManager.getDevice().serial(), user);
     }
 
     /**
      * Ensures that a registered user can log in with valid credentials
      * and receives the expected success message.
+     * Reuses a user created earlier on the device, or signs up a new one.
+     * A retry resumes on the same session after the last completed step, e.g. at the login itself.
      */
-    @Test(priority = 3, testName = "Successful Login")
+    @Test(priority = 3, testName = "Successful Login", retryAnalyzer = CheckpointRetry.class)
     public void successfulLogin(){
-        LoginScreen loginScreen = new LoginScreen(driver);
-        User user = randomUser();
-        loginScreen.signUp(user.email(), user.password());
-        loginScreen.getAlertTitle();
+        LoginScreen loginScreen = new LoginScreen(getDriver());
+        String serial = DriverManager.getDevice().serial();
+        User user = CredentialsFactory.createdUser(serial).orElseGet(() -> {
+            User created = uniqueUser();
+            loginScreen.signUp(created.email(), created.password());
+            loginScreen.getAlertTitle();
+            CredentialsFactory.registerCreated(serial, created);
+            return created;
+        });
         loginScreen.login(user.email(), user.password());
         Assert.assertEquals(loginScreen.getAlertTitle(), "Success", "Login failed");
     }
@@ -60,20 +85,33 @@ public class Tests extends BaseTest{
      * Tests the swipe functionality in the Swipe section by swiping left
      * on several cards and then scrolling to the end of the page to verify
      * that the final element is displayed.
+     * The checks are hard assertions, so a failed swipe fails the test itself and {@link CheckpointRetry}
+     * can retry it from the last completed swipe.
      */
-    @Test(priority = 4, testName = "Swipe cards on the Swipe section")
+    @Test(priority = 4, testName = "Swipe cards on the Swipe section", retryAnalyzer = CheckpointRetry.class)
     public void swipeCards() {
-        BaseScreen baseScreen = new BaseScreen(driver);
+        BaseScreen baseScreen = new BaseScreen(getDriver());
 
         SwipeScreen swipeScreen = baseScreen.selectSwipe();
-        softAssert.assertTrue(swipeScreen.swipeLeftGitHubCard(), "Failed to swipe left on GitHub Card");
-        softAssert.assertTrue(swipeScreen.swipeLeftCommunityCard(), "Failed to swipe left on Community Card");
-        softAssert.assertTrue(swipeScreen.swipeLeftJsFoundationCard(), "Failed to swipe left on JS Foundation Card");
-        softAssert.assertTrue(swipeScreen.swipeLeftSupportVideosCard(), "Failed to swipe left on Support Videos Card");
-        softAssert.assertTrue(swipeScreen.swipeLeftExtendableCard(), "Failed to swipe left on Extendable Card");
-        swipeScreen.resetImplicitWait();
+        Assert.assertTrue(swipeScreen.swipeLeftGitHubCard(), "Failed to swipe left on GitHub Card");
+        Assert.assertTrue(swipeScreen.swipeLeftCommunityCard(), "Failed to swipe left on Community Card");
+        Assert.assertTrue(swipeScreen.swipeLeftJsFoundationCard(), "Failed to swipe left on JS Foundation Card");
+        Assert.assertTrue(swipeScreen.swipeLeftSupportVideosCard(), "Failed to swipe left on Support Videos Card");
+        Assert.assertTrue(swipeScreen.swipeLeftExtendableCard(), "Failed to swipe left on Extendable Card");
+
+        Assert.assertTrue(swipeScreen.scrollToFundMe(), "You Found is not displayed after scrolling");
+    }
 
-        softAssert.assertTrue(swipeScreen.scrollToFundMe(), "You Found is not displayed after scrolling");
+    /**
+     * Fills the text input and flips the switch in the Forms section,
+     * and checks that the form echoes the text and reports the switch as on.
+     */
+    @Test(priority = 5, testName = "Fill the form components")
+    public void fillFormComponents() {
+        FormsScreen formsScreen = new BaseScreen(getDriver()).selectForms();
+        formsScreen.fillForm("Hello WebdriverIO", true);
+        softAssert().assertEquals(formsScreen.getTypedText(), "Hello WebdriverIO", "Typed text is not echoed");
+        softAssert().assertEquals(formsScreen.getSwitchText(), "Click to turn the switch OFF", "Switch was not turned on");
     }
 
 
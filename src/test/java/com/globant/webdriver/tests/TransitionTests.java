@@ -0,0 +1,85 @@
+package com.globant.webdriver.tests;
+
+import com.globant.webdriver.base.BaseTest;
+import com.globant.webdriver.screens.BaseScreen;
+import com.globant.webdriver.screens.LoginScreen;
+import com.globant.webdriver.screens.SwipeScreen;
+import com.globant.webdriver.utils.CredentialsFactory.User;
+import com.globant.webdriver.utils.ResourceSampler;
+import com.globant.webdriver.utils.SessionPool;
+import com.globant.webdriver.utils.TestConfig;
+import com.globant.webdriver.utils.Transitions;
+import org.testng.SkipException;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import static com.globant.webdriver.utils.CredentialsFactory.uniqueUser;
+
+/**
+ * Repeats the navigations and actions timed by {@link Transitions} to collect enough samples for the
+ * baseline gate. Run with {@code suite-transitions.xml}; each test takes {@code transitions.samples}
+ * samples (default 20) of its transitions.
+ */
+public class TransitionTests extends BaseTest {
+
+    /**
+     * Skips the class unless transition timing is enabled, since its samples would be discarded, and while the
+     * {@link ResourceSampler} runs, since its commands share the session and would slow the timed transitions.
+     */
+    @BeforeClass(alwaysRun = true)
+    public void enableTransitions() {
+        if (!Transitions.isEnabled()) {
+            throw new SkipException("Transition timing is disabled, run with -Dtransitions.enabled=true");
+        }
+        if (ResourceSampler.isEnabled()) {
+            throw new SkipException("Resource sampling delays the timed commands, run without -Dsampler.enabled=true");
+        }
+    }
+
+    /**
+     * Navigates to every section of the bottom menu, repeatedly.
+     */
+    @Test(priority = 1, testName = "Bottom menu navigation latency")
+    public void navigationLatency() {
+        BaseScreen baseScreen = new BaseScreen(getDriver());
+        for (int i = 0; i < samples(); i++) {
+            baseScreen.selectWebview();
+            baseScreen.selectLogin();
+            baseScreen.selectForms();
+            baseScreen.selectSwipe();
+            baseScreen.selectDrag();
+        }
+    }
+
+    /**
+     * Signs up and logs in repeatedly, timing both alerts.
+     */
+    @Test(priority = 2, testName = "Sign up and login alert latency")
+    public void alertLatency() {
+        LoginScreen loginScreen = new LoginScreen(getDriver());
+        for (int i = 0; i < samples(); i++) {
+            User user = uniqueUser();
+            loginScreen.signUp(user.email(), user.password());
+            loginScreen.getAlertTitle();
+            loginScreen.login(user.email(), user.password());
+            loginScreen.getAlertTitle();
+        }
+    }
+
+    /**
+     * Swipes the first card of the carousel repeatedly, restarting the app between samples so every
+     * swipe starts from the same card.
+     */
+    @Test(priority = 3, testName = "Card swipe latency")
+    public void cardSwipeLatency() {
+        for (int i = 0; i < samples(); i++) {
+            SwipeScreen swipeScreen = new BaseScreen(getDriver()).selectSwipe();
+            swipeScreen.swipeLeftGitHubCard();
+            SessionPool.resetAppState(getDriver(), false);
+        }
+    }
+
+    private static int samples() {
+        return TestConfig.getInt("transitions.samples", 20);
+    }
+}
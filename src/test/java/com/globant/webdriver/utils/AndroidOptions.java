@@ -2,24 +2,78 @@ package com.globant.webdriver.utils;
 
 import io.appium.java_client.android.options.UiAutomator2Options;
 
+import java.nio.file.Path;
+
 /**
  * Utility class for configuring Android-specific Appium options.
  * <p>
- * Provides a static method to generate and configure {@link UiAutomator2Options}
+ * Provides static methods to generate and configure {@link UiAutomator2Options}
  * for initializing the Appium driver with the required device and app settings.
  */
 public class AndroidOptions {
 
+    /** Package name of the WEBDRIVER I/O demo application. */
+    public static final String APP_PACKAGE = "com.wdiodemoapp";
+
+    /** Main activity of the WEBDRIVER I/O demo application. */
+    public static final String APP_ACTIVITY = ".MainActivity";
+
+    /**
+     * Returns the absolute path of the WEBDRIVER I/O demo application APK, from {@code app.path}.
+     *
+     * @return the APK path.
+     */
+    public static String appPath() {
+        return Path.of(TestConfig.get("app.path", "src/test/resources/android.wdio.native.app.v1.0.8.apk"))
+                .toAbsolutePath().toString();
+    }
+
     /**
-     * Returns a configured instance of {@link UiAutomator2Options} for the test device and app.
+     * Returns a configured instance of {@link UiAutomator2Options} for the first registered device.
      *
      * @return a {@link UiAutomator2Options} object with device name, app path, package, and activity set.
      */
     public static UiAutomator2Options getAndroidOptions() {
+        return getAndroidOptions(DeviceRegistry.getDevices().getFirst());
+    }
+
+    /**
+     * Returns a configured instance of {@link UiAutomator2Options} for the given device.
+     * <p>
+     * The serial is set both as device name and udid, and the device's own system and chromedriver
+     * ports are used, so sessions running in parallel are pinned to their own device.
+     *
+     * @param device the target device.
+     * @return a {@link UiAutomator2Options} object with device name, udid, ports, app path, package, and activity set.
+     */
+    public static UiAutomator2Options getAndroidOptions(DeviceRegistry.Device device) {
+        return deviceOptions(device).setApp(appPath());
+    }
+
+    /**
+     * Returns options for a device that already has the current APK and UiAutomator2 server installed.
+     * <p>
+     * No app is given, so nothing is installed or verified, and the server installation and device
+     * initialization steps are skipped. The app keeps its data and is launched at session start.
+     *
+     * @param device the target device.
+     * @return a {@link UiAutomator2Options} object for a fast session start.
+     */
+    public static UiAutomator2Options getWarmOptions(DeviceRegistry.Device device) {
+        return deviceOptions(device)
+                .setNoReset(true)
+                .setSkipServerInstallation(true)
+                .setSkipDeviceInitialization(true)
+                .amend("appium:forceAppLaunch", true);
+    }
+
+    private static UiAutomator2Options deviceOptions(DeviceRegistry.Device device) {
         return new UiAutomator2Options()
-                .setDeviceName("RF8R70KZATW")
-                .setApp("C:\\Users\\Marcos\\IdeaProjects\\Globant\\MobileTests\\src\\test\\resources\\android.wdio.native.app.v1.0.8.apk")
-                .setAppPackage("com.wdiodemoapp")
-                .setAppActivity(".MainActivity");
+                .setDeviceName(device.serial())
+                .setUdid(device.serial())
+                .setSystemPort(device.systemPort())
+                .setChromedriverPort(device.chromedriverPort())
+                .setAppPackage(APP_PACKAGE)
+                .setAppActivity(APP_ACTIVITY);
     }
 }
@@ -0,0 +1,186 @@
+package com.globant.webdriver.utils;
+
+import com.globant.webdriver.screens.BaseScreen;
+import io.appium.java_client.AppiumDriver;
+import io.appium.java_client.InteractsWithApps;
+import org.openqa.selenium.WebDriverException;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+/**
+ * Tiered reset of the application state between tests.
+ * <p>
+ * A pooled session is brought back to a clean state with the cheapest {@link Tier} that works: each tier
+ * is applied in order, from {@code reset.minTier} up, until a UI snapshot verifies a clean state (the home
+ * screen marker {@code reset.homeMarker} is visible and no alert dialog is open). The check only sees the home
+ * screen: the other tab screens stay mounted, so after {@link Tier#NAVIGATE} or {@link Tier#DEEP_LINK} they
+ * keep their state (swiped cards, typed text, the switch, the selected login tab). The default is therefore
+ * {@link Tier#RESTART}; the cheaper tiers are only safe for suites whose tests do not depend on that state.
+ * The tier each reset needed and how long it took are kept per thread ({@link #lastResult()}) and aggregated
+ * per tier ({@link #stats()}). Configuration keys of {@link TestConfig}:
+ * <ul>
+ *     <li>{@code reset.minTier}: cheapest tier to try (default {@code RESTART}; {@code CLEAR_DATA}
+ *     when {@code pool.clearData=true});</li>
+ *     <li>{@code reset.deepLink}: URL opened by the {@link Tier#DEEP_LINK} tier (default {@code wdio://home});</li>
+ *     <li>{@code reset.homeMarker}: UiSelector of an element only shown on the home screen
+ *     (default {@code text("WEBDRIVER")});</li>
+ *     <li>{@code reset.verifyTimeout}: seconds to wait for the clean state after each tier (default 5).</li>
+ * </ul>
+ */
+public class AppReset {
+
+    /** Reset tiers, from the cheapest to the most expensive. */
+    public enum Tier {
+        /** Tap the Home item of the bottom menu. */
+        NAVIGATE,
+        /** Open the home deep link of the app. */
+        DEEP_LINK,
+        /** Terminate and relaunch the app. */
+        RESTART,
+        /** Terminate the app, clear its data and relaunch it. */
+        CLEAR_DATA,
+        /** Uninstall, install and launch the app. */
+        REINSTALL
+    }
+
+    /**
+     * Outcome of one reset.
+     *
+     * @param tier     the tier that yielded a clean state.
+     * @param millis   the time spent on the reset, including the failed cheaper tiers.
+     * @param attempts the number of tiers tried.
+     */
+    public record Result(Tier tier, long millis, int attempts) { }
+
+    private static final UiLocator ALERT = UiLocator.parseUiSelector("resourceId(\"android:id/alertTitle\")").orElseThrow();
+
+    private static final ThreadLocal<Result> LAST = new ThreadLocal<>();
+
+    private static final Map<Tier, LongAdder> COUNTS = new EnumMap<>(Tier.class);
+    private static final Map<Tier, LongAdder> MILLIS = new EnumMap<>(Tier.class);
+
+    static {
+        for (Tier tier : Tier.values()) {
+            COUNTS.put(tier, new LongAdder());
+            MILLIS.put(tier, new LongAdder());
+        }
+    }
+
+    /**
+     * Per-tier reset counters.
+     *
+     * @param counts number of resets that ended at each tier.
+     * @param millis total time of the resets that ended at each tier.
+     */
+    public record Stats(Map<Tier, Long> counts, Map<Tier, Long> millis) {
+
+        @Override
+        public String toString() {
+            String tiers = Arrays.stream(Tier.values())
+                    .filter(tier -> counts.get(tier) > 0)
+                    .map(tier -> String.format("%s %d x %d ms avg", tier, counts.get(tier), millis.get(tier) / counts.get(tier)))
+                    .collect(Collectors.joining(", "));
+            return "App reset: " + (tiers.isEmpty() ? "none" : tiers);
+        }
+    }
+
+    /**
+     * Resets the application with the cheapest tier that yields a verified clean state.
+     *
+     * @param driver the session whose application is reset.
+     * @return the tier used and the time it took.
+     * @throws WebDriverException if not even a reinstall yields a clean state.
+     */
+    public static Result reset(AppiumDriver driver) {
+        long start = System.nanoTime();
+        List<Tier> tiers = Arrays.stream(Tier.values()).filter(tier -> tier.compareTo(minTier()) >= 0).toList();
+        WebDriverException failure = null;
+        int attempts = 0;
+        for (Tier tier : tiers) {
+            attempts++;
+            try {
+                ScreenCache.invalidate(driver);
+                apply(driver, tier);
+                if (isClean(driver)) {
+                    Result result = new Result(tier, Duration.ofNanos(System.nanoTime() - start).toMillis(), attempts);
+                    COUNTS.get(tier).increment();
+                    MILLIS.get(tier).add(result.millis());
+                    LAST.set(result);
+                    return result;
+                }
+            } catch (WebDriverException e) {
+                failure = e;
+            }
+        }
+        throw new WebDriverException("No reset tier from " + minTier() + " up yielded a clean app state", failure);
+    }
+
+    /**
+     * Returns the last reset performed on the current thread since {@link #clearLastResult()}.
+     *
+     * @return the reset result, or empty if the session did not need a reset (e.g. it was just created).
+     */
+    public static Optional<Result> lastResult() {
+        return Optional.ofNullable(LAST.get());
+    }
+
+    /**
+     * Forgets the last reset of the current thread, before a new test obtains its session.
+     */
+    public static void clearLastResult() {
+        LAST.remove();
+    }
+
+    /**
+     * Returns the per-tier counters.
+     *
+     * @return a {@link Stats} snapshot.
+     */
+    public static Stats stats() {
+        Map<Tier, Long> counts = new EnumMap<>(Tier.class);
+        Map<Tier, Long> millis = new EnumMap<>(Tier.class);
+        for (Tier tier : Tier.values()) {
+            counts.put(tier, COUNTS.get(tier).sum());
+            millis.put(tier, MILLIS.get(tier).sum());
+        }
+        return new Stats(counts, millis);
+    }
+
+    private static Tier minTier() {
+        String fallback = TestConfig.getBoolean("pool.clearData", false) ? Tier.CLEAR_DATA.name() : Tier.RESTART.name();
+        return Tier.valueOf(TestConfig.get("reset.minTier", fallback).trim().toUpperCase());
+    }
+
+    private static void apply(AppiumDriver driver, Tier tier) {
+        InteractsWithApps apps = (InteractsWithApps) driver;
+        switch (tier) {
+            case NAVIGATE -> ScreenCache.screen(driver, BaseScreen.class, BaseScreen::new).selectHome();
+            case DEEP_LINK -> driver.executeScript("mobile: deepLink",
+                    Map.of("url", TestConfig.get("reset.deepLink", "wdio://home"), "package", AndroidOptions.APP_PACKAGE));
+            case RESTART -> SessionPool.resetAppState(driver, false);
+            case CLEAR_DATA -> SessionPool.resetAppState(driver, true);
+            case REINSTALL -> {
+                apps.removeApp(AndroidOptions.APP_PACKAGE);
+                apps.installApp(AndroidOptions.appPath());
+                apps.activateApp(AndroidOptions.APP_PACKAGE);
+            }
+        }
+    }
+
+    /**
+     * Verifies with UI snapshots that the home screen is shown and no dialog is open.
+     */
+    private static boolean isClean(AppiumDriver driver) {
+        UiLocator home = UiLocator.parseUiSelector(TestConfig.get("reset.homeMarker", "text(\"WEBDRIVER\")"))
+                .orElseThrow(() -> new IllegalArgumentException("Unsupported reset.homeMarker selector"));
+        UiSnapshot snapshot = UiSnapshot.captureWhen(driver, home, Duration.ofSeconds(TestConfig.getInt("reset.verifyTimeout", 5)));
+        return snapshot.isDisplayed(home) && snapshot.find(ALERT).isEmpty();
+    }
+}
@@ -0,0 +1,122 @@
+package com.globant.webdriver.utils;
+
+import io.appium.java_client.service.local.AppiumDriverLocalService;
+import io.appium.java_client.service.local.AppiumServiceBuilder;
+import io.appium.java_client.service.local.flags.GeneralServerFlag;
+import org.testng.Reporter;
+
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Starts, health-checks and stops the Appium servers managed by the framework.
+ * <p>
+ * When {@code appium.managed=true}, every registered device gets its own Appium server on a
+ * free port instead of sharing the manually started server at {@code appium.url}, so sessions
+ * on different devices are never serialized by one server. Servers are started in the background
+ * as soon as the suite is parsed (see {@link com.globant.webdriver.base.AppiumServerListener}),
+ * overlapping their cold boot with test class loading; {@link #awaitReady(String)} only blocks
+ * if a server is still booting when the first session is requested.
+ * The {@code appium.startupTimeout} key sets the boot timeout in seconds (default 60).
+ */
+public class AppiumServerManager {
+
+    /** A managed server and the background task starting it. */
+    private record ManagedServer(AppiumDriverLocalService service, int port, CompletableFuture<Void> startup) { }
+
+    /** Managed servers keyed by device serial. */
+    private static final Map<String, ManagedServer> SERVERS = new ConcurrentHashMap<>();
+
+    static {
+        Runtime.getRuntime().addShutdownHook(new Thread(AppiumServerManager::stopAll, "appium-server-shutdown"));
+    }
+
+    /**
+     * Tells whether Appium servers are managed by the framework.
+     *
+     * @return true if {@code appium.managed} is enabled.
+     */
+    public static boolean isManaged() {
+        return TestConfig.getBoolean("appium.managed", false);
+    }
+
+    /**
+     * Allocates a port for the server of a device and starts it in the background.
+     * Calling it again for the same device returns the same server URL.
+     *
+     * @param serial the device serial.
+     * @return the URL the device's server will listen on.
+     */
+    public static URL start(String serial) {
+        ManagedServer server = SERVERS.computeIfAbsent(serial, AppiumServerManager::launch);
+        return toUrl(server.port());
+    }
+
+    /**
+     * Waits until the server of a device is up and answering {@code /status}.
+     * A server that stopped responding is restarted.
+     *
+     * @param serial the device serial.
+     */
+    public static void awaitReady(String serial) {
+        ManagedServer server = SERVERS.get(serial);
+        if (server == null) {
+            start(serial);
+            server = SERVERS.get(serial);
+        }
+        try {
+            server.startup().join();
+        } catch (CompletionException e) {
+            throw new IllegalStateException("Appium server for " + serial + " failed to start", e.getCause());
+        }
+        if (!server.service().isRunning()) {
+            Reporter.log("Appium server for " + serial + " is not responding, restarting it", true);
+            server.service().stop();
+            server.service().start();
+        }
+    }
+
+    /**
+     * Stops every managed server and releases its port.
+     */
+    public static void stopAll() {
+        SERVERS.values().forEach(server -> {
+            server.startup().cancel(true);
+            server.service().stop();
+            PortAllocator.release(server.port());
+        });
+        SERVERS.clear();
+    }
+
+    /**
+     * Builds the service for a device and schedules its startup.
+     *
+     * @param serial the device serial.
+     * @return the managed server.
+     */
+    private static ManagedServer launch(String serial) {
+        int port = PortAllocator.allocate();
+        AppiumDriverLocalService service = new AppiumServiceBuilder()
+                .withIPAddress("127.0.0.1")
+                .usingPort(port)
+                .withArgument(GeneralServerFlag.SESSION_OVERRIDE)
+                .withArgument(GeneralServerFlag.LOG_LEVEL, "warn")
+                .withTimeout(Duration.ofSeconds(TestConfig.getInt("appium.startupTimeout", 60)))
+                .build();
+        CompletableFuture<Void> startup = CompletableFuture.runAsync(service::start);
+        return new ManagedServer(service, port, startup);
+    }
+
+    private static URL toUrl(int port) {
+        try {
+            return new URL("http://127.0.0.1:" + port + "/");
+        } catch (MalformedURLException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
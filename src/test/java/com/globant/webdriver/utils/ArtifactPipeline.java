@@ -0,0 +1,321 @@
+package com.globant.webdriver.utils;
+
+import io.appium.java_client.AppiumDriver;
+import org.openqa.selenium.OutputType;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.logging.LogEntry;
+import org.testng.Reporter;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Captures failure artifacts (screenshot, page source, logcat) and writes them in the background.
+ * <p>
+ * The test thread only pays for the capture commands: the bytes are handed to a daemon writer thread
+ * that compresses text artifacts with gzip and writes every artifact with a {@link FileChannel} under
+ * {@code artifacts.dir/<test>-<timestamp>/} (default {@code target/artifacts}). With {@code artifacts.steps=true} a
+ * screenshot is also taken on every section navigation and kept in a ring buffer of the last
+ * {@code artifacts.ringSize} steps of the session (default 3), which is written with the failure artifacts
+ * and otherwise overwritten. The ring is cleared when a test starts, so the steps written with a failure are
+ * always those of the failed test. Memory stays bounded whatever the suite size: one ring per live session,
+ * logcat kept to its last {@code artifacts.logcatKb} kilobytes (default 512), and at most
+ * {@code artifacts.queueSize} artifacts waiting for the writer (default 64). When the writer falls that far
+ * behind, new artifacts are dropped and counted instead of blocking the test.
+ */
+public class ArtifactPipeline {
+
+    /**
+     * One captured artifact.
+     *
+     * @param name      the artifact name, e.g. {@code failure-screenshot}.
+     * @param extension the file extension.
+     * @param data      the artifact content.
+     * @param compress  whether the writer gzips the content (text artifacts; PNGs are already compressed).
+     */
+    public record Artifact(String name, String extension, byte[] data, boolean compress) { }
+
+    /**
+     * Pipeline counters.
+     *
+     * @param captured artifacts captured on test threads.
+     * @param written  artifacts written to disk.
+     * @param dropped  artifacts dropped because the writer queue was full or a write failed.
+     * @param bytes    bytes written to disk, after compression.
+     */
+    public record Stats(long captured, long written, long dropped, long bytes) {
+
+        @Override
+        public String toString() {
+            return String.format("Artifacts: %d captured, %d written (%d KB), %d dropped",
+                    captured, written, bytes / 1024, dropped);
+        }
+    }
+
+    /** An artifact waiting for the writer. */
+    private record Pending(Path file, Artifact artifact) { }
+
+    /**
+     * Fixed-size ring of the most recent step artifacts of a session.
+     */
+    private static class Ring {
+        private final Artifact[] slots;
+        private int next;
+        private int size;
+
+        Ring(int capacity) {
+            slots = new Artifact[capacity];
+        }
+
+        synchronized void add(Artifact artifact) {
+            slots[next] = artifact;
+            next = (next + 1) % slots.length;
+            size = Math.min(size + 1, slots.length);
+        }
+
+        synchronized void clear() {
+            Arrays.fill(slots, null);
+            size = 0;
+        }
+
+        /** @return the artifacts, oldest first, leaving the ring empty. */
+        synchronized List<Artifact> drain() {
+            List<Artifact> artifacts = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                int index = (next - size + i + slots.length) % slots.length;
+                artifacts.add(slots[index]);
+                slots[index] = null;
+            }
+            size = 0;
+            return artifacts;
+        }
+    }
+
+    private static final Map<String, Ring> RINGS = new ConcurrentHashMap<>();
+
+    private static final BlockingQueue<Pending> QUEUE = new ArrayBlockingQueue<>(TestConfig.getInt("artifacts.queueSize", 64));
+
+    /** Artifacts queued or being written. */
+    private static final AtomicInteger IN_FLIGHT = new AtomicInteger();
+
+    private static final LongAdder CAPTURED = new LongAdder();
+    private static final LongAdder WRITTEN = new LongAdder();
+    private static final LongAdder DROPPED = new LongAdder();
+    private static final LongAdder BYTES = new LongAdder();
+
+    static {
+        Thread writer = new Thread(ArtifactPipeline::writeLoop, "artifact-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /**
+     * Tells whether step screenshots are kept in the ring buffer.
+     *
+     * @return true if {@code artifacts.steps=true}.
+     */
+    public static boolean isCapturingSteps() {
+        return TestConfig.getBoolean("artifacts.steps", false);
+    }
+
+    /**
+     * Takes a screenshot of a step into the ring buffer of the session, if step capture is enabled.
+     *
+     * @param driver the session.
+     * @param step   the step name, e.g. the screen navigated to.
+     */
+    public static void captureStep(AppiumDriver driver, String step) {
+        if (!isCapturingSteps()) {
+            return;
+        }
+        try {
+            byte[] png = driver.getScreenshotAs(OutputType.BYTES);
+            ring(driver).add(new Artifact(System.currentTimeMillis() + "-step-" + step, "png", png, false));
+            CAPTURED.increment();
+        } catch (WebDriverException e) {
+            // a missing step screenshot must never fail the test
+        }
+    }
+
+    /**
+     * Forgets the step artifacts a session kept for earlier tests, when a new test starts on it.
+     *
+     * @param driver the session of the test.
+     */
+    public static void startTest(AppiumDriver driver) {
+        Ring ring = RINGS.get(String.valueOf(driver.getSessionId()));
+        if (ring != null) {
+            ring.clear();
+        }
+    }
+
+    /**
+     * Captures the failure artifacts of a test and queues them, with the recent steps of the session, for writing.
+     * Returns as soon as the capture commands are done. Artifacts the session cannot provide are skipped.
+     *
+     * @param driver the session of the failed test.
+     * @param test   the test name, used as the artifact directory.
+     */
+    public static void captureFailure(AppiumDriver driver, String test) {
+        List<Artifact> artifacts = ring(driver).drain();
+        try {
+            artifacts.add(new Artifact("failure-screenshot", "png", driver.getScreenshotAs(OutputType.BYTES), false));
+            CAPTURED.increment();
+        } catch (WebDriverException e) {
+            Reporter.log("No failure screenshot for " + test + ": " + e.getMessage(), true);
+        }
+        try {
+            artifacts.add(new Artifact("failure-source", "xml", driver.getPageSource().getBytes(StandardCharsets.UTF_8), true));
+            CAPTURED.increment();
+        } catch (WebDriverException e) {
+            Reporter.log("No failure page source for " + test + ": " + e.getMessage(), true);
+        }
+        try {
+            byte[] logcat = tail(driver.manage().logs().get("logcat").getAll(),
+                    TestConfig.getInt("artifacts.logcatKb", 512) * 1024);
+            artifacts.add(new Artifact("failure-logcat", "txt", logcat, true));
+            CAPTURED.increment();
+        } catch (WebDriverException e) {
+            Reporter.log("No logcat for " + test + ": " + e.getMessage(), true);
+        }
+        Path dir = Path.of(TestConfig.get("artifacts.dir", "target/artifacts"),
+                test.replaceAll("[^A-Za-z0-9._-]", "_") + "-" + System.currentTimeMillis());
+        for (Artifact artifact : artifacts) {
+            Path file = dir.resolve(artifact.name() + "." + artifact.extension() + (artifact.compress() ? ".gz" : ""));
+            IN_FLIGHT.incrementAndGet();
+            if (!QUEUE.offer(new Pending(file, artifact))) {
+                IN_FLIGHT.decrementAndGet();
+                DROPPED.increment();
+            }
+        }
+    }
+
+    /**
+     * Forgets the ring buffer of a session that is being quit.
+     *
+     * @param driver the session.
+     */
+    public static void evict(AppiumDriver driver) {
+        if (driver.getSessionId() != null) {
+            RINGS.remove(driver.getSessionId().toString());
+        }
+    }
+
+    /**
+     * Waits until every queued artifact has been written, e.g. at the end of the suite.
+     *
+     * @param timeout the maximum time to wait.
+     * @return true if the queue was drained in time.
+     */
+    public static boolean drain(Duration timeout) {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        while (IN_FLIGHT.get() > 0) {
+            if (System.nanoTime() > deadline) {
+                return false;
+            }
+            try {
+                Thread.sleep(20);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns the pipeline counters.
+     *
+     * @return a {@link Stats} snapshot.
+     */
+    public static Stats stats() {
+        return new Stats(CAPTURED.sum(), WRITTEN.sum(), DROPPED.sum(), BYTES.sum());
+    }
+
+    /**
+     * Keeps the most recent log lines that fit in a size limit, with a first line telling how many were dropped.
+     */
+    private static byte[] tail(List<LogEntry> entries, int maxBytes) {
+        Deque<byte[]> lines = new ArrayDeque<>();
+        int size = 0;
+        int index = entries.size() - 1;
+        for (; index >= 0; index--) {
+            byte[] line = (entries.get(index) + "\n").getBytes(StandardCharsets.UTF_8);
+            if (size + line.length > maxBytes) {
+                break;
+            }
+            lines.addFirst(line);
+            size += line.length;
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream(size + 64);
+        if (index >= 0) {
+            out.writeBytes(("[" + (index + 1) + " earlier lines dropped]\n").getBytes(StandardCharsets.UTF_8));
+        }
+        lines.forEach(out::writeBytes);
+        return out.toByteArray();
+    }
+
+    private static Ring ring(AppiumDriver driver) {
+        return RINGS.computeIfAbsent(String.valueOf(driver.getSessionId()),
+                session -> new Ring(Math.max(1, TestConfig.getInt("artifacts.ringSize", 3))));
+    }
+
+    private static void writeLoop() {
+        while (true) {
+            Pending pending;
+            try {
+                pending = QUEUE.take();
+            } catch (InterruptedException e) {
+                return;
+            }
+            try {
+                write(pending.file(), pending.artifact());
+                WRITTEN.increment();
+            } catch (IOException e) {
+                DROPPED.increment();
+                Reporter.log("Unable to write artifact " + pending.file() + ": " + e.getMessage(), true);
+            } finally {
+                IN_FLIGHT.decrementAndGet();
+            }
+        }
+    }
+
+    private static void write(Path file, Artifact artifact) throws IOException {
+        byte[] data = artifact.data();
+        if (artifact.compress()) {
+            ByteArrayOutputStream compressed = new ByteArrayOutputStream(data.length / 4 + 64);
+            try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+                gzip.write(data);
+            }
+            data = compressed.toByteArray();
+        }
+        Files.createDirectories(file.getParent());
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            ByteBuffer buffer = ByteBuffer.wrap(data);
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        }
+        BYTES.add(data.length);
+    }
+}
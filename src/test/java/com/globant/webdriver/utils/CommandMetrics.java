@@ -0,0 +1,209 @@
+package com.globant.webdriver.utils;
+
+import org.openqa.selenium.json.Json;
+import org.openqa.selenium.remote.http.Contents;
+import org.openqa.selenium.remote.http.Filter;
+import org.openqa.selenium.remote.http.HttpMethod;
+import org.openqa.selenium.remote.http.HttpRequest;
+import org.openqa.selenium.remote.http.HttpResponse;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+/**
+ * Records the latency of every command sent to the Appium server.
+ * <p>
+ * Sessions created by {@link DriverManager} send their requests through {@link #filter()}, which times each
+ * command and records it, with its outcome, into a {@link LatencyHistogram} keyed by:
+ * <ul>
+ *     <li>the test method running on the thread ({@link #startTest(String)});</li>
+ *     <li>the screen method that issued the command (the innermost {@code screens} frame of the stack);</li>
+ *     <li>the command, e.g. {@code POST /element/:id/click}, with session and element ids removed;</li>
+ *     <li>the locator of find commands, e.g. {@code -android uiautomator text("Login")}.</li>
+ * </ul>
+ * {@link #export(Path)} writes all histograms as {@code command-metrics.json} and {@code command-metrics.csv}.
+ * Recording costs a few atomic increments and one stack walk per command, against commands that take
+ * milliseconds, so it is enabled by default; {@code metrics.enabled=false} turns it off.
+ */
+public class CommandMetrics {
+
+    private static final Json JSON = new Json();
+
+    /** Session and element ids in command paths. */
+    private static final Pattern SESSION_ID = Pattern.compile("^/session/[^/]+");
+    private static final Pattern ELEMENT_ID = Pattern.compile("/element/[^/]+");
+
+    private static final String SCREENS_PACKAGE = "com.globant.webdriver.screens.";
+    private static final StackWalker STACK = StackWalker.getInstance();
+
+    private static final Map<Key, LatencyHistogram> HISTOGRAMS = new ConcurrentHashMap<>();
+
+    /** Test method running on the current thread. */
+    private static final ThreadLocal<String> TEST = new ThreadLocal<>();
+
+    /** Commands sent by the current thread. */
+    private static final ThreadLocal<long[]> THREAD_COMMANDS = ThreadLocal.withInitial(() -> new long[1]);
+
+    /**
+     * Identity of a histogram.
+     *
+     * @param test    the test method, or {@code -} outside tests.
+     * @param screen  the screen method, or {@code -} for commands not issued by a screen.
+     * @param command the normalized command.
+     * @param locator the locator of find commands, empty for other commands.
+     */
+    public record Key(String test, String screen, String command, String locator) { }
+
+    /**
+     * Tells whether command metrics are recorded.
+     *
+     * @return true unless {@code metrics.enabled=false}.
+     */
+    public static boolean isEnabled() {
+        return TestConfig.getBoolean("metrics.enabled", true);
+    }
+
+    /**
+     * Attributes the commands of the current thread to a test method.
+     *
+     * @param test the test name, e.g. {@code Tests.successfulLogin}.
+     */
+    public static void startTest(String test) {
+        TEST.set(test);
+    }
+
+    /**
+     * Stops attributing the commands of the current thread to a test method.
+     */
+    public static void endTest() {
+        TEST.remove();
+    }
+
+    /**
+     * Returns the HTTP filter that times the commands of a session.
+     *
+     * @return the recording filter.
+     */
+    public static Filter filter() {
+        return next -> request -> {
+            THREAD_COMMANDS.get()[0]++;
+            Key key = key(request);
+            long start = System.nanoTime();
+            boolean error = true;
+            try {
+                HttpResponse response = next.execute(request);
+                error = !response.isSuccessful();
+                return response;
+            } finally {
+                HISTOGRAMS.computeIfAbsent(key, k -> new LatencyHistogram()).record(System.nanoTime() - start, error);
+            }
+        };
+    }
+
+    /**
+     * Returns how many commands the current thread has sent, to count the commands of an operation
+     * as the difference between two calls.
+     *
+     * @return the commands sent by the current thread, 0 when {@code metrics.enabled=false}.
+     */
+    public static long threadCommands() {
+        return THREAD_COMMANDS.get()[0];
+    }
+
+    /**
+     * Returns the histograms recorded so far.
+     *
+     * @return the histograms by key.
+     */
+    public static Map<Key, LatencyHistogram> getHistograms() {
+        return Map.copyOf(HISTOGRAMS);
+    }
+
+    /**
+     * Writes {@code command-metrics.json} and {@code command-metrics.csv} to a directory,
+     * with one entry per histogram, slowest total time first.
+     *
+     * @param directory the output directory; it is created if needed.
+     */
+    public static void export(Path directory) {
+        List<Map<String, Object>> rows = new ArrayList<>();
+        HISTOGRAMS.entrySet().stream()
+                .sorted(Comparator.comparingDouble((Map.Entry<Key, LatencyHistogram> e) ->
+                        e.getValue().meanMillis() * e.getValue().count()).reversed())
+                .forEach(e -> rows.add(row(e.getKey(), e.getValue())));
+        StringBuilder csv = new StringBuilder("test,screen,command,locator,count,errors,meanMs,p50Ms,p90Ms,p99Ms,maxMs\n");
+        for (Map<String, Object> row : rows) {
+            csv.append(String.join(",", row.values().stream().map(CommandMetrics::csv).toList())).append('\n');
+        }
+        try {
+            Files.createDirectories(directory);
+            Files.writeString(directory.resolve("command-metrics.json"), JSON.toJson(rows));
+            Files.writeString(directory.resolve("command-metrics.csv"), csv);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static Map<String, Object> row(Key key, LatencyHistogram histogram) {
+        Map<String, Object> row = new LinkedHashMap<>();
+        row.put("test", key.test());
+        row.put("screen", key.screen());
+        row.put("command", key.command());
+        row.put("locator", key.locator());
+        row.put("count", histogram.count());
+        row.put("errors", histogram.errors());
+        row.put("meanMs", round(histogram.meanMillis()));
+        row.put("p50Ms", round(histogram.percentileMillis(50)));
+        row.put("p90Ms", round(histogram.percentileMillis(90)));
+        row.put("p99Ms", round(histogram.percentileMillis(99)));
+        row.put("maxMs", round(histogram.maxMillis()));
+        return row;
+    }
+
+    private static Key key(HttpRequest request) {
+        String path = SESSION_ID.matcher(request.getUri()).replaceFirst("");
+        String command = request.getMethod() + " " + ELEMENT_ID.matcher(path).replaceAll("/element/:id");
+        return new Key(Optional.ofNullable(TEST.get()).orElse("-"), screenMethod(), command, locator(request, path));
+    }
+
+    private static String screenMethod() {
+        return STACK.walk(frames -> frames
+                .filter(frame -> frame.getClassName().startsWith(SCREENS_PACKAGE))
+                .findFirst()
+                .map(frame -> frame.getClassName().substring(SCREENS_PACKAGE.length()) + "." + frame.getMethodName())
+                .orElse("-"));
+    }
+
+    /**
+     * Reads the locator of a find command. The body is buffered so it can still be sent afterwards.
+     */
+    private static String locator(HttpRequest request, String path) {
+        if (request.getMethod() != HttpMethod.POST || !(path.endsWith("/element") || path.endsWith("/elements"))) {
+            return "";
+        }
+        byte[] body = Contents.bytes(request.getContent());
+        request.setContent(Contents.bytes(body));
+        Map<String, Object> payload = JSON.toType(new String(body, StandardCharsets.UTF_8), Json.MAP_TYPE);
+        return payload.get("using") + " " + payload.get("value");
+    }
+
+    private static double round(double millis) {
+        return Math.round(millis * 100) / 100.0;
+    }
+
+    private static String csv(Object value) {
+        String text = String.valueOf(value);
+        return text.matches(".*[,\"\\n].*") ? "\"" + text.replace("\"", "\"\"") + "\"" : text;
+    }
+}
@@ -0,0 +1,229 @@
+package com.globant.webdriver.utils;
+
+import org.openqa.selenium.json.Json;
+import org.openqa.selenium.remote.http.Contents;
+import org.openqa.selenium.remote.http.Filter;
+import org.openqa.selenium.remote.http.HttpResponse;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Records the W3C traffic of the sessions of each device, to be served later by a {@link ReplayServer}.
+ * <p>
+ * With {@code replay.mode=record}, sessions created by {@link DriverManager} send their requests through
+ * {@link #filter(String)}, which appends every command and its response, in order, to
+ * {@code <replay.dir>/<serial>.jsonl.gz} (default directory {@code target/recordings}). Each line holds the
+ * method, path, request body, response status, response body and server time of one command. The run id of the
+ * {@link CredentialsFactory} is stored next to the recordings ({@link #runIdFile()}) and reused by replays, so the
+ * unique emails typed during sign-up match the recorded request bodies.
+ * Sessions of one device never overlap, since devices are leased to one test at a time, so each file is
+ * a single ordered conversation. With {@code replay.mode=replay}, the {@link DeviceRegistry} points the
+ * device at a local {@link ReplayServer} serving its file instead of an Appium server.
+ * <p>
+ * Which tests run on which device depends on the order threads lease devices in, so a recording is only
+ * replayed faithfully by a run that sends the same commands in the same order. In both modes the
+ * {@link DeviceRegistry} keeps only the first configured device and {@code ParallelSuiteListener} runs the
+ * suite on a single thread.
+ */
+public class CommandRecorder {
+
+    private static final Json JSON = new Json();
+
+    /** Open recordings, by device serial. */
+    private static final Map<String, Writer> WRITERS = new ConcurrentHashMap<>();
+
+    static {
+        Runtime.getRuntime().addShutdownHook(new Thread(CommandRecorder::closeAll, "command-recorder-shutdown"));
+    }
+
+    /**
+     * One recorded command.
+     *
+     * @param method   the HTTP method.
+     * @param path     the request path, relative to the server URL.
+     * @param request  the request body, empty if none.
+     * @param status   the response status.
+     * @param response the response body.
+     * @param millis   the time the server took to answer.
+     */
+    public record Exchange(String method, String path, String request, int status, String response, long millis) { }
+
+    /**
+     * Tells whether sessions are being recorded.
+     *
+     * @return true if {@code replay.mode=record}.
+     */
+    public static boolean isRecording() {
+        return "record".equals(TestConfig.get("replay.mode", ""));
+    }
+
+    /**
+     * Tells whether devices are replaced by recordings.
+     *
+     * @return true if {@code replay.mode=replay}.
+     */
+    public static boolean isReplaying() {
+        return "replay".equals(TestConfig.get("replay.mode", ""));
+    }
+
+    /**
+     * Returns the recording file of a device.
+     *
+     * @param serial the device serial.
+     * @return the file path.
+     */
+    public static Path recording(String serial) {
+        return Path.of(TestConfig.get("replay.dir", "target/recordings"), serial + ".jsonl.gz");
+    }
+
+    /**
+     * Returns the file holding the {@link CredentialsFactory} run id of the recorded run.
+     *
+     * @return the file path.
+     */
+    public static Path runIdFile() {
+        return Path.of(TestConfig.get("replay.dir", "target/recordings"), "run-id.txt");
+    }
+
+    /**
+     * Stores the run id of the recorded run, so replays build the same unique emails.
+     *
+     * @param runId the run id.
+     */
+    static void saveRunId(String runId) {
+        Path file = runIdFile();
+        try {
+            Files.createDirectories(file.toAbsolutePath().getParent());
+            Files.writeString(file, runId);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot write the run id to " + file, e);
+        }
+    }
+
+    /**
+     * Reads the run id stored with the recordings.
+     *
+     * @return the run id, or empty if none was stored.
+     */
+    static Optional<String> recordedRunId() {
+        Path file = runIdFile();
+        if (!Files.exists(file)) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(Files.readString(file).strip()).filter(runId -> !runId.isEmpty());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read the run id from " + file, e);
+        }
+    }
+
+    /**
+     * Returns the HTTP filter recording the commands of a session on the given device.
+     *
+     * @param serial the device serial.
+     * @return the recording filter.
+     */
+    public static Filter filter(String serial) {
+        return next -> request -> {
+            byte[] body = Contents.bytes(request.getContent());
+            request.setContent(Contents.bytes(body));
+            long start = System.nanoTime();
+            HttpResponse response = next.execute(request);
+            long millis = (System.nanoTime() - start) / 1_000_000;
+            byte[] answer = Contents.bytes(response.getContent());
+            response.setContent(Contents.bytes(answer));
+            write(serial, new Exchange(request.getMethod().toString(), request.getUri(),
+                    new String(body, StandardCharsets.UTF_8), response.getStatus(),
+                    new String(answer, StandardCharsets.UTF_8), millis));
+            return response;
+        };
+    }
+
+    /**
+     * Reads a recording.
+     *
+     * @param file the recording file.
+     * @return the recorded commands, in order.
+     */
+    public static List<Exchange> read(Path file) {
+        List<Exchange> exchanges = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                new GZIPInputStream(Files.newInputStream(file)), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                Map<String, Object> entry = JSON.toType(line, Json.MAP_TYPE);
+                exchanges.add(new Exchange((String) entry.get("method"), (String) entry.get("path"),
+                        (String) entry.get("request"), ((Number) entry.get("status")).intValue(),
+                        (String) entry.get("response"), ((Number) entry.get("millis")).longValue()));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read recording " + file, e);
+        }
+        return exchanges;
+    }
+
+    /**
+     * Finishes every open recording. Also runs at JVM shutdown, since unfinished gzip files are unreadable.
+     */
+    public static void closeAll() {
+        WRITERS.keySet().forEach(serial -> {
+            Writer writer = WRITERS.remove(serial);
+            if (writer != null) {
+                synchronized (writer) {
+                    try {
+                        writer.close();
+                    } catch (IOException e) {
+                        // nothing left to do with a recording that cannot be closed
+                    }
+                }
+            }
+        });
+    }
+
+    private static void write(String serial, Exchange exchange) {
+        Map<String, Object> entry = new LinkedHashMap<>();
+        entry.put("method", exchange.method());
+        entry.put("path", exchange.path());
+        entry.put("request", exchange.request());
+        entry.put("status", exchange.status());
+        entry.put("response", exchange.response());
+        entry.put("millis", exchange.millis());
+        StringBuilder line = new StringBuilder();
+        JSON.newOutput(line).setPrettyPrint(false).write(entry);
+        line.append('\n');
+        Writer writer = WRITERS.computeIfAbsent(serial, CommandRecorder::open);
+        synchronized (writer) {
+            try {
+                writer.append(line);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot write recording of " + serial, e);
+            }
+        }
+    }
+
+    private static Writer open(String serial) {
+        Path file = recording(serial);
+        try {
+            Files.createDirectories(file.toAbsolutePath().getParent());
+            return new OutputStreamWriter(new GZIPOutputStream(Files.newOutputStream(file)), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot create recording " + file, e);
+        }
+    }
+}
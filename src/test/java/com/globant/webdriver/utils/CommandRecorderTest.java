@@ -0,0 +1,66 @@
+package com.globant.webdriver.utils;
+
+import io.appium.java_client.AppiumClientConfig;
+import io.appium.java_client.AppiumDriver;
+import io.appium.java_client.android.AndroidDriver;
+import io.appium.java_client.android.options.UiAutomator2Options;
+import org.openqa.selenium.By;
+import org.openqa.selenium.Rectangle;
+import org.openqa.selenium.WebDriverException;
+import org.testng.Assert;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+/**
+ * Records a session on the {@link StubAppiumServer} with {@link CommandRecorder} and replays it with a
+ * {@link ReplayServer}.
+ */
+public class CommandRecorderTest {
+
+    private static final String SERIAL = "command-recorder-test";
+
+    /**
+     * Records a session that finds an element, reads its rect and quits.
+     */
+    @BeforeClass
+    public void record() {
+        try (StubAppiumServer stub = new StubAppiumServer()) {
+            AppiumDriver driver = new AndroidDriver(AppiumClientConfig.defaultConfig().baseUrl(stub.getUrl())
+                    .withFilter(CommandRecorder.filter(SERIAL)), options());
+            driver.findElement(By.id("x")).getRect();
+            driver.quit();
+        }
+        CommandRecorder.closeAll();
+    }
+
+    /**
+     * The same commands are answered from the recording, which is then fully served.
+     */
+    @Test
+    public void replaysTheRecordedCommands() {
+        try (ReplayServer replay = new ReplayServer(CommandRecorder.recording(SERIAL), false)) {
+            AppiumDriver driver = new AndroidDriver(replay.getUrl(), options());
+            Rectangle rect = driver.findElement(By.id("x")).getRect();
+            driver.quit();
+            Assert.assertEquals(rect.getWidth(), 1080);
+            Assert.assertTrue(replay.isExhausted(), "Recorded commands left after " + replay.getServed());
+        }
+    }
+
+    /**
+     * A command other than the recorded one fails with the mismatch error.
+     */
+    @Test
+    public void failsOnADifferentCommand() {
+        try (ReplayServer replay = new ReplayServer(CommandRecorder.recording(SERIAL), false)) {
+            AppiumDriver driver = new AndroidDriver(replay.getUrl(), options());
+            WebDriverException error = Assert.expectThrows(WebDriverException.class,
+                    () -> driver.findElement(By.id("other")));
+            Assert.assertTrue(error.getMessage().contains("Replay mismatch at command"), error.getMessage());
+        }
+    }
+
+    private static UiAutomator2Options options() {
+        return new UiAutomator2Options().setDeviceName("stub");
+    }
+}
@@ -1,13 +1,28 @@
 package com.globant.webdriver.utils;
 
-import java.util.Arrays;
-import java.util.Collections;
+import org.testng.annotations.DataProvider;
+
+import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Utility class for managing test user credentials.
  * <p>
- * Provides a list of predefined users and a method to retrieve a random user for testing purposes.
+ * Provides a list of predefined users, a method to retrieve a random one, and unique users for flows that
+ * create accounts. Unique emails are built from one of the predefined users as
+ * {@code local+<run>-<shard>-t<thread>-<sequence>@domain}: the run id ({@code credentials.runId}, random per
+ * JVM by default, and the one of the recording when commands are replayed, so replayed emails match) and the shard ({@code credentials.shard}, e.g. the shard index in CI) keep runs and JVMs
+ * apart, and every thread counts its own sequence, so no two calls ever return the same email and no call
+ * waits for another. Users created on a device are registered with {@link #registerCreated(String, User)}
+ * so later login flows on the same device can reuse them.
  */
 public class CredentialsFactory {
 
@@ -21,34 +36,147 @@ public class CredentialsFactory {
      */
     public record User(String email, String password){ }
 
+    /** Predefined users, also the templates of the unique users. */
+    private static final List<User> USERS = List.of(
+            new User("rickg.deckard@bladerunner.com","VoightKampff_2019!"),
+            new User("case.n@neuromancer.net", "ICEbreaker_AI.2021"),
+            new User("thomas.anderson@zion.org", "WakeUp_Neo1999!"),
+            new User("hiro.katana@snowcrash.io", "SwordRider_20XX!"),
+            new User("molly.millions@freelance.zone", "MirrorShades_808!")
+    );
+
+    /** Run id of this JVM. */
+    private static final String RUN_ID = chooseRunId();
+
+    /** Prefix shared by every unique email of this JVM: run id and shard. */
+    private static final String PREFIX = RUN_ID + "-" + TestConfig.get("credentials.shard", "0");
+
+    /** Index of the next thread asking for unique users. */
+    private static final AtomicInteger THREADS = new AtomicInteger();
+
+    /** Thread index and sequence of the unique users of the current thread. */
+    private static final ThreadLocal<long[]> SEQUENCE = ThreadLocal.withInitial(() -> new long[] {THREADS.getAndIncrement(), 0});
+
+    /** Users created by the tests, by device serial. */
+    private static final Map<String, Queue<User>> CREATED = new ConcurrentHashMap<>();
+
     /**
-     * Initializes a list of predefined users with their email and password.
-     * <p>
-     * This method is used to create a static list of users that can be used in tests.
+     * Returns the run id used in the unique emails of this JVM.
      *
-     * @return a list of predefined {@link User} objects
+     * @return the run id.
      */
-    private static List<User> userInit(){
-        return Arrays.asList(
-                new User("rickg.deckard@bladerunner.com","VoightKampff_2019!"),
-                new User("case.n@neuromancer.net", "ICEbreaker_AI.2021"),
-                new User("thomas.anderson@zion.org", "WakeUp_Neo1999!"),
-                new User("hiro.katana@snowcrash.io", "SwordRider_20XX!"),
-                new User("molly.millions@freelance.zone", "MirrorShades_808!")
-        );
+    public static String runId() {
+        return RUN_ID;
     }
 
     /**
      * Returns a random user from the predefined list of users.
      * <p>
-     * This method shuffles the list of users and returns one at random, which can be useful for testing scenarios
-     * that require different user credentials.
+     * Useful for scenarios that need valid credentials but create no account; flows that sign up should use
+     * {@link #uniqueUser()} so parallel and repeated runs never collide on an email.
      *
      * @return a randomly selected {@link User} object
      */
     public static User randomUser() {
-        List<User> usersList = userInit();
-        Collections.shuffle(usersList);
-        return usersList.getFirst();
+        return USERS.get(ThreadLocalRandom.current().nextInt(USERS.size()));
+    }
+
+    /**
+     * Returns a user whose email was never returned before in this run, shard or any other.
+     *
+     * @return a unique {@link User}.
+     */
+    public static User uniqueUser() {
+        long[] sequence = SEQUENCE.get();
+        long number = sequence[1]++;
+        User template = USERS.get((int) (number % USERS.size()));
+        String email = template.email();
+        int at = email.indexOf('@');
+        return new User(email.substring(0, at) + "+" + PREFIX + "-t" + sequence[0] + "-" + number + email.substring(at),
+                template.password());
+    }
+
+    /**
+     * Pre-generates unique users, e.g. for data-driven sign-up runs.
+     *
+     * @param size the number of users.
+     * @return the users.
+     */
+    public static List<User> pool(int size) {
+        List<User> users = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            users.add(uniqueUser());
+        }
+        return users;
+    }
+
+    /**
+     * Data provider of {@code credentials.poolSize} unique users (default 10), one {@link User} per invocation.
+     * Use with {@code @Test(dataProvider = "newUsers", dataProviderClass = CredentialsFactory.class)}.
+     *
+     * @return the invocation arguments.
+     */
+    @DataProvider(name = "newUsers", parallel = true)
+    public static Iterator<Object[]> newUsers() {
+        return pool(TestConfig.getInt("credentials.poolSize", 10)).stream().map(user -> new Object[] {user}).iterator();
+    }
+
+    /**
+     * Records a user successfully created on a device.
+     *
+     * @param serial the device serial.
+     * @param user   the created user.
+     */
+    public static void registerCreated(String serial, User user) {
+        CREATED.computeIfAbsent(serial, key -> new ConcurrentLinkedQueue<>()).add(user);
+    }
+
+    /**
+     * Returns a user created earlier on a device, without removing it from the registry.
+     *
+     * @param serial the device serial.
+     * @return the first user registered for the device, or empty if none was created on it.
+     */
+    public static Optional<User> createdUser(String serial) {
+        Queue<User> users = CREATED.get(serial);
+        return users == null ? Optional.empty() : Optional.ofNullable(users.peek());
+    }
+
+    /**
+     * Forgets the users created on a device, once its app data has been cleared.
+     *
+     * @param serial the device serial.
+     */
+    public static void forgetCreated(String serial) {
+        CREATED.remove(serial);
+    }
+
+    /**
+     * Returns every user created in this run.
+     *
+     * @return the created users by device serial.
+     */
+    public static Map<String, List<User>> createdUsers() {
+        Map<String, List<User>> users = new ConcurrentHashMap<>();
+        CREATED.forEach((serial, queue) -> users.put(serial, List.copyOf(queue)));
+        return users;
+    }
+
+    /**
+     * Picks the run id: {@code credentials.runId} if set, else the one stored with the recording when commands
+     * are replayed, else a random one. While commands are recorded, the run id is stored with the recording.
+     */
+    private static String chooseRunId() {
+        String runId = TestConfig.get("credentials.runId", "");
+        if (runId.isEmpty() && CommandRecorder.isReplaying()) {
+            runId = CommandRecorder.recordedRunId().orElse("");
+        }
+        if (runId.isEmpty()) {
+            runId = Long.toString(ThreadLocalRandom.current().nextLong(Long.MAX_VALUE), Character.MAX_RADIX);
+        }
+        if (CommandRecorder.isRecording()) {
+            CommandRecorder.saveRunId(runId);
+        }
+        return runId;
     }
 }
@@ -0,0 +1,54 @@
+package com.globant.webdriver.utils;
+
+import com.globant.webdriver.utils.CredentialsFactory.User;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+
+/**
+ * Uniqueness of the users built by {@link CredentialsFactory}.
+ */
+public class CredentialsFactoryTest {
+
+    /**
+     * Users built on one thread never share an email.
+     */
+    @Test
+    public void buildsUniqueUsers() {
+        List<User> users = CredentialsFactory.pool(1_000);
+        Set<String> emails = users.stream().map(User::email).collect(Collectors.toSet());
+        Assert.assertEquals(emails.size(), users.size());
+        users.forEach(user -> Assert.assertTrue(user.email().contains("+") && !user.password().isEmpty(), user.email()));
+    }
+
+    /**
+     * Users built on concurrent threads never share an email either.
+     *
+     * @throws Exception if a worker fails.
+     */
+    @Test
+    public void buildsUniqueUsersAcrossThreads() throws Exception {
+        Set<String> emails = ConcurrentHashMap.newKeySet();
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<Boolean>> workers = executor.invokeAll(List.of(
+                    () -> emails.addAll(CredentialsFactory.pool(250).stream().map(User::email).toList()),
+                    () -> emails.addAll(CredentialsFactory.pool(250).stream().map(User::email).toList()),
+                    () -> emails.addAll(CredentialsFactory.pool(250).stream().map(User::email).toList()),
+                    () -> emails.addAll(CredentialsFactory.pool(250).stream().map(User::email).toList())));
+            for (Future<Boolean> worker : workers) {
+                worker.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+        Assert.assertEquals(emails.size(), 1_000);
+    }
+}
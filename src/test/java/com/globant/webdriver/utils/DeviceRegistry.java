@@ -0,0 +1,132 @@
+package com.globant.webdriver.utils;
+
+import org.testng.Reporter;
+
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+
+/**
+ * Registry of the devices available to the suite.
+ * <p>
+ * Devices are read from the {@code devices} configuration key as a comma separated list of
+ * {@code serial@appiumUrl} entries, e.g.
+ * {@code emulator-5554@http://127.0.0.1:4723/,emulator-5556@http://127.0.0.1:4725/}.
+ * When the URL is omitted, {@code appium.url} is used. With {@code appium.managed=true} the URLs are
+ * ignored and each device gets its own server from {@link AppiumServerManager}. With {@code replay.mode=replay}
+ * each device is served by a local {@link ReplayServer} from its recording instead. While commands are recorded
+ * or replayed only the first device is used, since which tests a device runs depends on the lease race, so a
+ * recording made on several devices would not match the commands a replay sends to each of them.
+ * Every device also gets distinct UiAutomator2 {@code systemPort} and {@code chromedriverPort} values,
+ * so sessions running side by side never compete for the same forwarded ports.
+ * Worker threads lease a device for the duration of a test, so no two tests ever drive the same
+ * device at the same time.
+ */
+public class DeviceRegistry {
+
+    /**
+     * A device under test and the Appium server that drives it.
+     *
+     * @param serial           the device serial (adb udid).
+     * @param serverUrl        the URL of the Appium server for this device.
+     * @param systemPort       the UiAutomator2 server port forwarded for this device.
+     * @param chromedriverPort the chromedriver port used for webview contexts on this device.
+     */
+    public record Device(String serial, URL serverUrl, int systemPort, int chromedriverPort) { }
+
+    /** All configured devices, in configuration order. */
+    private static final List<Device> DEVICES = parse(TestConfig.get("devices", "RF8R70KZATW"));
+
+    /** Devices not currently leased by a worker thread. */
+    private static final BlockingQueue<Device> AVAILABLE = new LinkedBlockingQueue<>(DEVICES);
+
+    /**
+     * Parses the {@code devices} configuration value.
+     *
+     * @param value comma separated {@code serial@url} entries.
+     * @return the parsed devices, only the first one while commands are recorded or replayed.
+     */
+    private static List<Device> parse(String value) {
+        List<String> entries = new ArrayList<>();
+        for (String entry : value.split(",")) {
+            if (!entry.isBlank()) {
+                entries.add(entry);
+            }
+        }
+        if (entries.size() > 1 && (CommandRecorder.isRecording() || CommandRecorder.isReplaying())) {
+            Reporter.log("Commands are recorded or replayed on one device only, ignoring "
+                    + String.join(",", entries.subList(1, entries.size())), true);
+            entries = entries.subList(0, 1);
+        }
+        List<Device> devices = new ArrayList<>();
+        for (String entry : entries) {
+            String[] parts = entry.trim().split("@", 2);
+            String serial = parts[0];
+            String url = parts.length > 1 ? parts[1] : TestConfig.get("appium.url", "http://127.0.0.1:4723/");
+            try {
+                URL serverUrl;
+                if (CommandRecorder.isReplaying()) {
+                    serverUrl = ReplayServer.start(serial);
+                } else if (AppiumServerManager.isManaged()) {
+                    serverUrl = AppiumServerManager.start(serial);
+                } else {
+                    serverUrl = new URL(url);
+                }
+                devices.add(new Device(serial, serverUrl, PortAllocator.allocate(), PortAllocator.allocate()));
+            } catch (MalformedURLException e) {
+                throw new IllegalArgumentException("Invalid Appium URL for device " + serial + ": " + url, e);
+            }
+        }
+        if (devices.isEmpty()) {
+            throw new IllegalStateException("No devices configured, check the 'devices' configuration key");
+        }
+        return Collections.unmodifiableList(devices);
+    }
+
+    /**
+     * Returns every configured device.
+     *
+     * @return an unmodifiable list of devices.
+     */
+    public static List<Device> getDevices() {
+        return DEVICES;
+    }
+
+    /**
+     * Returns the number of configured devices, i.e. the useful degree of parallelism.
+     *
+     * @return number of devices.
+     */
+    public static int size() {
+        return DEVICES.size();
+    }
+
+    /**
+     * Leases a free device, waiting until one is released if all of them are busy.
+     *
+     * @return the leased device.
+     */
+    public static Device lease() {
+        try {
+            return AVAILABLE.take();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for a free device", e);
+        }
+    }
+
+    /**
+     * Returns a leased device to the registry.
+     *
+     * @param device the device to release; ignored if null.
+     */
+    public static void release(Device device) {
+        if (device != null) {
+            AVAILABLE.offer(device);
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.globant.webdriver.utils;
+
+import com.globant.webdriver.utils.DeviceRegistry.Device;
+import org.testng.Assert;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parsing of the {@code devices} key and device leasing by {@link DeviceRegistry}.
+ * <p>
+ * The registry reads its devices once, so this class must run before anything else touches it in the JVM,
+ * which {@code suite-unit.xml} ensures by listing it first.
+ */
+public class DeviceRegistryTest {
+
+    /**
+     * Configures three devices, two of them on the default Appium URL.
+     */
+    @BeforeClass
+    public void configureDevices() {
+        System.setProperty("devices", "first,second@http://127.0.0.1:4801/,third");
+    }
+
+    /**
+     * Devices keep the configuration order, their URLs, and distinct forwarded ports.
+     */
+    @Test
+    public void parsesDevices() {
+        List<Device> devices = DeviceRegistry.getDevices();
+        Assert.assertEquals(devices.stream().map(Device::serial).toList(), List.of("first", "second", "third"));
+        Assert.assertEquals(devices.get(1).serverUrl().toString(), "http://127.0.0.1:4801/");
+        Assert.assertEquals(devices.get(0).serverUrl().toString(), TestConfig.get("appium.url", "http://127.0.0.1:4723/"));
+        Set<Integer> ports = new HashSet<>();
+        devices.forEach(device -> {
+            ports.add(device.systemPort());
+            ports.add(device.chromedriverPort());
+        });
+        Assert.assertEquals(ports.size(), 6);
+        Assert.assertEquals(DeviceRegistry.size(), 3);
+    }
+
+    /**
+     * Every device is leased to one holder at a time, and a lease waits until a device is released.
+     *
+     * @throws Exception if the waiting lease fails.
+     */
+    @Test(timeOut = 10_000)
+    public void leasesEachDeviceOnce() throws Exception {
+        Set<Device> leased = new HashSet<>();
+        for (int i = 0; i < DeviceRegistry.size(); i++) {
+            leased.add(DeviceRegistry.lease());
+        }
+        Assert.assertEquals(leased, Set.copyOf(DeviceRegistry.getDevices()));
+
+        CompletableFuture<Device> waiting = CompletableFuture.supplyAsync(DeviceRegistry::lease);
+        Thread.sleep(200);
+        Assert.assertFalse(waiting.isDone(), "A device was leased twice");
+
+        Device released = DeviceRegistry.getDevices().get(1);
+        DeviceRegistry.release(released);
+        Assert.assertEquals(waiting.get(5, TimeUnit.SECONDS), released);
+
+        DeviceRegistry.release(null);
+        DeviceRegistry.getDevices().forEach(DeviceRegistry::release);
+    }
+}
@@ -1,32 +1,133 @@
 package com.globant.webdriver.utils;
 
+import com.globant.webdriver.utils.DeviceRegistry.Device;
+import io.appium.java_client.AppiumClientConfig;
 import io.appium.java_client.AppiumDriver;
-import io.appium.java_client.android.AndroidDriver;
-import io.appium.java_client.android.options.UiAutomator2Options;
+import org.openqa.selenium.remote.http.Filter;
 
-import java.net.MalformedURLException;
-import java.net.URL;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
 
 /**
  * Utility class for managing the Appium driver for Android tests.
  * <p>
- * Provides a method to create and return an instance of {@link AppiumDriver} configured with Android-specific options.
+ * Each worker thread is bound to its own device and session: {@link #getDriver()} leases a device
+ * from the {@link DeviceRegistry}, takes a warm session for it from the {@link SessionPool}
+ * and keeps both bound to the calling thread until {@link #releaseDriver()} is called.
+ * This makes the driver safe to use with TestNG parallel methods or classes.
  */
 public class DriverManager {
 
+    /** Session bound to the current worker thread. */
+    private static final ThreadLocal<AppiumDriver> DRIVER = new ThreadLocal<>();
+
+    /** Device leased by the current worker thread. */
+    private static final ThreadLocal<Device> DEVICE = new ThreadLocal<>();
+
     /**
-     * Returns an instance of {@link AppiumDriver} configured for Android testing.
+     * Returns the instance of {@link AppiumDriver} bound to the current thread.
      * <p>
-     * This method initializes the driver with the necessary options such as device name, app path, package, and activity.
+     * On the first call of a test a device is leased and a session is taken from the {@link SessionPool},
+     * so it may be a reused session whose application has been restarted instead of a newly created one.
      *
      * @return an instance of {@link AppiumDriver} for Android tests
      */
     public static AppiumDriver getDriver() {
-        UiAutomator2Options options = AndroidOptions.getAndroidOptions();
+        AppiumDriver driver = DRIVER.get();
+        if (driver == null) {
+            Device device = DeviceRegistry.lease();
+            try {
+                driver = SessionPool.acquire(device);
+            } catch (RuntimeException e) {
+                DeviceRegistry.release(device);
+                throw e;
+            }
+            DEVICE.set(device);
+            DRIVER.set(driver);
+        }
+        return driver;
+    }
+
+    /**
+     * Returns the device leased by the current thread, or null if it holds none.
+     *
+     * @return the current {@link Device}.
+     */
+    public static Device getDevice() {
+        return DEVICE.get();
+    }
+
+    /**
+     * Unbinds the current thread's session, gives it back to the {@link SessionPool}
+     * and releases the leased device.
+     */
+    public static void releaseDriver() {
+        release(false);
+    }
+
+    /**
+     * Unbinds the current thread's session, quits it instead of pooling it,
+     * and releases the leased device. Used when a test left the session unhealthy.
+     */
+    public static void discardDriver() {
+        release(true);
+    }
+
+    private static void release(boolean discard) {
+        AppiumDriver driver = DRIVER.get();
+        Device device = DEVICE.get();
+        DRIVER.remove();
+        DEVICE.remove();
         try {
-            return new AndroidDriver(new URL("http://127.0.0.1:4723/"), options);
-        } catch (MalformedURLException e) {
-            throw new RuntimeException(e);
+            if (driver != null) {
+                if (discard) {
+                    SessionPool.discard(driver);
+                } else {
+                    SessionPool.release(device, driver);
+                }
+            }
+        } finally {
+            DeviceRegistry.release(device);
+        }
+    }
+
+    /**
+     * Creates a new Appium session on the given device.
+     * <p>
+     * This method initializes the driver with the necessary options such as device name, app path, package, and activity.
+     * When servers are managed by {@link AppiumServerManager}, it first waits for the device's server to be ready.
+     * Commands are sent through the {@link HttpTransport} settings unless {@code http.tuned=false},
+     * timed by {@link CommandMetrics} unless {@code metrics.enabled=false}, and recorded by the
+     * {@link CommandRecorder} when {@code replay.mode=record}. The app and the UiAutomator2 server are only
+     * installed when {@link SessionStartup} finds that the APK or the server changed since the last session on the device.
+     *
+     * @param device the device to open the session on.
+     * @return a new instance of {@link AppiumDriver} for Android tests
+     */
+    public static AppiumDriver createDriver(Device device) {
+        if (AppiumServerManager.isManaged() && !CommandRecorder.isReplaying()) {
+            AppiumServerManager.awaitReady(device.serial());
+        }
+        AppiumClientConfig config = HttpTransport.isTuned()
+                ? HttpTransport.clientConfig(device.serverUrl())
+                : AppiumClientConfig.defaultConfig().baseUrl(device.serverUrl());
+        // withFilter replaces the filter of the configuration, so the filters are chained and set once:
+        // the metrics time the whole command, compression included, and the recorder sees uncompressed requests
+        List<Filter> filters = new ArrayList<>();
+        if (CommandMetrics.isEnabled()) {
+            filters.add(CommandMetrics.filter());
+        }
+        if (CommandRecorder.isRecording()) {
+            filters.add(CommandRecorder.filter(device.serial()));
+        }
+        if (HttpTransport.isTuned()) {
+            HttpTransport.requestFilter().ifPresent(filters::add);
+        }
+        Optional<Filter> chain = filters.stream().reduce(Filter::andThen);
+        if (chain.isPresent()) {
+            config = config.withFilter(chain.get());
         }
+        return SessionStartup.start(device, config);
     }
 }
@@ -0,0 +1,185 @@
+package com.globant.webdriver.utils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Checkpoints of the steps of a test flow, so a retried test can resume where its previous attempt failed.
+ * <p>
+ * Screen operations worth resuming wrap their body in {@link #step(String, Supplier)}. While a test runs,
+ * every completed step is recorded in order with its return value. When the test is retried on the same
+ * session, the steps its previous attempt completed are not run again: each one returns its recorded value,
+ * and execution resumes at the first step that did not complete. Flows must be deterministic for this to
+ * hold: if a resumed attempt reaches a step other than the recorded one, the remaining checkpoints are
+ * dropped and every later step runs. Outside a test flow (no {@link #begin(String, String)}) steps simply run.
+ * <p>
+ * Steps that read the outcome of the step before them, e.g. the title of the alert a login opened, are
+ * {@link #check(String, Supplier) checks}. When a test fails outside any step (e.g. in an assertion) or in a
+ * check, the outcome of the last action is wrong or consumed, so the retry runs that action and its checks
+ * again. When it fails in an action, the retry resumes at that action.
+ */
+public class Flow {
+
+    /** A completed step, the value it returned and whether it only checked the outcome of the step before it. */
+    private record Checkpoint(String name, Object value, boolean check) { }
+
+    /** Checkpoints of a test, valid only on the session that produced them. */
+    private record Checkpoints(String sessionId, List<Checkpoint> steps) { }
+
+    /** Position of the current thread in the flow of its test. */
+    private static class Cursor {
+        private final String test;
+        private final Checkpoints checkpoints;
+        private int next;
+        private int depth;
+        private boolean failedInAction;
+
+        Cursor(String test, Checkpoints checkpoints) {
+            this.test = test;
+            this.checkpoints = checkpoints;
+        }
+    }
+
+    private static final Map<String, Checkpoints> CHECKPOINTS = new ConcurrentHashMap<>();
+
+    private static final ThreadLocal<Cursor> CURRENT = new ThreadLocal<>();
+
+    private static final LongAdder SKIPPED_STEPS = new LongAdder();
+
+    /**
+     * Starts the flow of a test on the current thread.
+     *
+     * @param test      the test key, identical across attempts of the same test.
+     * @param sessionId the session the test runs on.
+     * @return the number of steps the test resumes after, 0 when it starts from the beginning.
+     */
+    public static int begin(String test, String sessionId) {
+        Checkpoints checkpoints = CHECKPOINTS.get(test);
+        if (checkpoints == null || !checkpoints.sessionId().equals(sessionId)) {
+            checkpoints = new Checkpoints(sessionId, new ArrayList<>());
+            CHECKPOINTS.put(test, checkpoints);
+        }
+        CURRENT.set(new Cursor(test, checkpoints));
+        return checkpoints.steps().size();
+    }
+
+    /**
+     * Runs a step, or returns its recorded value if a previous attempt of the test already completed it.
+     *
+     * @param name   the step name, e.g. {@code LoginScreen.signUp}.
+     * @param action the step.
+     * @param <T>    the step result type.
+     * @return the step result.
+     */
+    public static <T> T step(String name, Supplier<T> action) {
+        return run(name, action, false);
+    }
+
+    /**
+     * Runs a check of the outcome of the previous step, e.g. reading and dismissing the alert it opened, or
+     * returns its recorded value if a previous attempt of the test already completed it. A failure in a check
+     * makes the retry run the previous step again.
+     *
+     * @param name  the check name, e.g. {@code LoginScreen.getAlertTitle}.
+     * @param check the check.
+     * @param <T>   the check result type.
+     * @return the check result.
+     */
+    public static <T> T check(String name, Supplier<T> check) {
+        return run(name, check, true);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T run(String name, Supplier<T> action, boolean check) {
+        Cursor cursor = CURRENT.get();
+        if (cursor == null || cursor.depth > 0) {
+            // outside a flow, or inside another step: the enclosing step is the checkpoint
+            return action.get();
+        }
+        List<Checkpoint> steps = cursor.checkpoints.steps();
+        int index = cursor.next++;
+        if (index < steps.size()) {
+            if (steps.get(index).name().equals(name)) {
+                SKIPPED_STEPS.increment();
+                return (T) steps.get(index).value();
+            }
+            // the flow diverged from the recorded attempt: nothing after this point can be trusted
+            steps.subList(index, steps.size()).clear();
+        }
+        ResourceSampler.step(name);
+        cursor.depth++;
+        T value;
+        try {
+            value = action.get();
+        } catch (RuntimeException | Error e) {
+            cursor.failedInAction = !check;
+            throw e;
+        } finally {
+            cursor.depth--;
+        }
+        steps.add(new Checkpoint(name, value, check));
+        return value;
+    }
+
+    /**
+     * Runs a step without a result, or skips it if a previous attempt of the test already completed it.
+     *
+     * @param name   the step name.
+     * @param action the step.
+     */
+    public static void step(String name, Runnable action) {
+        step(name, () -> {
+            action.run();
+            return null;
+        });
+    }
+
+    /**
+     * Ends the flow of a failed test on the current thread, keeping its checkpoints for a retry.
+     * When the failure happened outside any step, e.g. in an assertion on the result of the last step, or in
+     * a check, the last action and the checks after it are not good checkpoints and are run again by the retry.
+     *
+     * @return the number of steps the retry will skip.
+     */
+    public static int suspend() {
+        Cursor cursor = CURRENT.get();
+        CURRENT.remove();
+        if (cursor == null) {
+            return 0;
+        }
+        List<Checkpoint> steps = cursor.checkpoints.steps();
+        if (!cursor.failedInAction) {
+            while (!steps.isEmpty() && steps.getLast().check()) {
+                steps.removeLast();
+            }
+            if (!steps.isEmpty()) {
+                steps.removeLast();
+            }
+        }
+        return steps.size();
+    }
+
+    /**
+     * Ends the flow of the current thread and forgets its checkpoints, once the test passed or will not be retried.
+     */
+    public static void end() {
+        Cursor cursor = CURRENT.get();
+        CURRENT.remove();
+        if (cursor != null) {
+            CHECKPOINTS.remove(cursor.test);
+        }
+    }
+
+    /**
+     * Returns how many steps resumed attempts skipped, across all tests.
+     *
+     * @return the skipped steps.
+     */
+    public static long skippedSteps() {
+        return SKIPPED_STEPS.sum();
+    }
+}
@@ -0,0 +1,186 @@
+package com.globant.webdriver.utils;
+
+import io.appium.java_client.AppiumBy;
+import io.appium.java_client.AppiumDriver;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.WebElement;
+import org.testng.Reporter;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * Declarative description of a form, filled with as few server commands as the driver allows.
+ * <p>
+ * A screen lists the taps (tabs, switches, buttons) and the text values of a form in order, naming its
+ * annotated fields, e.g. {@code FormFill.form("signUp").tap("signUpTab").type("emailInput", email)}, and fills it
+ * with {@code BaseScreen.fill(form)}. Taps go through the screen fields, so they reuse the element ids kept by
+ * the {@link ScreenCache}. Consecutive text values are set as a group: the elements of the whole group are
+ * found with one {@code -android uiautomator} command that chains the {@link UiLocator#toUiSelector() selectors}
+ * of the fields with {@code ;}. The server answers the selectors in the order they are chained, and each one
+ * ends with {@code instance(n)}, so it yields at most one element and the elements line up with the fields.
+ * Each value is then set with one server-side set-value command, which replaces the text of the element and
+ * needs no focus or keyboard. A group of {@code n} fields therefore costs {@code n + 1} commands instead of
+ * {@code 2n}, and the elements it finds are stored in the {@link ScreenCache}. When the cache already holds the
+ * element of every field of the group, e.g. on a screen filled before, no group find is sent and the values are
+ * typed through the screen fields, which costs {@code n} commands. If the group finds fewer elements than it has
+ * fields (e.g. an input is still appearing), or a field locator cannot be written as a UiSelector, its values are
+ * typed field by field through the screen fields too, with their waits.
+ * Every fill reports the commands it used, counted by {@link CommandMetrics}.
+ */
+public class FormFill {
+
+    /** Kind of a form entry. */
+    private enum Kind { TAP, TYPE }
+
+    /** One entry of the form, in fill order. */
+    private record Entry(Kind kind, String field, String value) { }
+
+    /**
+     * Outcome of a fill.
+     *
+     * @param form     the form name.
+     * @param entries  the taps and values of the form.
+     * @param commands the server commands sent, or -1 when commands are not counted ({@code metrics.enabled=false}).
+     * @param millis   the time the fill took.
+     */
+    public record Result(String form, int entries, long commands, long millis) {
+
+        @Override
+        public String toString() {
+            return String.format("Form %s: %d entries in %s commands, %d ms",
+                    form, entries, commands < 0 ? "?" : String.valueOf(commands), millis);
+        }
+    }
+
+    private final String name;
+    private final List<Entry> entries = new ArrayList<>();
+
+    private FormFill(String name) {
+        this.name = name;
+    }
+
+    /**
+     * Starts the description of a form.
+     *
+     * @param name the form name, used in reports, e.g. {@code signUp}.
+     * @return an empty form.
+     */
+    public static FormFill form(String name) {
+        return new FormFill(name);
+    }
+
+    /**
+     * Adds a tap on an element, e.g. a tab, a switch or a button.
+     *
+     * @param field the name of the annotated field.
+     * @return this form.
+     */
+    public FormFill tap(String field) {
+        entries.add(new Entry(Kind.TAP, field, null));
+        return this;
+    }
+
+    /**
+     * Adds a text value.
+     *
+     * @param field the name of the annotated field of the input.
+     * @param value the text the input must hold.
+     * @return this form.
+     */
+    public FormFill type(String field, String value) {
+        entries.add(new Entry(Kind.TYPE, field, value));
+        return this;
+    }
+
+    /**
+     * Fills the form on a screen.
+     *
+     * @param driver   the session.
+     * @param screen   the screen class declaring the fields.
+     * @param elements returns the element proxy of a field of the screen.
+     * @return the fill outcome.
+     */
+    public Result fill(AppiumDriver driver, Class<?> screen, Function<String, WebElement> elements) {
+        long start = System.nanoTime();
+        long commandsBefore = CommandMetrics.threadCommands();
+        for (int i = 0; i < entries.size(); ) {
+            Entry entry = entries.get(i);
+            if (entry.kind() == Kind.TAP) {
+                elements.apply(entry.field()).click();
+                i++;
+                continue;
+            }
+            int end = i;
+            while (end < entries.size() && entries.get(end).kind() == Kind.TYPE) {
+                end++;
+            }
+            List<Entry> group = entries.subList(i, end);
+            if (group.size() < 2 || isCached(driver, screen, group) || !typeGroup(driver, screen, group)) {
+                group.forEach(typed -> elements.apply(typed.field()).sendKeys(typed.value()));
+            }
+            i = end;
+        }
+        Result result = new Result(name, entries.size(),
+                CommandMetrics.isEnabled() ? CommandMetrics.threadCommands() - commandsBefore : -1,
+                (System.nanoTime() - start) / 1_000_000);
+        Reporter.log(screen.getSimpleName() + " " + result, true);
+        return result;
+    }
+
+    /**
+     * Finds the inputs of a group with one command and sets their values.
+     *
+     * @return false, before any value was set, if the group cannot be found with one command.
+     */
+    private static boolean typeGroup(AppiumDriver driver, Class<?> screen, List<Entry> group) {
+        List<String> selectors = new ArrayList<>(group.size());
+        for (Entry entry : group) {
+            Optional<UiLocator> locator = UiLocator.ofField(screen, entry.field());
+            if (locator.isEmpty()) {
+                return false;
+            }
+            selectors.add(locator.get().toUiSelector());
+        }
+        List<WebElement> inputs;
+        try {
+            inputs = driver.findElements(AppiumBy.androidUIAutomator(String.join(";", selectors)));
+        } catch (WebDriverException e) {
+            // the server does not accept chained selectors
+            return false;
+        }
+        // every selector ends with instance(n), so each one yields at most one element, in selector order
+        if (inputs.size() != group.size()) {
+            return false;
+        }
+        for (int i = 0; i < group.size(); i++) {
+            ScreenCache.put(driver, fieldKey(screen, group.get(i).field()), inputs.get(i));
+            inputs.get(i).sendKeys(group.get(i).value());
+        }
+        return true;
+    }
+
+    /**
+     * Tells whether the {@link ScreenCache} holds the element of every field of a group.
+     */
+    private static boolean isCached(AppiumDriver driver, Class<?> screen, List<Entry> group) {
+        return group.stream().allMatch(entry -> ScreenCache.isCached(driver, fieldKey(screen, entry.field())));
+    }
+
+    /**
+     * Returns the cache key of a field, {@code Screen.field} named after the class that declares it, like the
+     * screen field proxies.
+     */
+    private static String fieldKey(Class<?> screen, String field) {
+        for (Class<?> type = screen; type != null; type = type.getSuperclass()) {
+            try {
+                return type.getDeclaredField(field).getDeclaringClass().getSimpleName() + "." + field;
+            } catch (NoSuchFieldException e) {
+                // keep looking in the superclass
+            }
+        }
+        throw new IllegalArgumentException("No field " + field + " in " + screen.getName());
+    }
+}
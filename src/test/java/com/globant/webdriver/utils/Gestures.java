@@ -0,0 +1,193 @@
+package com.globant.webdriver.utils;
+
+import io.appium.java_client.AppiumDriver;
+import org.openqa.selenium.Point;
+import org.openqa.selenium.Rectangle;
+import org.openqa.selenium.interactions.Pause;
+import org.openqa.selenium.interactions.PointerInput;
+import org.openqa.selenium.interactions.Sequence;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Touch gesture engine that keeps the number of server commands per gesture to a minimum.
+ * <p>
+ * Gestures are computed from a {@link Rectangle} obtained with a single {@code getRect()} call (or reused
+ * from an earlier one), instead of separate {@code getLocation()} and {@code getSize()} calls. Several
+ * gestures can be chained into one W3C action sequence and sent with a single {@link #perform()}:
+ * <pre>
+ *     Gestures.with(driver)
+ *             .swipe(card, Gestures.Direction.LEFT, 0.5)
+ *             .pause(Duration.ofMillis(300))
+ *             .swipe(card, Gestures.Direction.LEFT, 0.5)
+ *             .perform();
+ * </pre>
+ * When {@code gestures.mobile=true}, {@link #swipe(AppiumDriver, Rectangle, Direction, double)} and
+ * {@link #scroll(AppiumDriver, Rectangle, Direction, double)} use the UiAutomator2 server-side
+ * {@code mobile: swipeGesture} and {@code mobile: scrollGesture} commands instead of W3C actions.
+ */
+public class Gestures {
+
+    /** Duration of the finger movement of a swipe. */
+    private static final Duration SWIPE_DURATION = Duration.ofMillis(200);
+
+    /** Direction in which the finger moves. */
+    public enum Direction {
+        LEFT, RIGHT, UP, DOWN;
+
+        /** @return the direction name expected by the {@code mobile:} gesture commands. */
+        String asArg() {
+            return name().toLowerCase();
+        }
+    }
+
+    private final AppiumDriver driver;
+    private final PointerInput finger = new PointerInput(PointerInput.Kind.TOUCH, "finger");
+    private final Sequence sequence = new Sequence(finger, 0);
+    private int gestures;
+
+    private Gestures(AppiumDriver driver) {
+        this.driver = driver;
+    }
+
+    /**
+     * Starts a chain of gestures for the given session.
+     *
+     * @param driver the session to perform the gestures on.
+     * @return an empty gesture chain.
+     */
+    public static Gestures with(AppiumDriver driver) {
+        return new Gestures(driver);
+    }
+
+    /**
+     * Adds a swipe that starts at the center of an area and moves by a fraction of its size.
+     *
+     * @param area      the area to swipe in, e.g. the rect of an element.
+     * @param direction the direction the finger moves.
+     * @param percent   the distance as a fraction of the area width (horizontal) or height (vertical).
+     * @return this chain.
+     */
+    public Gestures swipe(Rectangle area, Direction direction, double percent) {
+        Point start = center(area);
+        int dx = (int) (area.getWidth() * percent);
+        int dy = (int) (area.getHeight() * percent);
+        Point end = switch (direction) {
+            case LEFT -> start.moveBy(-dx, 0);
+            case RIGHT -> start.moveBy(dx, 0);
+            case UP -> start.moveBy(0, -dy);
+            case DOWN -> start.moveBy(0, dy);
+        };
+        return swipe(start, end, SWIPE_DURATION);
+    }
+
+    /**
+     * Adds a swipe between two points of the viewport.
+     *
+     * @param from     the point where the finger goes down.
+     * @param to       the point where the finger is lifted.
+     * @param duration the duration of the finger movement.
+     * @return this chain.
+     */
+    public Gestures swipe(Point from, Point to, Duration duration) {
+        sequence.addAction(finger.createPointerMove(Duration.ZERO, PointerInput.Origin.viewport(), from.getX(), from.getY()))
+                .addAction(finger.createPointerDown(PointerInput.MouseButton.LEFT.asArg()))
+                .addAction(finger.createPointerMove(duration, PointerInput.Origin.viewport(), to.getX(), to.getY()))
+                .addAction(finger.createPointerUp(PointerInput.MouseButton.LEFT.asArg()));
+        gestures++;
+        return this;
+    }
+
+    /**
+     * Adds a tap at the center of an area.
+     *
+     * @param area the area to tap, e.g. the rect of an element.
+     * @return this chain.
+     */
+    public Gestures tap(Rectangle area) {
+        Point center = center(area);
+        sequence.addAction(finger.createPointerMove(Duration.ZERO, PointerInput.Origin.viewport(), center.getX(), center.getY()))
+                .addAction(finger.createPointerDown(PointerInput.MouseButton.LEFT.asArg()))
+                .addAction(finger.createPointerUp(PointerInput.MouseButton.LEFT.asArg()));
+        gestures++;
+        return this;
+    }
+
+    /**
+     * Adds a pause between gestures, e.g. to let an animation settle before the next swipe.
+     *
+     * @param duration the pause duration.
+     * @return this chain.
+     */
+    public Gestures pause(Duration duration) {
+        sequence.addAction(new Pause(finger, duration));
+        return this;
+    }
+
+    /**
+     * Sends every gesture of the chain to the server with a single command.
+     */
+    public void perform() {
+        if (gestures > 0) {
+            driver.perform(List.of(sequence));
+        }
+    }
+
+    /**
+     * Swipes in an area with one command: a server-side {@code mobile: swipeGesture} when
+     * {@code gestures.mobile=true}, a W3C action otherwise.
+     *
+     * @param driver    the session.
+     * @param area      the area to swipe in.
+     * @param direction the direction the finger moves.
+     * @param percent   the distance as a fraction of the area size.
+     */
+    public static void swipe(AppiumDriver driver, Rectangle area, Direction direction, double percent) {
+        if (isServerSide()) {
+            driver.executeScript("mobile: swipeGesture", gestureArgs(area, direction, percent));
+        } else {
+            with(driver).swipe(area, direction, percent).perform();
+        }
+    }
+
+    /**
+     * Scrolls an area with one command: a server-side {@code mobile: scrollGesture} when
+     * {@code gestures.mobile=true}, a W3C swipe otherwise. The direction is the one the content moves to,
+     * e.g. {@link Direction#DOWN} reveals content below, which means the finger moves up.
+     *
+     * @param driver    the session.
+     * @param area      the scrollable area.
+     * @param direction the direction to scroll.
+     * @param percent   the distance as a fraction of the area size.
+     * @return true if the server reports that the area can scroll further; always true for W3C swipes.
+     */
+    public static boolean scroll(AppiumDriver driver, Rectangle area, Direction direction, double percent) {
+        if (isServerSide()) {
+            Object canScrollMore = driver.executeScript("mobile: scrollGesture", gestureArgs(area, direction, percent));
+            return Boolean.TRUE.equals(canScrollMore);
+        }
+        Direction finger = switch (direction) {
+            case LEFT -> Direction.RIGHT;
+            case RIGHT -> Direction.LEFT;
+            case UP -> Direction.DOWN;
+            case DOWN -> Direction.UP;
+        };
+        with(driver).swipe(area, finger, percent).perform();
+        return true;
+    }
+
+    private static boolean isServerSide() {
+        return TestConfig.getBoolean("gestures.mobile", false);
+    }
+
+    private static Map<String, Object> gestureArgs(Rectangle area, Direction direction, double percent) {
+        return Map.of("left", area.getX(), "top", area.getY(), "width", area.getWidth(), "height", area.getHeight(),
+                "direction", direction.asArg(), "percent", percent);
+    }
+
+    private static Point center(Rectangle area) {
+        return new Point(area.getX() + area.getWidth() / 2, area.getY() + area.getHeight() / 2);
+    }
+}
@@ -0,0 +1,113 @@
+package com.globant.webdriver.utils;
+
+import io.appium.java_client.AppiumClientConfig;
+import org.openqa.selenium.remote.http.Contents;
+import org.openqa.selenium.remote.http.Filter;
+import org.openqa.selenium.remote.http.HttpMethod;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URL;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * HTTP transport settings of the sessions created by {@link DriverManager}.
+ * <p>
+ * Instead of the client defaults, sessions get an {@link AppiumClientConfig} with their own timeouts. Selenium's
+ * default JDK {@code HttpClient} already keeps connections alive and pools them between commands, with the
+ * JDK defaults (20 minutes idle, no pool limit), so the transport does not change the pool. The settings are
+ * read from {@link TestConfig}:
+ * <ul>
+ *     <li>{@code http.tuned}: use this transport (default true); false restores the client defaults;</li>
+ *     <li>{@code http.connectTimeout} / {@code http.readTimeout}: timeouts in seconds (defaults 5 and 120), so
+ *     an unreachable server fails in seconds rather than after the default three minutes;</li>
+ *     <li>{@code http.client}: the Selenium HTTP client factory, empty for Selenium's default
+ *     ({@code jdk-http-client}); a {@code webdriver.http.factory} system property wins;</li>
+ *     <li>{@code http.gzip}: gzip request bodies of at least {@code http.gzipMinBytes} bytes (default false, 1024).
+ *     The Appium server inflates them, but most command payloads are too small to benefit.</li>
+ * </ul>
+ * {@link TransportBenchmark} measures the per-command overhead of the default transport and of gzip.
+ */
+public class HttpTransport {
+
+    /**
+     * Tells whether sessions use the tuned transport.
+     *
+     * @return true unless {@code http.tuned=false}.
+     */
+    public static boolean isTuned() {
+        return TestConfig.getBoolean("http.tuned", true);
+    }
+
+    /**
+     * Builds the client configuration of a session on the given server, without any request filter.
+     *
+     * @param serverUrl the Appium server URL.
+     * @return the client configuration to pass to the driver constructor.
+     */
+    public static AppiumClientConfig clientConfig(URL serverUrl) {
+        configureClientFactory();
+        return AppiumClientConfig.defaultConfig()
+                .baseUrl(serverUrl)
+                .connectionTimeout(Duration.ofSeconds(TestConfig.getInt("http.connectTimeout", 5)))
+                .readTimeout(Duration.ofSeconds(TestConfig.getInt("http.readTimeout", 120)));
+    }
+
+    /**
+     * Returns the request filter of the transport. A client configuration holds a single filter and
+     * {@code withFilter} replaces it, so the caller composes this one with the other filters of the session.
+     *
+     * @return the gzip filter when {@code http.gzip=true}, otherwise empty.
+     */
+    public static Optional<Filter> requestFilter() {
+        return TestConfig.getBoolean("http.gzip", false)
+                ? Optional.of(gzipRequests(TestConfig.getInt("http.gzipMinBytes", 1024)))
+                : Optional.empty();
+    }
+
+    /**
+     * Selects the HTTP client factory from {@code http.client}, unless it was set explicitly as a system property.
+     */
+    private static synchronized void configureClientFactory() {
+        String factory = TestConfig.get("http.client", "");
+        if (!factory.isBlank() && System.getProperty("webdriver.http.factory") == null) {
+            System.setProperty("webdriver.http.factory", factory);
+        }
+    }
+
+    /**
+     * Filter compressing the bodies of POST requests that are large enough to be worth it.
+     *
+     * @param minBytes the smallest body to compress.
+     * @return the filter.
+     */
+    static Filter gzipRequests(int minBytes) {
+        return next -> request -> {
+            if (request.getMethod() == HttpMethod.POST && request.getHeader("Content-Encoding") == null) {
+                byte[] body = Contents.bytes(request.getContent());
+                if (body.length >= minBytes) {
+                    byte[] compressed = gzip(body);
+                    request.setContent(Contents.bytes(compressed));
+                    request.setHeader("Content-Encoding", "gzip");
+                    request.setHeader("Content-Length", String.valueOf(compressed.length));
+                } else {
+                    request.setContent(Contents.bytes(body));
+                }
+            }
+            return next.execute(request);
+        };
+    }
+
+    private static byte[] gzip(byte[] body) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(body.length / 2);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(body);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+}
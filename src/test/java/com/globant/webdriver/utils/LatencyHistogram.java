@@ -0,0 +1,96 @@
+package com.globant.webdriver.utils;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free latency histogram with logarithmic buckets.
+ * <p>
+ * Values are recorded in microseconds into buckets that grow by a factor of 2<sup>1/4</sup> (about 19%),
+ * so percentiles are accurate to within one bucket from 1 microsecond up to several hours, with a fixed
+ * footprint of {@value #BUCKETS} counters. Recording is a few atomic increments and is safe from any thread.
+ */
+public class LatencyHistogram {
+
+    /** Buckets per power of two. */
+    private static final int SUB_BUCKETS = 4;
+
+    /** Number of buckets: covers up to 2^40 microseconds. */
+    private static final int BUCKETS = 40 * SUB_BUCKETS + 1;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder totalMicros = new LongAdder();
+    private final LongAccumulator maxMicros = new LongAccumulator(Math::max, 0);
+
+    /**
+     * Records one value.
+     *
+     * @param nanos the measured duration in nanoseconds.
+     * @param error whether the measured operation failed.
+     */
+    public void record(long nanos, boolean error) {
+        long micros = Math.max(1, nanos / 1_000);
+        counts.incrementAndGet(bucket(micros));
+        count.increment();
+        totalMicros.add(micros);
+        maxMicros.accumulate(micros);
+        if (error) {
+            errors.increment();
+        }
+    }
+
+    /** @return the number of recorded values. */
+    public long count() {
+        return count.sum();
+    }
+
+    /** @return the number of recorded values that were errors. */
+    public long errors() {
+        return errors.sum();
+    }
+
+    /** @return the mean value in milliseconds. */
+    public double meanMillis() {
+        long n = count.sum();
+        return n == 0 ? 0 : totalMicros.sum() / 1_000.0 / n;
+    }
+
+    /** @return the largest value in milliseconds. */
+    public double maxMillis() {
+        return maxMicros.get() / 1_000.0;
+    }
+
+    /**
+     * Returns a percentile, as the upper bound of the bucket that holds it.
+     *
+     * @param percentile the percentile, between 0 and 100.
+     * @return the percentile in milliseconds, or 0 if nothing was recorded.
+     */
+    public double percentileMillis(double percentile) {
+        long n = count.sum();
+        if (n == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100 * n));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts.get(i);
+            if (seen >= rank) {
+                return Math.min(upperBoundMicros(i), maxMicros.get()) / 1_000.0;
+            }
+        }
+        return maxMillis();
+    }
+
+    private static int bucket(long micros) {
+        int index = (int) Math.ceil(SUB_BUCKETS * Math.log(micros) / Math.log(2));
+        return Math.min(BUCKETS - 1, Math.max(0, index));
+    }
+
+    private static double upperBoundMicros(int bucket) {
+        return Math.pow(2, (double) bucket / SUB_BUCKETS);
+    }
+}
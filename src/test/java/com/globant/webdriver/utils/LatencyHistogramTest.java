@@ -0,0 +1,59 @@
+package com.globant.webdriver.utils;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+/**
+ * Percentiles and counters of {@link LatencyHistogram}.
+ */
+public class LatencyHistogramTest {
+
+    /** Relative width of a bucket, 2^(1/4). */
+    private static final double BUCKET = Math.pow(2, 0.25);
+
+    /**
+     * An empty histogram reports zeros.
+     */
+    @Test
+    public void reportsZerosWhenEmpty() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        Assert.assertEquals(histogram.count(), 0);
+        Assert.assertEquals(histogram.percentileMillis(50), 0.0);
+        Assert.assertEquals(histogram.meanMillis(), 0.0);
+    }
+
+    /**
+     * Percentiles are within one bucket above the exact value and never above the maximum.
+     */
+    @Test
+    public void reportsPercentilesWithinOneBucket() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int millis = 1; millis <= 100; millis++) {
+            histogram.record(millis * 1_000_000L, millis % 10 == 0);
+        }
+        Assert.assertEquals(histogram.count(), 100);
+        Assert.assertEquals(histogram.errors(), 10);
+        Assert.assertEquals(histogram.meanMillis(), 50.5, 1e-9);
+        Assert.assertEquals(histogram.maxMillis(), 100.0);
+        assertWithinBucket(histogram.percentileMillis(50), 50);
+        assertWithinBucket(histogram.percentileMillis(90), 90);
+        assertWithinBucket(histogram.percentileMillis(99), 99);
+        Assert.assertEquals(histogram.percentileMillis(100), 100.0);
+        Assert.assertTrue(histogram.percentileMillis(0) >= 1);
+    }
+
+    /**
+     * Values below one microsecond count as one microsecond.
+     */
+    @Test
+    public void roundsUpSubMicrosecondValues() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(10, false);
+        Assert.assertEquals(histogram.maxMillis(), 0.001);
+        Assert.assertEquals(histogram.percentileMillis(50), 0.001);
+    }
+
+    private static void assertWithinBucket(double actual, double exact) {
+        Assert.assertTrue(actual >= exact && actual <= exact * BUCKET, actual + " ms for an exact " + exact + " ms");
+    }
+}
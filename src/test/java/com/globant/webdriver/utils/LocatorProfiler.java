@@ -0,0 +1,278 @@
+package com.globant.webdriver.utils;
+
+import io.appium.java_client.AppiumDriver;
+import io.appium.java_client.pagefactory.AndroidFindBy;
+import org.openqa.selenium.By;
+import org.openqa.selenium.NoSuchElementException;
+import org.openqa.selenium.SearchContext;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.WrapsDriver;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.reflect.Field;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Profiler of the element lookups performed by the {@link AndroidFindBy} fields of the screens.
+ * <p>
+ * When {@code profiler.enabled=true}, the {@link ScreenFieldDecorator} finds elements through
+ * {@link #searchContext(AppiumDriver)} and runs every field call through {@link #attribute(FieldStats, Supplier)},
+ * which records, per field, the lookup latency, the number of find attempts (retries while the element
+ * is not there yet) and the locator strategy. Only calls that sent a find command count as lookups; calls
+ * served by an element handle of the {@link ScreenCache} are counted apart as cache hits, so they do not
+ * dilute the lookup cost. {@link #report()} ranks the fields of each screen class
+ * by mean lookup latency and recommends faster strategies. When disabled, none of this is wired in,
+ * so the profiler adds no overhead at all.
+ */
+public class LocatorProfiler {
+
+    /** Field call being attributed on the current thread. */
+    private static final ThreadLocal<Lookup> CURRENT = new ThreadLocal<>();
+
+    /** One call through a field proxy, and the find commands it sent so far. */
+    private static class Lookup {
+        private final FieldStats stats;
+        private int finds;
+
+        Lookup(FieldStats stats) {
+            this.stats = stats;
+        }
+    }
+
+    /** Statistics keyed by {@code DeclaringClass#field}. */
+    private static final Map<String, FieldStats> STATS = new ConcurrentHashMap<>();
+
+    /**
+     * Lookup statistics of one annotated field.
+     */
+    public static class FieldStats {
+
+        private final String screen;
+        private final String field;
+        private final String strategy;
+        private final String selector;
+        private final LongAdder lookups = new LongAdder();
+        private final LongAdder cacheHits = new LongAdder();
+        private final LongAdder attempts = new LongAdder();
+        private final LongAdder failures = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+
+        FieldStats(String screen, String field, String strategy, String selector) {
+            this.screen = screen;
+            this.field = field;
+            this.strategy = strategy;
+            this.selector = selector;
+        }
+
+        /** @return mean time spent in find commands per lookup, in milliseconds. */
+        public double meanMillis() {
+            long count = lookups.sum();
+            return count == 0 ? 0 : totalNanos.sum() / 1_000_000.0 / count;
+        }
+
+        /** @return calls served by a cached element handle, without any find command. */
+        public long cacheHits() {
+            return cacheHits.sum();
+        }
+
+        /** @return mean number of extra find attempts per lookup. */
+        public double retriesPerLookup() {
+            long count = lookups.sum();
+            return count == 0 ? 0 : (double) (attempts.sum() - count) / count;
+        }
+
+        /**
+         * Suggests a faster strategy for the field, based on its locator and observed retries.
+         *
+         * @return a recommendation, or an empty string if the locator is already optimal.
+         */
+        public String recommendation() {
+            List<String> hints = new ArrayList<>();
+            if (strategy.equals("uiAutomator") && selector.matches(".*(instance\\(|className\\().*")) {
+                hints.add("positional UiSelector scans the whole hierarchy: add a content-desc or resource-id and use accessibility/id");
+            } else if (strategy.equals("uiAutomator")) {
+                hints.add("UiSelector text match: prefer accessibility (content-desc) or id when the app exposes one");
+            } else if (strategy.equals("xpath")) {
+                hints.add("xpath serializes the full hierarchy on the device: use accessibility or id");
+            }
+            if (retriesPerLookup() >= 1) {
+                hints.add("usually absent at first lookup: wait for it explicitly instead of retrying the find");
+            }
+            return String.join("; ", hints);
+        }
+    }
+
+    /**
+     * Tells whether profiling is enabled.
+     *
+     * @return true if {@code profiler.enabled} is set.
+     */
+    public static boolean isEnabled() {
+        return TestConfig.getBoolean("profiler.enabled", false);
+    }
+
+    /**
+     * Returns a search context that times the find commands issued by the field proxies.
+     * It exposes the driver through {@link WrapsDriver}, so the Appium decorator still detects the platform.
+     *
+     * @param driver the session the screen interacts with.
+     * @return the profiling search context.
+     */
+    public static SearchContext searchContext(AppiumDriver driver) {
+        return new ProfilingSearchContext(driver);
+    }
+
+    /**
+     * Runs a call made through a field proxy, attributing its find commands to the field.
+     *
+     * @param stats the statistics of the field.
+     * @param call  the field call.
+     * @param <T>   the call result type.
+     * @return the call result.
+     */
+    public static <T> T attribute(FieldStats stats, Supplier<T> call) {
+        Lookup previous = CURRENT.get();
+        Lookup lookup = new Lookup(stats);
+        CURRENT.set(lookup);
+        try {
+            return call.get();
+        } catch (NoSuchElementException e) {
+            stats.failures.increment();
+            throw e;
+        } finally {
+            CURRENT.set(previous);
+            (lookup.finds > 0 ? stats.lookups : stats.cacheHits).increment();
+        }
+    }
+
+    /**
+     * Returns the statistics of every profiled field.
+     *
+     * @return the statistics, in no particular order.
+     */
+    public static List<FieldStats> getStats() {
+        return List.copyOf(STATS.values());
+    }
+
+    /**
+     * Builds a report ranking the fields of each screen class by mean lookup latency.
+     *
+     * @return the report, or an empty string if nothing was profiled.
+     */
+    public static String report() {
+        Map<String, List<FieldStats>> byScreen = STATS.values().stream()
+                .filter(stats -> stats.lookups.sum() + stats.cacheHits.sum() > 0)
+                .collect(Collectors.groupingBy(stats -> stats.screen, TreeMap::new, Collectors.toList()));
+        StringBuilder report = new StringBuilder();
+        byScreen.forEach((screen, fields) -> {
+            report.append(screen).append('\n');
+            fields.sort(Comparator.comparingDouble(FieldStats::meanMillis).reversed());
+            for (FieldStats stats : fields) {
+                report.append(String.format("  %-24s %-13s %8.1f ms %6d lookups %6d cache hits %5.2f retries/lookup %4d failed  %s%n",
+                        stats.field, stats.strategy, stats.meanMillis(), stats.lookups.sum(), stats.cacheHits.sum(),
+                        stats.retriesPerLookup(), stats.failures.sum(), stats.selector));
+                String recommendation = stats.recommendation();
+                if (!recommendation.isEmpty()) {
+                    report.append("      -> ").append(recommendation).append('\n');
+                }
+            }
+        });
+        return report.toString();
+    }
+
+    /**
+     * Writes the report to a file.
+     *
+     * @param file the destination file; parent directories are created.
+     */
+    public static void writeReport(Path file) {
+        try {
+            Files.createDirectories(file.toAbsolutePath().getParent());
+            Files.writeString(file, report());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Returns the statistics of an annotated field, creating them on first use.
+     *
+     * @param field the screen field.
+     * @return the field statistics.
+     */
+    public static FieldStats stats(Field field) {
+        String screen = field.getDeclaringClass().getSimpleName();
+        return STATS.computeIfAbsent(screen + "#" + field.getName(), key -> {
+            AndroidFindBy findBy = field.getAnnotation(AndroidFindBy.class);
+            String strategy = "unknown";
+            String selector = "";
+            if (findBy != null) {
+                if (!findBy.accessibility().isEmpty()) {
+                    strategy = "accessibility";
+                    selector = findBy.accessibility();
+                } else if (!findBy.id().isEmpty()) {
+                    strategy = "id";
+                    selector = findBy.id();
+                } else if (!findBy.uiAutomator().isEmpty()) {
+                    strategy = "uiAutomator";
+                    selector = findBy.uiAutomator();
+                } else if (!findBy.xpath().isEmpty()) {
+                    strategy = "xpath";
+                    selector = findBy.xpath();
+                } else if (!findBy.className().isEmpty()) {
+                    strategy = "className";
+                    selector = findBy.className();
+                }
+            }
+            return new FieldStats(screen, field.getName(), strategy, selector);
+        });
+    }
+
+    /**
+     * Search context that times the find commands of the field being attributed on the current thread.
+     */
+    private record ProfilingSearchContext(AppiumDriver driver) implements SearchContext, WrapsDriver {
+
+        @Override
+        public WebElement findElement(By by) {
+            return time(() -> driver.findElement(by));
+        }
+
+        @Override
+        public List<WebElement> findElements(By by) {
+            return time(() -> driver.findElements(by));
+        }
+
+        @Override
+        public WebDriver getWrappedDriver() {
+            return driver;
+        }
+
+        private static <T> T time(Supplier<T> find) {
+            Lookup lookup = CURRENT.get();
+            if (lookup == null) {
+                return find.get();
+            }
+            long start = System.nanoTime();
+            try {
+                return find.get();
+            } finally {
+                lookup.finds++;
+                lookup.stats.attempts.increment();
+                lookup.stats.totalNanos.add(System.nanoTime() - start);
+            }
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.globant.webdriver.utils;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Utility class that hands out free local TCP ports.
+ * <p>
+ * Ports are probed by binding an ephemeral socket and are remembered, so two callers in the
+ * same JVM never receive the same port even before the first one starts listening on it.
+ */
+public class PortAllocator {
+
+    /** Ports already handed out by this JVM. */
+    private static final Set<Integer> ALLOCATED = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Returns a port that is currently free on the loopback interface and was not handed out before.
+     *
+     * @return a free port.
+     */
+    public static int allocate() {
+        while (true) {
+            try (ServerSocket socket = new ServerSocket(0, 1, InetAddress.getLoopbackAddress())) {
+                socket.setReuseAddress(true);
+                int port = socket.getLocalPort();
+                if (ALLOCATED.add(port)) {
+                    return port;
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException("Unable to find a free port", e);
+            }
+        }
+    }
+
+    /**
+     * Makes a port available again, e.g. after the server using it stopped.
+     *
+     * @param port the port to release.
+     */
+    public static void release(int port) {
+        ALLOCATED.remove(port);
+    }
+}
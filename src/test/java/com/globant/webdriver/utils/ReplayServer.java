@@ -0,0 +1,184 @@
+package com.globant.webdriver.utils;
+
+import com.globant.webdriver.utils.CommandRecorder.Exchange;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.openqa.selenium.json.Json;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Local server answering a session from a recording made by {@link CommandRecorder}, without a device.
+ * <p>
+ * Commands are expected in the recorded order: each request is compared with the next recorded one
+ * (method, path and, except for new-session requests whose capabilities hold allocated ports, body) and
+ * answered with the recorded status and response. The first request that does not match fails with a
+ * W3C {@code unknown error} naming the command index, the expected command and the received one, and
+ * every later request fails too, so a diverging screen refactor is reported where it diverges.
+ * Responses are served immediately, or with their recorded server time when {@code replay.timing=original}.
+ * With {@code replay.matchBodies=false} only methods and paths are compared, e.g. to replay tests that
+ * type random credentials.
+ */
+public class ReplayServer implements AutoCloseable {
+
+    private static final Json JSON = new Json();
+
+    private final HttpServer server;
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(task -> {
+        Thread thread = new Thread(task, "replay-server");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final List<Exchange> exchanges;
+    private final boolean originalTiming;
+    private final boolean matchBodies = TestConfig.getBoolean("replay.matchBodies", true);
+    private int next;
+    private String mismatch;
+
+    /**
+     * Starts a replay server for a recording on a free port of the loopback interface.
+     *
+     * @param recording      the recording file.
+     * @param originalTiming whether to delay every response by its recorded server time.
+     */
+    public ReplayServer(Path recording, boolean originalTiming) {
+        this.exchanges = CommandRecorder.read(recording);
+        this.originalTiming = originalTiming;
+        try {
+            server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        server.createContext("/", this::handle);
+        server.setExecutor(executor);
+        server.start();
+    }
+
+    /**
+     * Starts a replay server for a device, with the timing given by {@code replay.timing}.
+     *
+     * @param serial the device serial whose recording is served.
+     * @return the server URL.
+     */
+    public static URL start(String serial) {
+        boolean original = "original".equals(TestConfig.get("replay.timing", "none"));
+        return new ReplayServer(CommandRecorder.recording(serial), original).getUrl();
+    }
+
+    /**
+     * Returns the base URL of the server, usable wherever an Appium URL is expected.
+     *
+     * @return the server URL.
+     */
+    public URL getUrl() {
+        try {
+            return new URL("http://127.0.0.1:" + server.getAddress().getPort() + "/");
+        } catch (MalformedURLException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /** @return the number of recorded commands served so far. */
+    public synchronized int getServed() {
+        return next;
+    }
+
+    /** @return true once every recorded command has been served. */
+    public synchronized boolean isExhausted() {
+        return next == exchanges.size();
+    }
+
+    /**
+     * Answers a request with the next recorded response, or with an error if it does not match.
+     * Requests are handled one at a time, in the order they arrive.
+     *
+     * @param exchange the HTTP exchange.
+     * @throws IOException if the response cannot be written.
+     */
+    private synchronized void handle(HttpExchange exchange) throws IOException {
+        String method = exchange.getRequestMethod();
+        String path = exchange.getRequestURI().getRawPath();
+        String body = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+
+        if (mismatch == null && next >= exchanges.size()) {
+            mismatch = String.format("Recording exhausted after %d commands, got %s %s", exchanges.size(), method, path);
+        }
+        if (mismatch == null) {
+            Exchange expected = exchanges.get(next);
+            if (!matches(expected, method, path, body)) {
+                mismatch = String.format("Replay mismatch at command %d: expected %s %s %s, got %s %s %s",
+                        next, expected.method(), expected.path(), expected.request(), method, path, body);
+            }
+        }
+        if (mismatch != null) {
+            respond(exchange, 500, JSON.toJson(Map.of("value",
+                    Map.of("error", "unknown error", "message", mismatch, "stacktrace", ""))));
+            return;
+        }
+
+        Exchange recorded = exchanges.get(next++);
+        if (originalTiming && recorded.millis() > 0) {
+            try {
+                Thread.sleep(recorded.millis());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        respond(exchange, recorded.status(), recorded.response());
+    }
+
+    private boolean matches(Exchange expected, String method, String path, String body) {
+        if (!expected.method().equals(method) || !expected.path().equals(path)) {
+            return false;
+        }
+        boolean newSession = method.equals("POST") && path.equals("/session");
+        return !matchBodies || newSession || Objects.equals(normalize(expected.request()), normalize(body));
+    }
+
+    private static Object normalize(String body) {
+        return body == null || body.isBlank() ? Map.of() : JSON.toType(body, Object.class);
+    }
+
+    private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(status, bytes.length == 0 ? -1 : bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    /**
+     * Serves one recording until the JVM exits, e.g. to point a suite at it by hand.
+     *
+     * @param args the recording file, then optionally {@code original} to keep the recorded timing.
+     * @throws InterruptedException if interrupted while serving.
+     */
+    public static void main(String[] args) throws InterruptedException {
+        ReplayServer replay = new ReplayServer(Path.of(args[0]), args.length > 1 && args[1].equals("original"));
+        System.out.println("Replaying " + args[0] + " on " + replay.getUrl());
+        Thread.currentThread().join();
+    }
+
+    /**
+     * Stops the server immediately.
+     */
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+}
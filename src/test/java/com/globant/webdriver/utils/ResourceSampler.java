@@ -0,0 +1,313 @@
+package com.globant.webdriver.utils;
+
+import io.appium.java_client.AppiumDriver;
+import org.openqa.selenium.WebDriverException;
+import org.testng.Reporter;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Supplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Samples the CPU, memory and, optionally, frame statistics of the app under test while tests run.
+ * <p>
+ * With {@code sampler.enabled=true}, every session gets a sampler on its own virtual thread, started by the
+ * first test that runs on it and stopped when the session is quit. Every {@code sampler.intervalMs}
+ * (default 2000) it polls {@code mobile: getPerformanceData} for {@code cpuinfo} and {@code memoryinfo} and,
+ * with {@code sampler.gfx=true} (which needs the server's {@code adb_shell} feature), parses the frame counters
+ * of {@code dumpsys gfxinfo}. An extra sample is taken at every test start, {@link Flow} step and test end, so
+ * each row can be attributed to the test and step it was taken in. Rows are appended as they are taken to
+ * {@code sampler.dir/<serial>-<session>.csv} (default {@code target/resources}) with the columns
+ * {@code t_ms,test,step,cpu_user,cpu_kernel,total_pss_kb,native_pss_kb,dalvik_pss_kb,gfx_frames,gfx_janky};
+ * values the device did not report are left empty. Overhead stays bounded: samples of a session never overlap
+ * and are at least {@value #MIN_GAP_MILLIS} ms apart however many boundaries the test crosses, a data type that
+ * fails {@value #MAX_FAILURES} times in a row is not polled again on that session, and no samples are kept in
+ * memory. The sampler stays off while commands are recorded or replayed, because its commands would
+ * interleave with those of the test.
+ * <p>
+ * The samples are taken on the test's own session, and the server runs the commands of a session one at a
+ * time, so a test command sent during a sample waits for it. Sampling therefore inflates {@link CommandMetrics}
+ * latencies and the timings of {@link Transitions} and {@link Soak} runs: {@code TransitionTests} and
+ * {@code SoakTests} skip themselves and the transition baseline gate is not applied while it is enabled.
+ */
+public class ResourceSampler {
+
+    /** Minimum time between two samples of a session, even when boundaries are crossed faster. */
+    static final long MIN_GAP_MILLIS = 250;
+
+    /** Consecutive failures after which a data type is no longer polled on a session. */
+    static final int MAX_FAILURES = 3;
+
+    private static final String HEADER =
+            "t_ms,test,step,cpu_user,cpu_kernel,total_pss_kb,native_pss_kb,dalvik_pss_kb,gfx_frames,gfx_janky";
+
+    private static final Pattern FRAMES = Pattern.compile("Total frames rendered:\\s*(\\d+)");
+    private static final Pattern JANKY = Pattern.compile("Janky frames:\\s*(\\d+)");
+
+    /** Running samplers, by session id. */
+    private static final Map<String, Sampler> SAMPLERS = new ConcurrentHashMap<>();
+
+    /** Sampler of the session the current test thread runs on. */
+    private static final ThreadLocal<Sampler> CURRENT = new ThreadLocal<>();
+
+    private static final LongAdder SESSIONS = new LongAdder();
+    private static final LongAdder SAMPLES = new LongAdder();
+    private static final LongAdder FAILURES = new LongAdder();
+    private static final LongAdder SAMPLE_NANOS = new LongAdder();
+
+    /**
+     * Sampler counters across the suite.
+     *
+     * @param sessions     sessions sampled.
+     * @param samples      rows written.
+     * @param failures     failed polls of a data type.
+     * @param sampleMillis time the sampler threads spent polling the device.
+     */
+    public record Stats(long sessions, long samples, long failures, long sampleMillis) {
+
+        @Override
+        public String toString() {
+            return String.format("Resource sampler: %d samples on %d sessions (%.0f ms per sample), %d failed polls",
+                    samples, sessions, samples == 0 ? 0.0 : (double) sampleMillis / samples, failures);
+        }
+    }
+
+    /**
+     * Sampling loop of one session.
+     */
+    private static class Sampler implements Runnable {
+        private final AppiumDriver driver;
+        private final Path file;
+        private final long startNanos = System.nanoTime();
+        private final long intervalNanos = TimeUnit.MILLISECONDS.toNanos(TestConfig.getInt("sampler.intervalMs", 2000));
+        private final boolean gfx = TestConfig.getBoolean("sampler.gfx", false);
+        /** Consecutive failures by data type. */
+        private final Map<String, Integer> failures = new HashMap<>();
+        private volatile String test = "";
+        private volatile String step = "";
+        private volatile boolean boundary;
+        private volatile boolean running = true;
+        private Thread thread;
+
+        Sampler(AppiumDriver driver, Path file) {
+            this.driver = driver;
+            this.file = file;
+        }
+
+        /** Labels the next samples and asks for one right away. */
+        void mark(String test, String step) {
+            this.test = test;
+            this.step = step;
+            boundary = true;
+            LockSupport.unpark(thread);
+        }
+
+        @Override
+        public void run() {
+            try (BufferedWriter out = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+                out.write(HEADER);
+                out.newLine();
+                long last = 0;
+                while (running) {
+                    long now = System.nanoTime();
+                    long gap = TimeUnit.MILLISECONDS.toNanos(MIN_GAP_MILLIS);
+                    if (last != 0 && now - last < (boundary ? gap : intervalNanos)) {
+                        LockSupport.parkNanos(this, last + (boundary ? gap : intervalNanos) - now);
+                        continue;
+                    }
+                    boundary = false;
+                    last = now;
+                    out.write(sample(now));
+                    out.newLine();
+                    out.flush();
+                    SAMPLES.increment();
+                    SAMPLE_NANOS.add(System.nanoTime() - now);
+                }
+            } catch (IOException e) {
+                Reporter.log("Resource sampling stopped for " + file + ": " + e.getMessage(), true);
+            }
+        }
+
+        /** Polls the device and formats one CSV row. */
+        private String sample(long now) {
+            String test = this.test;
+            String step = this.step;
+            Map<String, String> cpu = performanceData("cpuinfo");
+            Map<String, String> memory = performanceData("memoryinfo");
+            String frames = "";
+            String janky = "";
+            if (gfx && failures.getOrDefault("gfxinfo", 0) < MAX_FAILURES) {
+                Object dump = poll("gfxinfo", () -> driver.executeScript("mobile: shell",
+                        Map.of("command", "dumpsys", "args", List.of("gfxinfo", AndroidOptions.APP_PACKAGE))));
+                frames = group(FRAMES, dump);
+                janky = group(JANKY, dump);
+            }
+            return String.join(",", String.valueOf(TimeUnit.NANOSECONDS.toMillis(now - startNanos)), csv(test), csv(step),
+                    cpu.getOrDefault("user", ""), cpu.getOrDefault("kernel", ""),
+                    memory.getOrDefault("totalPss", ""), memory.getOrDefault("nativePss", ""),
+                    memory.getOrDefault("dalvikPss", ""), frames, janky);
+        }
+
+        /**
+         * Polls {@code mobile: getPerformanceData}, which answers a header row and a row of values.
+         *
+         * @return the values by header name, empty if the data type is not available.
+         */
+        private Map<String, String> performanceData(String dataType) {
+            if (failures.getOrDefault(dataType, 0) >= MAX_FAILURES) {
+                return Map.of();
+            }
+            Object table = poll(dataType, () -> driver.executeScript("mobile: getPerformanceData",
+                    Map.of("packageName", AndroidOptions.APP_PACKAGE, "dataType", dataType)));
+            Map<String, String> values = new HashMap<>();
+            if (table instanceof List<?> rows && rows.size() >= 2
+                    && rows.get(0) instanceof List<?> names && rows.get(1) instanceof List<?> row) {
+                for (int i = 0; i < Math.min(names.size(), row.size()); i++) {
+                    if (row.get(i) != null) {
+                        values.put(String.valueOf(names.get(i)), String.valueOf(row.get(i)));
+                    }
+                }
+            }
+            return values;
+        }
+
+        /** Runs one poll, counting consecutive failures of its data type. */
+        private Object poll(String dataType, Supplier<Object> command) {
+            try {
+                Object value = command.get();
+                failures.remove(dataType);
+                return value;
+            } catch (WebDriverException e) {
+                FAILURES.increment();
+                if (failures.merge(dataType, 1, Integer::sum) == MAX_FAILURES) {
+                    Reporter.log("Resource sampler stops polling " + dataType + " on session "
+                            + driver.getSessionId() + ": " + e.getMessage().lines().findFirst().orElse(""), true);
+                }
+                return null;
+            }
+        }
+    }
+
+    /**
+     * Tells whether resource sampling is enabled.
+     *
+     * @return true if {@code sampler.enabled=true} and commands are neither recorded nor replayed.
+     */
+    public static boolean isEnabled() {
+        return TestConfig.getBoolean("sampler.enabled", false)
+                && !CommandRecorder.isRecording() && !CommandRecorder.isReplaying();
+    }
+
+    /**
+     * Starts sampling the session of a test, if it is not sampled yet, and labels its next samples with the test.
+     *
+     * @param driver the session the test runs on.
+     * @param serial the device serial, used in the file name.
+     * @param test   the test name, e.g. {@code Tests.swipeCards}.
+     */
+    public static void start(AppiumDriver driver, String serial, String test) {
+        if (!isEnabled()) {
+            return;
+        }
+        String sessionId = String.valueOf(driver.getSessionId());
+        Sampler sampler = SAMPLERS.computeIfAbsent(sessionId, id -> {
+            Path directory = Path.of(TestConfig.get("sampler.dir", "target/resources"));
+            try {
+                Files.createDirectories(directory);
+            } catch (IOException e) {
+                Reporter.log("Cannot create " + directory + ", resources are not sampled: " + e.getMessage(), true);
+                return null;
+            }
+            Sampler created = new Sampler(driver, directory.resolve(serial + "-" + id + ".csv"));
+            created.thread = Thread.ofVirtual().name("resource-sampler-" + serial).unstarted(created);
+            created.thread.start();
+            SESSIONS.increment();
+            return created;
+        });
+        if (sampler != null) {
+            CURRENT.set(sampler);
+            sampler.mark(test, "");
+        }
+    }
+
+    /**
+     * Labels the next samples of the current test with a step.
+     *
+     * @param name the step name, e.g. {@code SwipeScreen.swipe}.
+     */
+    public static void step(String name) {
+        Sampler sampler = CURRENT.get();
+        if (sampler != null) {
+            sampler.mark(sampler.test, name);
+        }
+    }
+
+    /**
+     * Marks the end of the test running on the current thread. The session keeps being sampled, unlabelled,
+     * until its next test starts or it is quit.
+     */
+    public static void endTest() {
+        Sampler sampler = CURRENT.get();
+        CURRENT.remove();
+        if (sampler != null) {
+            sampler.mark("", "");
+        }
+    }
+
+    /**
+     * Stops sampling a session and closes its time series. Waits for a sample in progress, so no sampler
+     * command reaches a session being quit.
+     *
+     * @param driver the session.
+     */
+    public static void stop(AppiumDriver driver) {
+        Sampler sampler = SAMPLERS.remove(String.valueOf(driver.getSessionId()));
+        if (sampler == null) {
+            return;
+        }
+        sampler.running = false;
+        LockSupport.unpark(sampler.thread);
+        try {
+            if (!sampler.thread.join(Duration.ofSeconds(10))) {
+                Reporter.log("Resource sampler of session " + driver.getSessionId() + " did not stop in time", true);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Returns the sampler counters.
+     *
+     * @return a {@link Stats} snapshot.
+     */
+    public static Stats stats() {
+        return new Stats(SESSIONS.sum(), SAMPLES.sum(), FAILURES.sum(), TimeUnit.NANOSECONDS.toMillis(SAMPLE_NANOS.sum()));
+    }
+
+    private static String group(Pattern pattern, Object text) {
+        if (text == null) {
+            return "";
+        }
+        Matcher matcher = pattern.matcher(text.toString());
+        return matcher.find() ? matcher.group(1) : "";
+    }
+
+    /** Quotes a label if it contains a CSV separator. */
+    private static String csv(String label) {
+        return label.contains(",") || label.contains("\"") ? "\"" + label.replace("\"", "\"\"") + "\"" : label;
+    }
+}
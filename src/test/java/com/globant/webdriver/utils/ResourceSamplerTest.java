@@ -0,0 +1,90 @@
+package com.globant.webdriver.utils;
+
+import io.appium.java_client.AppiumDriver;
+import io.appium.java_client.android.AndroidDriver;
+import io.appium.java_client.android.options.UiAutomator2Options;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * CSV time series written by {@link ResourceSampler} for a session on the {@link StubAppiumServer}, which
+ * answers {@code mobile: getPerformanceData} and {@code mobile: shell dumpsys gfxinfo}.
+ */
+public class ResourceSamplerTest {
+
+    private StubAppiumServer stub;
+    private Path directory;
+
+    /**
+     * Starts the stub and enables fast sampling, frame statistics included, into a temporary directory.
+     *
+     * @throws IOException if the directory cannot be created.
+     */
+    @BeforeClass
+    public void startStub() throws IOException {
+        directory = Files.createTempDirectory("resource-sampler");
+        System.setProperty("sampler.enabled", "true");
+        System.setProperty("sampler.gfx", "true");
+        System.setProperty("sampler.intervalMs", "100");
+        System.setProperty("sampler.dir", directory.toString());
+        stub = new StubAppiumServer();
+    }
+
+    /**
+     * Stops the stub and restores the configuration.
+     */
+    @AfterClass(alwaysRun = true)
+    public void stopStub() {
+        stub.close();
+        System.clearProperty("sampler.enabled");
+        System.clearProperty("sampler.gfx");
+        System.clearProperty("sampler.intervalMs");
+        System.clearProperty("sampler.dir");
+    }
+
+    /**
+     * Rows carry the test and step they were taken in, and every column the stub reports.
+     *
+     * @throws Exception if the test is interrupted or the CSV cannot be read.
+     */
+    @Test
+    public void writesLabelledRows() throws Exception {
+        AppiumDriver driver = new AndroidDriver(stub.getUrl(), new UiAutomator2Options().setDeviceName("stub"));
+        String sessionId = driver.getSessionId().toString();
+        try {
+            ResourceSampler.start(driver, "sampler-test", "ResourceSamplerTest.writesLabelledRows");
+            Thread.sleep(500);
+            ResourceSampler.step("Screen.action");
+            Thread.sleep(500);
+            ResourceSampler.endTest();
+        } finally {
+            ResourceSampler.stop(driver);
+            driver.quit();
+        }
+
+        Path file = directory.resolve("sampler-test-" + sessionId + ".csv");
+        List<String> lines = Files.readAllLines(file);
+        Assert.assertEquals(lines.get(0),
+                "t_ms,test,step,cpu_user,cpu_kernel,total_pss_kb,native_pss_kb,dalvik_pss_kb,gfx_frames,gfx_janky");
+        List<String[]> rows = lines.stream().skip(1).map(line -> line.split(",", -1)).toList();
+        Assert.assertTrue(rows.size() >= 4, "Only " + rows.size() + " samples in " + file);
+        for (String[] row : rows) {
+            Assert.assertEquals(row.length, 10, String.join(",", row));
+            for (int column : new int[] {0, 3, 4, 5, 6, 7, 8, 9}) {
+                Assert.assertTrue(row[column].matches("\\d+"), "Column " + column + " of " + String.join(",", row));
+            }
+        }
+        Assert.assertTrue(rows.stream().anyMatch(row -> row[1].equals("ResourceSamplerTest.writesLabelledRows")
+                && row[2].isEmpty()));
+        Assert.assertTrue(rows.stream().anyMatch(row -> row[1].equals("ResourceSamplerTest.writesLabelledRows")
+                && row[2].equals("Screen.action")));
+        Assert.assertEquals(ResourceSampler.stats().failures(), 0);
+    }
+}
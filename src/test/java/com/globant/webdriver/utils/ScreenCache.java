@@ -0,0 +1,264 @@
+package com.globant.webdriver.utils;
+
+import io.appium.java_client.AppiumDriver;
+import org.openqa.selenium.By;
+import org.openqa.selenium.SearchContext;
+import org.openqa.selenium.StaleElementReferenceException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.WrapsDriver;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Per-session cache of screen instances and resolved element handles.
+ * <p>
+ * Screens returned by the {@code BaseScreen.select*()} methods are built once per session instead of
+ * rerunning {@code PageFactory.initElements} on every navigation. The element found for a screen field
+ * is remembered, so repeated calls on the same field reuse the server-side element id instead of
+ * finding it again. Handles are invalidated when the session navigates to another section (except the
+ * bottom menu, which is always on screen), when the server reports them stale, and when the app is reset.
+ * Caching is enabled by default and can be turned off with {@code cache.enabled=false}.
+ */
+public class ScreenCache {
+
+    /** Prefix of the field keys that survive navigation: the bottom menu declared in BaseScreen. */
+    private static final String PERSISTENT_PREFIX = "BaseScreen.";
+
+    private static final Map<String, SessionCache> SESSIONS = new ConcurrentHashMap<>();
+
+    /** Field being resolved on the current thread. */
+    private static final ThreadLocal<String> CURRENT_FIELD = new ThreadLocal<>();
+
+    private static final LongAdder SCREEN_HITS = new LongAdder();
+    private static final LongAdder SCREEN_MISSES = new LongAdder();
+    private static final LongAdder ELEMENT_HITS = new LongAdder();
+    private static final LongAdder ELEMENT_MISSES = new LongAdder();
+    private static final LongAdder INVALIDATIONS = new LongAdder();
+
+    /**
+     * Cached state of one session.
+     */
+    private static class SessionCache {
+        private final Map<Class<?>, Object> screens = new ConcurrentHashMap<>();
+        private final Map<String, WebElement> elements = new ConcurrentHashMap<>();
+        private volatile Class<?> currentScreen;
+    }
+
+    /**
+     * Cache counters across all sessions.
+     *
+     * @param screenHits     screens served from the cache.
+     * @param screenMisses   screens built because they were not cached.
+     * @param elementHits    element lookups answered with a cached handle.
+     * @param elementMisses  element lookups that had to find the element on the server.
+     * @param invalidations  handles dropped because of navigation, staleness or app resets.
+     */
+    public record Stats(long screenHits, long screenMisses, long elementHits, long elementMisses, long invalidations) {
+
+        @Override
+        public String toString() {
+            return String.format("Screen cache: screens %d hits / %d misses, elements %d hits / %d misses, %d invalidations",
+                    screenHits, screenMisses, elementHits, elementMisses, invalidations);
+        }
+    }
+
+    /**
+     * Tells whether caching is enabled.
+     *
+     * @return true unless {@code cache.enabled=false}.
+     */
+    public static boolean isEnabled() {
+        return TestConfig.getBoolean("cache.enabled", true);
+    }
+
+    /**
+     * Returns the cached instance of a screen for the session, building it on first use.
+     *
+     * @param driver  the session.
+     * @param type    the screen class.
+     * @param factory the screen constructor.
+     * @param <T>     the screen type.
+     * @return the screen instance.
+     */
+    public static <T> T screen(AppiumDriver driver, Class<T> type, Function<AppiumDriver, T> factory) {
+        if (!isEnabled()) {
+            return factory.apply(driver);
+        }
+        Map<Class<?>, Object> screens = session(driver).screens;
+        Object screen = screens.get(type);
+        if (screen != null) {
+            SCREEN_HITS.increment();
+            return type.cast(screen);
+        }
+        SCREEN_MISSES.increment();
+        T created = factory.apply(driver);
+        screens.put(type, created);
+        return created;
+    }
+
+    /**
+     * Records a navigation. Moving to another section drops the element handles of the previous one.
+     *
+     * @param driver the session.
+     * @param screen the screen class navigated to.
+     */
+    public static void navigatedTo(AppiumDriver driver, Class<?> screen) {
+        SessionCache session = session(driver);
+        if (session.currentScreen != screen) {
+            session.currentScreen = screen;
+            session.elements.keySet().removeIf(key -> {
+                boolean drop = !key.startsWith(PERSISTENT_PREFIX);
+                if (drop) {
+                    INVALIDATIONS.increment();
+                }
+                return drop;
+            });
+        }
+    }
+
+    /**
+     * Drops every element handle of the session, e.g. after the app was restarted.
+     *
+     * @param driver the session.
+     */
+    public static void invalidate(AppiumDriver driver) {
+        SessionCache session = SESSIONS.get(key(driver));
+        if (session != null) {
+            INVALIDATIONS.add(session.elements.size());
+            session.elements.clear();
+            session.currentScreen = null;
+        }
+    }
+
+    /**
+     * Forgets a session entirely, e.g. once it was quit.
+     *
+     * @param driver the session.
+     */
+    public static void evict(AppiumDriver driver) {
+        SessionCache session = SESSIONS.remove(key(driver));
+        if (session != null) {
+            INVALIDATIONS.add(session.elements.size());
+        }
+    }
+
+    /**
+     * Wraps the search context used by the field proxies so finds are served from the cache.
+     *
+     * @param driver   the session.
+     * @param delegate the context performing real finds.
+     * @return the caching search context.
+     */
+    public static SearchContext searchContext(AppiumDriver driver, SearchContext delegate) {
+        return new CachingSearchContext(driver, delegate);
+    }
+
+    /**
+     * Runs a call made through a field proxy so its find is served from the cache.
+     * If the cached handle turned stale, it is dropped before the exception is rethrown,
+     * so a retry finds the element again.
+     *
+     * @param driver   the session.
+     * @param fieldKey the {@code Screen.field} key.
+     * @param call     the field call.
+     * @param <T>      the call result type.
+     * @return the call result.
+     */
+    public static <T> T withField(AppiumDriver driver, String fieldKey, Supplier<T> call) {
+        String previous = CURRENT_FIELD.get();
+        CURRENT_FIELD.set(fieldKey);
+        try {
+            return call.get();
+        } catch (StaleElementReferenceException e) {
+            if (session(driver).elements.remove(fieldKey) != null) {
+                INVALIDATIONS.increment();
+            }
+            throw e;
+        } finally {
+            CURRENT_FIELD.set(previous);
+        }
+    }
+
+    /**
+     * Tells whether the handle of a field is cached for the session, e.g. to skip a find that would only
+     * return elements already known.
+     *
+     * @param driver   the session.
+     * @param fieldKey the {@code Screen.field} key.
+     * @return true if a call through the field proxy would reuse a cached handle.
+     */
+    public static boolean isCached(AppiumDriver driver, String fieldKey) {
+        return isEnabled() && session(driver).elements.containsKey(fieldKey);
+    }
+
+    /**
+     * Remembers the handle of a field found outside its proxy, e.g. by a grouped find, so later calls through
+     * the proxy reuse it.
+     *
+     * @param driver   the session.
+     * @param fieldKey the {@code Screen.field} key.
+     * @param element  the element found for the field.
+     */
+    public static void put(AppiumDriver driver, String fieldKey, WebElement element) {
+        if (isEnabled()) {
+            session(driver).elements.put(fieldKey, element);
+        }
+    }
+
+    /**
+     * Returns the current cache counters.
+     *
+     * @return a {@link Stats} snapshot.
+     */
+    public static Stats stats() {
+        return new Stats(SCREEN_HITS.sum(), SCREEN_MISSES.sum(), ELEMENT_HITS.sum(), ELEMENT_MISSES.sum(), INVALIDATIONS.sum());
+    }
+
+    private static SessionCache session(AppiumDriver driver) {
+        return SESSIONS.computeIfAbsent(key(driver), id -> new SessionCache());
+    }
+
+    private static String key(AppiumDriver driver) {
+        return String.valueOf(driver.getSessionId());
+    }
+
+    /**
+     * Search context answering single-element finds of the current field from the cache.
+     */
+    private record CachingSearchContext(AppiumDriver driver, SearchContext delegate) implements SearchContext, WrapsDriver {
+
+        @Override
+        public WebElement findElement(By by) {
+            String field = CURRENT_FIELD.get();
+            if (field == null) {
+                return delegate.findElement(by);
+            }
+            Map<String, WebElement> elements = session(driver).elements;
+            WebElement cached = elements.get(field);
+            if (cached != null) {
+                ELEMENT_HITS.increment();
+                return cached;
+            }
+            ELEMENT_MISSES.increment();
+            WebElement element = delegate.findElement(by);
+            elements.put(field, element);
+            return element;
+        }
+
+        @Override
+        public List<WebElement> findElements(By by) {
+            return delegate.findElements(by);
+        }
+
+        @Override
+        public WebDriver getWrappedDriver() {
+            return driver;
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package com.globant.webdriver.utils;
+
+import io.appium.java_client.AppiumDriver;
+import io.appium.java_client.pagefactory.AndroidFindBy;
+import io.appium.java_client.pagefactory.AppiumFieldDecorator;
+import org.openqa.selenium.SearchContext;
+import org.openqa.selenium.TakesScreenshot;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.WrapsDriver;
+import org.openqa.selenium.WrapsElement;
+import org.openqa.selenium.interactions.Locatable;
+import org.openqa.selenium.support.pagefactory.FieldDecorator;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.time.Duration;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Field decorator used by every screen to initialize its {@link AndroidFindBy} fields.
+ * <p>
+ * Elements are located by an {@link AppiumFieldDecorator} without any waiting of its own, and each
+ * {@link WebElement} proxy is wrapped so that calls made through it:
+ * <ul>
+ *     <li>are retried by the adaptive {@link Waits} engine while the element is missing or stale,
+ *     keyed by {@code Screen.field}, instead of relying on a session-wide implicit wait;</li>
+ *     <li>reuse the element handle remembered by the {@link ScreenCache} for the session, if any;</li>
+ *     <li>are attributed to the field by the {@link LocatorProfiler} when profiling is enabled;</li>
+ *     <li>are recorded as dependencies of the running test in the {@link TestDependencies}.</li>
+ * </ul>
+ */
+public class ScreenFieldDecorator implements FieldDecorator {
+
+    /** Interfaces a field proxy exposes, when the wrapped Appium proxy implements them. */
+    private static final List<Class<?>> ELEMENT_INTERFACES =
+            List.of(WebElement.class, WrapsElement.class, WrapsDriver.class, Locatable.class, TakesScreenshot.class);
+
+    private final AppiumDriver driver;
+    private final AppiumFieldDecorator delegate;
+    private final boolean profiling;
+    private final boolean caching;
+
+    /**
+     * Creates the decorator for a screen bound to the given session.
+     * Finds go through the cache first, then through the profiler, then to the driver.
+     *
+     * @param driver the session the screen interacts with.
+     */
+    public ScreenFieldDecorator(AppiumDriver driver) {
+        this.driver = driver;
+        this.profiling = LocatorProfiler.isEnabled();
+        this.caching = ScreenCache.isEnabled();
+        SearchContext context = profiling ? LocatorProfiler.searchContext(driver) : driver;
+        if (caching) {
+            context = ScreenCache.searchContext(driver, context);
+        }
+        this.delegate = new AppiumFieldDecorator(context, Duration.ZERO);
+    }
+
+    /**
+     * Creates the proxy of a screen field.
+     *
+     * @param loader the class loader of the screen.
+     * @param field  the field to decorate.
+     * @return the field proxy, or whatever the Appium decorator returns for non-element fields.
+     */
+    @Override
+    public Object decorate(ClassLoader loader, Field field) {
+        Object proxy = delegate.decorate(loader, field);
+        if (!(proxy instanceof WebElement)) {
+            return proxy;
+        }
+        String key = field.getDeclaringClass().getSimpleName() + "." + field.getName();
+        LocatorProfiler.FieldStats stats = profiling ? LocatorProfiler.stats(field) : null;
+        Class<?> screen = field.getDeclaringClass();
+        String name = field.getName();
+
+        Class<?>[] interfaces = ELEMENT_INTERFACES.stream().filter(type -> type.isInstance(proxy)).toArray(Class<?>[]::new);
+        InvocationHandler handler = (target, method, args) -> {
+            if (method.getDeclaringClass() == Object.class) {
+                return invoke(proxy, method, args);
+            }
+            TestDependencies.touch(screen, name);
+            Supplier<Object> attempt = caching
+                    ? () -> ScreenCache.withField(driver, key, () -> invoke(proxy, method, args))
+                    : () -> invoke(proxy, method, args);
+            Supplier<Object> call = () -> Waits.retrying(key, attempt);
+            return stats == null ? call.get() : LocatorProfiler.attribute(stats, call);
+        };
+        return Proxy.newProxyInstance(ScreenFieldDecorator.class.getClassLoader(), interfaces, handler);
+    }
+
+    private static Object invoke(Object proxy, Method method, Object[] args) {
+        try {
+            return method.invoke(proxy, args);
+        } catch (InvocationTargetException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new WebDriverException(e.getCause());
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package com.globant.webdriver.utils;
+
+import io.appium.java_client.AppiumBy;
+import io.appium.java_client.AppiumDriver;
+import org.openqa.selenium.WebDriverException;
+import org.testng.Reporter;
+
+import java.util.Comparator;
+import java.util.Optional;
+
+/**
+ * Scrolls a container until an element is visible.
+ * <p>
+ * By default the whole search is one server command: the target is nested in a UiAutomator
+ * {@code UiScrollable(...).scrollIntoView(...)} selector, which scrolls the first scrollable container
+ * on the device until the target appears. When that is disabled ({@code scroll.serverSide=false}) or
+ * finds nothing, the search runs on the client: every step scrolls the largest visible scrollable
+ * container with {@link Gestures#scroll} and reads the screen back with one {@link UiSnapshot}. The steps
+ * adapt to what the snapshot shows. They start at {@code scroll.step} of the container (default 0.5) and
+ * grow by half while the target is not in the hierarchy. They shrink to a fifth once the target is in the
+ * hierarchy but still off screen, so the search does not overshoot it. The search stops as soon as the
+ * target is visible, when the container reports or shows that it cannot scroll further, or after
+ * {@code scroll.maxSteps} steps (default 10). Every search reports its steps and server commands.
+ */
+public class ScrollSearch {
+
+    /**
+     * Outcome of a search.
+     *
+     * @param found    whether the target became visible.
+     * @param steps    the scroll gestures performed; a server-side search counts as one.
+     * @param commands the server commands issued.
+     * @param millis   the time the search took.
+     */
+    public record Result(boolean found, int steps, int commands, long millis) {
+
+        @Override
+        public String toString() {
+            return String.format("%s in %d steps, %d commands, %d ms", found ? "found" : "not found", steps, commands, millis);
+        }
+    }
+
+    /**
+     * Scrolls down until the target is visible.
+     *
+     * @param driver the session.
+     * @param target the element to bring on screen.
+     * @return the search outcome.
+     */
+    public static Result scrollTo(AppiumDriver driver, UiLocator target) {
+        return scrollTo(driver, target, Gestures.Direction.DOWN);
+    }
+
+    /**
+     * Scrolls in a direction until the target is visible.
+     *
+     * @param driver    the session.
+     * @param target    the element to bring on screen.
+     * @param direction the direction the content scrolls to; {@link Gestures.Direction#DOWN} reveals content below.
+     * @return the search outcome.
+     */
+    public static Result scrollTo(AppiumDriver driver, UiLocator target, Gestures.Direction direction) {
+        long start = System.nanoTime();
+        int commands = 0;
+        int steps = 0;
+        boolean found = false;
+        if (TestConfig.getBoolean("scroll.serverSide", true)) {
+            commands++;
+            steps++;
+            found = scrollIntoView(driver, target, direction);
+        }
+        if (!found) {
+            double step = Double.parseDouble(TestConfig.get("scroll.step", "0.5"));
+            int maxSteps = TestConfig.getInt("scroll.maxSteps", 10);
+            UiSnapshot snapshot = UiSnapshot.capture(driver);
+            commands++;
+            found = snapshot.isDisplayed(target);
+            for (int i = 0; !found && i < maxSteps; i++) {
+                Optional<UiSnapshot.Node> container = snapshot.getNodes().stream()
+                        .filter(node -> node.scrollable() && node.isVisible())
+                        .max(Comparator.comparingLong(node -> (long) node.bounds().getWidth() * node.bounds().getHeight()));
+                if (container.isEmpty()) {
+                    break;
+                }
+                boolean inHierarchy = snapshot.find(target).isPresent();
+                double percent = inHierarchy ? Math.max(0.1, step / 5) : step;
+                boolean canScrollMore = Gestures.scroll(driver, container.get().bounds(), direction, percent);
+                UiSnapshot next = UiSnapshot.capture(driver);
+                commands += 2;
+                steps++;
+                found = next.isDisplayed(target);
+                if (!canScrollMore || next.getNodes().equals(snapshot.getNodes())) {
+                    break;
+                }
+                snapshot = next;
+                step = inHierarchy ? step : Math.min(1.0, step * 1.5);
+            }
+        }
+        Result result = new Result(found, steps, commands, (System.nanoTime() - start) / 1_000_000);
+        Reporter.log("Scroll search for " + target.toUiSelector() + ": " + result, true);
+        return result;
+    }
+
+    /**
+     * Runs the whole search on the device with a {@code UiScrollable} selector.
+     *
+     * @return true if the target was found and scrolled into view.
+     */
+    private static boolean scrollIntoView(AppiumDriver driver, UiLocator target, Gestures.Direction direction) {
+        String scrollable = "new UiScrollable(new UiSelector().scrollable(true))"
+                + (direction == Gestures.Direction.LEFT || direction == Gestures.Direction.RIGHT ? ".setAsHorizontalList()" : "")
+                + ".setMaxSearchSwipes(" + TestConfig.getInt("scroll.maxSteps", 10) + ")";
+        try {
+            return !driver.findElements(AppiumBy.androidUIAutomator(
+                    scrollable + ".scrollIntoView(" + target.toUiSelector() + ")")).isEmpty();
+        } catch (WebDriverException e) {
+            // no scrollable container on screen: let the client-side search decide
+            return false;
+        }
+    }
+}
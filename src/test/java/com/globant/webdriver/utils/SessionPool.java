@@ -0,0 +1,223 @@
+package com.globant.webdriver.utils;
+
+import com.globant.webdriver.utils.DeviceRegistry.Device;
+import io.appium.java_client.AppiumDriver;
+import io.appium.java_client.InteractsWithApps;
+import org.openqa.selenium.WebDriverException;
+import org.testng.Reporter;
+
+import java.util.Deque;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * Pool of warm Appium sessions shared across test methods and test classes.
+ * <p>
+ * Creating a UiAutomator2 session (server install check, app launch) is the most expensive
+ * step of a test, so released sessions are kept alive and handed to the next test after
+ * resetting the application state with the cheapest {@link AppReset} tier that works.
+ * A pooled session is only recreated when it fails a health check or cannot be reset.
+ * Idle sessions are kept per device, so a worker only ever reuses a session
+ * bound to the device it leased from {@link DeviceRegistry}.
+ * The pool is configured with the following keys of {@link TestConfig}:
+ * <ul>
+ *     <li>{@code pool.enabled}: set to false to create and quit a session per test (default true).</li>
+ *     <li>{@code pool.maxIdle}: maximum number of idle sessions kept alive per device (default 1).</li>
+ *     <li>{@code pool.clearData}: clear the application data on every reset (default false), i.e. start
+ *     the {@link AppReset} tiers at {@link AppReset.Tier#CLEAR_DATA}.</li>
+ * </ul>
+ */
+public class SessionPool {
+
+    /** Idle sessions ready to be reused, keyed by device serial. */
+    private static final Map<String, Deque<AppiumDriver>> IDLE = new ConcurrentHashMap<>();
+
+    /** Factory used to open new sessions on a device. */
+    private static volatile Function<Device, AppiumDriver> factory = DriverManager::createDriver;
+
+    private static final AtomicInteger CREATED = new AtomicInteger();
+    private static final AtomicInteger REUSED = new AtomicInteger();
+    private static final AtomicInteger DISCARDED = new AtomicInteger();
+
+    static {
+        Runtime.getRuntime().addShutdownHook(new Thread(SessionPool::shutdown, "session-pool-shutdown"));
+    }
+
+    /**
+     * Immutable snapshot of the pool counters.
+     *
+     * @param created   sessions created by the pool.
+     * @param reused    acquisitions served by an already warm session.
+     * @param discarded sessions dropped because they were unhealthy or exceeded the idle limit.
+     * @param idle      sessions currently idle in the pool, across all devices.
+     */
+    public record Stats(int created, int reused, int discarded, int idle) {
+
+        @Override
+        public String toString() {
+            return String.format("Session pool: %d created, %d reused, %d discarded, %d idle",
+                    created, reused, discarded, idle);
+        }
+    }
+
+    /**
+     * Replaces the factory used to open new sessions, e.g. to point the pool at a stub server.
+     *
+     * @param sessionFactory function returning a new session on the given device on each call.
+     */
+    public static void setFactory(Function<Device, AppiumDriver> sessionFactory) {
+        factory = sessionFactory;
+    }
+
+    /**
+     * Returns a healthy session on the given device with a freshly launched application.
+     * <p>
+     * Idle sessions are reused after an {@link AppReset}; unhealthy ones and those that cannot be reset
+     * are quit and discarded.
+     * A new session is created only when no idle session is usable.
+     *
+     * @param device the device the session must run on.
+     * @return a ready to use {@link AppiumDriver}.
+     */
+    public static AppiumDriver acquire(Device device) {
+        if (!TestConfig.getBoolean("pool.enabled", true)) {
+            return create(device);
+        }
+        Deque<AppiumDriver> idle = idle(device);
+        AppiumDriver driver;
+        while ((driver = idle.pollFirst()) != null) {
+            if (isHealthy(driver)) {
+                try {
+                    if (AppReset.reset(driver).tier().compareTo(AppReset.Tier.CLEAR_DATA) >= 0) {
+                        CredentialsFactory.forgetCreated(device.serial());
+                    }
+                    REUSED.incrementAndGet();
+                    return driver;
+                } catch (WebDriverException e) {
+                    Reporter.log("Discarding pooled session " + driver.getSessionId() + ": " + e.getMessage(), true);
+                }
+            }
+            discard(driver);
+        }
+        return create(device);
+    }
+
+    /**
+     * Returns a session to the pool so the next test can reuse it.
+     * Sessions exceeding {@code pool.maxIdle}, or all sessions when pooling is disabled, are quit.
+     *
+     * @param device the device the session runs on.
+     * @param driver the session to release; ignored if null.
+     */
+    public static void release(Device device, AppiumDriver driver) {
+        if (driver == null) {
+            return;
+        }
+        Deque<AppiumDriver> idle = idle(device);
+        if (!TestConfig.getBoolean("pool.enabled", true) || idle.size() >= TestConfig.getInt("pool.maxIdle", 1)) {
+            quietQuit(driver);
+            return;
+        }
+        idle.offerFirst(driver);
+    }
+
+    /**
+     * Quits a session and removes it from the pool accounting, e.g. after a test broke it.
+     *
+     * @param driver the session to discard.
+     */
+    public static void discard(AppiumDriver driver) {
+        DISCARDED.incrementAndGet();
+        IDLE.values().forEach(idle -> idle.remove(driver));
+        quietQuit(driver);
+    }
+
+    /**
+     * Restarts the application under test, optionally wiping its data first.
+     *
+     * @param driver    the session whose application is reset.
+     * @param clearData true to clear the application data before relaunching it.
+     */
+    public static void resetAppState(AppiumDriver driver, boolean clearData) {
+        ScreenCache.invalidate(driver);
+        InteractsWithApps apps = (InteractsWithApps) driver;
+        apps.terminateApp(AndroidOptions.APP_PACKAGE);
+        if (clearData) {
+            clearAppData(driver);
+        }
+        apps.activateApp(AndroidOptions.APP_PACKAGE);
+    }
+
+    /**
+     * Clears the data of the application under test, equivalent to {@code pm clear}.
+     *
+     * @param driver the session whose application data is cleared.
+     */
+    public static void clearAppData(AppiumDriver driver) {
+        driver.executeScript("mobile: clearApp", Map.of("appId", AndroidOptions.APP_PACKAGE));
+    }
+
+    /**
+     * Checks that the session is still alive on the server with a single lightweight command.
+     *
+     * @param driver the session to check.
+     * @return true if the server answered for this session, false otherwise.
+     */
+    public static boolean isHealthy(AppiumDriver driver) {
+        if (driver.getSessionId() == null) {
+            return false;
+        }
+        try {
+            driver.manage().timeouts().getImplicitWaitTimeout();
+            return true;
+        } catch (WebDriverException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Returns the current pool counters.
+     *
+     * @return a {@link Stats} snapshot.
+     */
+    public static Stats stats() {
+        int idle = IDLE.values().stream().mapToInt(Deque::size).sum();
+        return new Stats(CREATED.get(), REUSED.get(), DISCARDED.get(), idle);
+    }
+
+    /**
+     * Quits every idle session. Called at the end of the suite and on JVM shutdown.
+     */
+    public static void shutdown() {
+        for (Deque<AppiumDriver> idle : IDLE.values()) {
+            AppiumDriver driver;
+            while ((driver = idle.pollFirst()) != null) {
+                quietQuit(driver);
+            }
+        }
+    }
+
+    private static Deque<AppiumDriver> idle(Device device) {
+        return IDLE.computeIfAbsent(device.serial(), serial -> new ConcurrentLinkedDeque<>());
+    }
+
+    private static AppiumDriver create(Device device) {
+        AppiumDriver driver = factory.apply(device);
+        CREATED.incrementAndGet();
+        return driver;
+    }
+
+    private static void quietQuit(AppiumDriver driver) {
+        ResourceSampler.stop(driver);
+        ScreenCache.evict(driver);
+        ArtifactPipeline.evict(driver);
+        try {
+            driver.quit();
+        } catch (WebDriverException e) {
+            Reporter.log("Unable to quit session " + driver.getSessionId() + ": " + e.getMessage(), true);
+        }
+    }
+}
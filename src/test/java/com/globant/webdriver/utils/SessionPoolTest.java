@@ -0,0 +1,130 @@
+package com.globant.webdriver.utils;
+
+import com.globant.webdriver.utils.DeviceRegistry.Device;
+import io.appium.java_client.AppiumDriver;
+import io.appium.java_client.android.AndroidDriver;
+import io.appium.java_client.android.options.UiAutomator2Options;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+/**
+ * Reuse and eviction of sessions by {@link SessionPool}, on the {@link StubAppiumServer}.
+ * <p>
+ * Resets start at the {@link AppReset.Tier#DEEP_LINK} tier, which the stub answers, and the stub's page source
+ * shows the home screen marker, so a pooled session is reused whenever it is still alive on the server.
+ */
+public class SessionPoolTest {
+
+    private static final String HOME = """
+            <hierarchy>
+              <android.widget.TextView class="android.widget.TextView" text="WEBDRIVER" bounds="[0,100][1080,200]"/>
+            </hierarchy>
+            """;
+
+    private StubAppiumServer stub;
+
+    /**
+     * Starts the stub and points the pool at it.
+     */
+    @BeforeClass
+    public void startStub() {
+        System.setProperty("reset.minTier", "DEEP_LINK");
+        System.setProperty("reset.verifyTimeout", "1");
+        stub = new StubAppiumServer().on("GET", "/source", body -> HOME);
+        SessionPool.setFactory(device -> new AndroidDriver(device.serverUrl(), new UiAutomator2Options().setDeviceName("stub")));
+    }
+
+    /**
+     * Quits the pooled sessions and restores the default factory and configuration.
+     */
+    @AfterClass(alwaysRun = true)
+    public void stopStub() {
+        SessionPool.shutdown();
+        SessionPool.setFactory(DriverManager::createDriver);
+        stub.close();
+        System.clearProperty("reset.minTier");
+        System.clearProperty("reset.verifyTimeout");
+    }
+
+    /**
+     * A released session is handed to the next acquisition on the same device instead of a new one.
+     */
+    @Test
+    public void reusesReleasedSessions() {
+        Device device = device("pool-reuse");
+        SessionPool.Stats before = SessionPool.stats();
+        int sessions = stub.getSessionsCreated();
+
+        AppiumDriver first = SessionPool.acquire(device);
+        SessionPool.release(device, first);
+        AppiumDriver second = SessionPool.acquire(device);
+        SessionPool.release(device, second);
+
+        Assert.assertSame(second, first);
+        Assert.assertEquals(stub.getSessionsCreated() - sessions, 1);
+        SessionPool.Stats after = SessionPool.stats();
+        Assert.assertEquals(after.created() - before.created(), 1);
+        Assert.assertEquals(after.reused() - before.reused(), 1);
+    }
+
+    /**
+     * Sessions are not shared between devices.
+     */
+    @Test
+    public void keepsSessionsPerDevice() {
+        Device device = device("pool-device-a");
+        AppiumDriver driver = SessionPool.acquire(device);
+        SessionPool.release(device, driver);
+
+        Device other = device("pool-device-b");
+        AppiumDriver otherDriver = SessionPool.acquire(other);
+        SessionPool.release(other, otherDriver);
+
+        Assert.assertNotSame(otherDriver, driver);
+    }
+
+    /**
+     * A pooled session that died on the server is discarded and replaced.
+     */
+    @Test
+    public void evictsDeadSessions() {
+        Device device = device("pool-dead");
+        AppiumDriver first = SessionPool.acquire(device);
+        SessionPool.release(device, first);
+        stub.killSession(first.getSessionId().toString());
+        SessionPool.Stats before = SessionPool.stats();
+
+        AppiumDriver second = SessionPool.acquire(device);
+        SessionPool.release(device, second);
+
+        Assert.assertNotSame(second, first);
+        Assert.assertTrue(SessionPool.isHealthy(second));
+        SessionPool.Stats after = SessionPool.stats();
+        Assert.assertEquals(after.discarded() - before.discarded(), 1);
+        Assert.assertEquals(after.created() - before.created(), 1);
+        Assert.assertEquals(after.reused() - before.reused(), 0);
+    }
+
+    /**
+     * Sessions released beyond {@code pool.maxIdle} (one by default) are quit.
+     */
+    @Test
+    public void quitsSessionsBeyondTheIdleLimit() {
+        Device device = device("pool-limit");
+        AppiumDriver first = SessionPool.acquire(device);
+        AppiumDriver second = SessionPool.acquire(device);
+        SessionPool.release(device, first);
+        SessionPool.release(device, second);
+
+        Assert.assertNotNull(first.getSessionId());
+        Assert.assertNull(second.getSessionId());
+        Assert.assertSame(SessionPool.acquire(device), first);
+        SessionPool.release(device, first);
+    }
+
+    private Device device(String serial) {
+        return new Device(serial, stub.getUrl(), 0, 0);
+    }
+}
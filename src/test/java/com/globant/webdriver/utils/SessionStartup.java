@@ -0,0 +1,339 @@
+package com.globant.webdriver.utils;
+
+import com.globant.webdriver.utils.DeviceRegistry.Device;
+import io.appium.java_client.AppiumClientConfig;
+import io.appium.java_client.AppiumDriver;
+import io.appium.java_client.InteractsWithApps;
+import io.appium.java_client.android.AndroidDriver;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.json.Json;
+import org.testng.Reporter;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Creates sessions without reinstalling the app and the UiAutomator2 server when nothing changed.
+ * <p>
+ * A full start hands the APK to Appium, which installs or verifies it and prepares the device and the
+ * UiAutomator2 server. After a full start succeeds, the SHA-256 of the APK and the version of the Appium
+ * server are stored for the device in the install-state file ({@code startup.stateFile}, default
+ * {@code install-state.properties}). The next session on that device checks both. If they are unchanged,
+ * it starts warm with {@link AndroidOptions#getWarmOptions}: no app, no server installation and no device
+ * initialization. If the warm start fails, the state of the device is forgotten and the session starts in
+ * full. If the app turns out to be missing, it is installed on the warm session. Upgrading the UiAutomator2 driver
+ * without upgrading Appium is not detected: delete the state file or run once with {@code startup.cache=false}.
+ * The cache is not used while commands are recorded or replayed, since the new-session request would
+ * differ from the recording. Each session start is logged with its time spent per phase.
+ */
+public class SessionStartup {
+
+    private static final Json JSON = new Json();
+
+    private static final HttpClient HTTP = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+
+    /** How a session was started. */
+    public enum Mode {
+        /** The cached install state matched: install and device initialization were skipped. */
+        WARM,
+        /** The app was installed or verified by Appium. */
+        FULL,
+        /** A warm start failed or found the app missing, and the app was installed. */
+        FALLBACK
+    }
+
+    /**
+     * Time spent in each phase of a session start.
+     *
+     * @param serial            the device serial.
+     * @param mode              how the session was started.
+     * @param fingerprintMillis hashing the APK, 0 when the hash was already known.
+     * @param statusMillis      reading the Appium server version.
+     * @param warmMillis        the warm attempt that failed, for a {@link Mode#FALLBACK}.
+     * @param sessionMillis     the new-session command that succeeded.
+     * @param verifyMillis      checking, and if needed installing, the app on a warm session.
+     */
+    public record Breakdown(String serial, Mode mode, long fingerprintMillis, long statusMillis, long warmMillis,
+                            long sessionMillis, long verifyMillis) {
+
+        /** @return the total time of the session start. */
+        public long totalMillis() {
+            return fingerprintMillis + statusMillis + warmMillis + sessionMillis + verifyMillis;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("Session on %s started %s in %d ms (fingerprint %d, server status %d, failed warm start %d, "
+                            + "new session %d, app check %d)", serial, mode, totalMillis(), fingerprintMillis,
+                    statusMillis, warmMillis, sessionMillis, verifyMillis);
+        }
+    }
+
+    /**
+     * Session starts by mode.
+     *
+     * @param counts sessions started in each mode.
+     * @param millis total start time in each mode.
+     */
+    public record Stats(Map<Mode, Long> counts, Map<Mode, Long> millis) {
+
+        @Override
+        public String toString() {
+            StringBuilder text = new StringBuilder("Session starts:");
+            counts.forEach((mode, count) -> text.append(String.format(" %s %d (mean %d ms)", mode, count,
+                    count == 0 ? 0 : millis.get(mode) / count)));
+            return text.toString();
+        }
+    }
+
+    /** An APK fingerprint, valid while the file keeps its size and modification time. */
+    private record Fingerprint(Path apk, long size, long modified, String sha256) { }
+
+    private static volatile Fingerprint fingerprint;
+
+    /** Install state by device serial: APK fingerprint and server version. Loaded on first use. */
+    private static volatile Map<String, String> state;
+
+    private static final Map<Mode, LongAdder> COUNTS = new EnumMap<>(Mode.class);
+    private static final Map<Mode, LongAdder> MILLIS = new EnumMap<>(Mode.class);
+
+    static {
+        for (Mode mode : Mode.values()) {
+            COUNTS.put(mode, new LongAdder());
+            MILLIS.put(mode, new LongAdder());
+        }
+    }
+
+    /**
+     * Tells whether the install state is cached.
+     *
+     * @return true unless {@code startup.cache=false}, or commands are recorded or replayed.
+     */
+    public static boolean isEnabled() {
+        return TestConfig.getBoolean("startup.cache", true) && !CommandRecorder.isRecording() && !CommandRecorder.isReplaying();
+    }
+
+    /**
+     * Creates a session on a device, warm when its install state is unchanged, and logs the breakdown.
+     *
+     * @param device the device to open the session on.
+     * @param config the HTTP client configuration of the session.
+     * @return the new session.
+     */
+    public static AppiumDriver start(Device device, AppiumClientConfig config) {
+        if (!isEnabled()) {
+            long start = System.nanoTime();
+            AppiumDriver driver = new AndroidDriver(config, AndroidOptions.getAndroidOptions(device));
+            report(new Breakdown(device.serial(), Mode.FULL, 0, 0, 0, millisSince(start), 0));
+            return driver;
+        }
+        long start = System.nanoTime();
+        String apk = apkFingerprint();
+        long fingerprintMillis = millisSince(start);
+        start = System.nanoTime();
+        String server = serverVersion(device.serverUrl());
+        long statusMillis = millisSince(start);
+
+        String current = apk == null || server == null ? null : apk + "@" + server;
+        long warmMillis = 0;
+        Mode mode = Mode.FULL;
+        if (current != null && current.equals(state().get(device.serial()))) {
+            long warmStart = System.nanoTime();
+            AppiumDriver driver = null;
+            try {
+                driver = new AndroidDriver(config, AndroidOptions.getWarmOptions(device));
+                long sessionMillis = millisSince(warmStart);
+                start = System.nanoTime();
+                InteractsWithApps apps = (InteractsWithApps) driver;
+                if (apps.isAppInstalled(AndroidOptions.APP_PACKAGE)) {
+                    report(new Breakdown(device.serial(), Mode.WARM, fingerprintMillis, statusMillis, 0,
+                            sessionMillis, millisSince(start)));
+                } else {
+                    apps.installApp(AndroidOptions.appPath());
+                    apps.activateApp(AndroidOptions.APP_PACKAGE);
+                    report(new Breakdown(device.serial(), Mode.FALLBACK, fingerprintMillis, statusMillis, 0,
+                            sessionMillis, millisSince(start)));
+                }
+                return driver;
+            } catch (WebDriverException e) {
+                Reporter.log("Warm session start failed on " + device.serial() + ", installing the app: "
+                        + String.valueOf(e.getMessage()).lines().findFirst().orElse(""), true);
+                if (driver != null) {
+                    quietQuit(driver);
+                }
+                forget(device.serial());
+                warmMillis = millisSince(warmStart);
+                mode = Mode.FALLBACK;
+            }
+        }
+        start = System.nanoTime();
+        AppiumDriver driver = new AndroidDriver(config, AndroidOptions.getAndroidOptions(device));
+        report(new Breakdown(device.serial(), mode, fingerprintMillis, statusMillis, warmMillis, millisSince(start), 0));
+        if (current != null) {
+            remember(device.serial(), current);
+        }
+        return driver;
+    }
+
+    /**
+     * Returns the session start counters.
+     *
+     * @return a {@link Stats} snapshot.
+     */
+    public static Stats stats() {
+        Map<Mode, Long> counts = new EnumMap<>(Mode.class);
+        Map<Mode, Long> millis = new EnumMap<>(Mode.class);
+        for (Mode mode : Mode.values()) {
+            counts.put(mode, COUNTS.get(mode).sum());
+            millis.put(mode, MILLIS.get(mode).sum());
+        }
+        return new Stats(counts, millis);
+    }
+
+    /**
+     * Returns the SHA-256 of the APK, hashing it again only when its size or modification time changed.
+     *
+     * @return the hex digest, or null if the APK cannot be read.
+     */
+    static String apkFingerprint() {
+        Path apk = Path.of(AndroidOptions.appPath());
+        try {
+            long size = Files.size(apk);
+            long modified = Files.getLastModifiedTime(apk).toMillis();
+            Fingerprint known = fingerprint;
+            if (known != null && known.apk().equals(apk) && known.size() == size && known.modified() == modified) {
+                return known.sha256();
+            }
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            try (InputStream in = Files.newInputStream(apk)) {
+                byte[] buffer = new byte[64 * 1024];
+                for (int read; (read = in.read(buffer)) > 0; ) {
+                    digest.update(buffer, 0, read);
+                }
+            }
+            String sha256 = HexFormat.of().formatHex(digest.digest());
+            fingerprint = new Fingerprint(apk, size, modified, sha256);
+            return sha256;
+        } catch (IOException e) {
+            return null;
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Reads the version of an Appium server from its {@code /status} endpoint.
+     *
+     * @return the server version, or null if it cannot be read.
+     */
+    static String serverVersion(URL serverUrl) {
+        try {
+            URI status = serverUrl.toURI().resolve("status");
+            HttpResponse<String> response = HTTP.send(HttpRequest.newBuilder(status).timeout(Duration.ofSeconds(5)).GET().build(),
+                    HttpResponse.BodyHandlers.ofString());
+            Map<String, Object> body = JSON.toType(response.body(), Json.MAP_TYPE);
+            return body.get("value") instanceof Map<?, ?> value && value.get("build") instanceof Map<?, ?> build
+                    && build.get("version") != null ? String.valueOf(build.get("version")) : null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        } catch (IOException | URISyntaxException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    private static Path file() {
+        return Path.of(TestConfig.get("startup.stateFile", "install-state.properties"));
+    }
+
+    private static Map<String, String> state() {
+        if (state == null) {
+            synchronized (SessionStartup.class) {
+                if (state == null) {
+                    Map<String, String> loaded = new ConcurrentHashMap<>();
+                    Path file = file();
+                    if (Files.exists(file)) {
+                        Properties properties = new Properties();
+                        try (Reader reader = Files.newBufferedReader(file)) {
+                            properties.load(reader);
+                        } catch (IOException e) {
+                            throw new UncheckedIOException("Cannot read install state from " + file, e);
+                        }
+                        properties.forEach((serial, installed) -> loaded.put((String) serial, (String) installed));
+                    }
+                    state = loaded;
+                }
+            }
+        }
+        return state;
+    }
+
+    private static void remember(String serial, String installed) {
+        if (!installed.equals(state().put(serial, installed))) {
+            save();
+        }
+    }
+
+    private static void forget(String serial) {
+        if (state().remove(serial) != null) {
+            save();
+        }
+    }
+
+    private static synchronized void save() {
+        Path file = file();
+        try {
+            if (file.toAbsolutePath().getParent() != null) {
+                Files.createDirectories(file.toAbsolutePath().getParent());
+            }
+            try (Writer writer = Files.newBufferedWriter(file)) {
+                writer.write("# Install state per device: sha256 of the APK @ Appium server version.\n");
+                for (Map.Entry<String, String> entry : new TreeMap<>(state()).entrySet()) {
+                    // serials of network devices contain ':', a key separator in properties files
+                    writer.write(entry.getKey().replace(":", "\\:") + "=" + entry.getValue() + "\n");
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot write install state to " + file, e);
+        }
+    }
+
+    private static void quietQuit(AppiumDriver driver) {
+        try {
+            driver.quit();
+        } catch (WebDriverException e) {
+            Reporter.log("Unable to quit session " + driver.getSessionId() + ": " + e.getMessage(), true);
+        }
+    }
+
+    private static void report(Breakdown breakdown) {
+        COUNTS.get(breakdown.mode()).increment();
+        MILLIS.get(breakdown.mode()).add(breakdown.totalMillis());
+        Reporter.log(breakdown.toString(), true);
+    }
+
+    private static long millisSince(long startNanos) {
+        return (System.nanoTime() - startNanos) / 1_000_000;
+    }
+}
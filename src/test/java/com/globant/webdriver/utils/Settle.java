@@ -0,0 +1,140 @@
+package com.globant.webdriver.utils;
+
+import io.appium.java_client.AppiumDriver;
+import org.openqa.selenium.OutputType;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Detects when the UI has stopped moving after a gesture or a navigation.
+ * <p>
+ * Instead of sleeping or waiting for one element, the screen is sampled until {@code settle.samples}
+ * consecutive samples (default 2) are identical, and the detector returns as soon as that happens. Samples
+ * are hashes of the UI hierarchy ({@code settle.mode=hierarchy}, the default: one {@code getPageSource}
+ * per sample, and the last one is returned as a ready {@link UiSnapshot}), or average hashes of a
+ * {@value #GRID}x{@value #GRID} grayscale reduction of a screenshot ({@code settle.mode=screenshot}, for
+ * animations that do not change the hierarchy, such as fades). When {@code settle.timeout} milliseconds
+ * (default 3000) pass first, the last sample is used and the timeout is counted. Settle times are kept
+ * per key in a {@link LatencyHistogram} and reported by {@link #stats()}.
+ */
+public class Settle {
+
+    /** Side of the grid a screenshot is reduced to before hashing. */
+    private static final int GRID = 16;
+
+    /** Gray levels kept per grid cell, so rendering noise such as a blinking cursor edge does not count as movement. */
+    private static final int LEVELS = 16;
+
+    private static final Map<String, LatencyHistogram> TIMES = new ConcurrentHashMap<>();
+
+    /**
+     * Per-key settle times.
+     *
+     * @param times the settle time histograms by key; their errors are timeouts.
+     */
+    public record Stats(Map<String, LatencyHistogram> times) {
+
+        @Override
+        public String toString() {
+            if (times.isEmpty()) {
+                return "Settle: none";
+            }
+            return times.entrySet().stream()
+                    .map(e -> String.format("%s %d x %.0f ms avg, p95 %.0f ms, %d timeouts", e.getKey(),
+                            e.getValue().count(), e.getValue().meanMillis(), e.getValue().percentileMillis(95),
+                            e.getValue().errors()))
+                    .collect(Collectors.joining(", ", "Settle: ", ""));
+        }
+    }
+
+    /**
+     * Waits until the screen is stable and returns its hierarchy.
+     *
+     * @param driver the session.
+     * @param key    the name settle times are reported under, e.g. {@code SwipeScreen.swipe}.
+     * @return a snapshot of the settled screen (of the last sample, on timeout).
+     */
+    public static UiSnapshot settled(AppiumDriver driver, String key) {
+        boolean screenshots = "screenshot".equals(TestConfig.get("settle.mode", "hierarchy"));
+        int samples = Math.max(2, TestConfig.getInt("settle.samples", 2));
+        long start = System.nanoTime();
+        long deadline = start + TestConfig.getInt("settle.timeout", 3000) * 1_000_000L;
+
+        String source = null;
+        Integer previous = null;
+        int equal = 0;
+        boolean timedOut = false;
+        while (true) {
+            int hash;
+            if (screenshots) {
+                hash = imageHash(driver.getScreenshotAs(OutputType.BYTES));
+            } else {
+                source = driver.getPageSource();
+                hash = source.hashCode();
+            }
+            equal = previous != null && previous == hash ? equal + 1 : 0;
+            previous = hash;
+            if (equal >= samples - 1) {
+                break;
+            }
+            if (System.nanoTime() > deadline) {
+                timedOut = true;
+                break;
+            }
+        }
+        TIMES.computeIfAbsent(key, k -> new LatencyHistogram()).record(System.nanoTime() - start, timedOut);
+        return source != null ? UiSnapshot.parsed(source) : UiSnapshot.capture(driver);
+    }
+
+    /**
+     * Returns the settle times recorded so far.
+     *
+     * @return a {@link Stats} snapshot, keys in alphabetical order.
+     */
+    public static Stats stats() {
+        return new Stats(new TreeMap<>(TIMES));
+    }
+
+    /**
+     * Hashes a screenshot reduced to a small grayscale grid, so only visible movement changes the hash.
+     *
+     * @param png the screenshot.
+     * @return the hash of the quantized grid.
+     */
+    static int imageHash(byte[] png) {
+        BufferedImage image;
+        try {
+            image = ImageIO.read(new ByteArrayInputStream(png));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unreadable screenshot", e);
+        }
+        long[] sums = new long[GRID * GRID];
+        int[] counts = new int[GRID * GRID];
+        int width = image.getWidth();
+        int height = image.getHeight();
+        // every 4th pixel in both directions is plenty for a 16x16 grid
+        for (int y = 0; y < height; y += 4) {
+            for (int x = 0; x < width; x += 4) {
+                int rgb = image.getRGB(x, y);
+                int gray = (((rgb >> 16) & 0xff) * 30 + ((rgb >> 8) & 0xff) * 59 + (rgb & 0xff) * 11) / 100;
+                int cell = (y * GRID / height) * GRID + x * GRID / width;
+                sums[cell] += gray;
+                counts[cell]++;
+            }
+        }
+        byte[] grid = new byte[GRID * GRID];
+        for (int i = 0; i < grid.length; i++) {
+            grid[i] = (byte) (counts[i] == 0 ? 0 : sums[i] / counts[i] * LEVELS / 256);
+        }
+        return Arrays.hashCode(grid);
+    }
+}
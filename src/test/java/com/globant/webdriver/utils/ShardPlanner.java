@@ -0,0 +1,224 @@
+package com.globant.webdriver.utils;
+
+import org.testng.annotations.Test;
+import org.testng.xml.Parser;
+import org.testng.xml.XmlClass;
+import org.testng.xml.XmlInclude;
+import org.testng.xml.XmlSuite;
+import org.testng.xml.XmlTest;
+
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+/**
+ * Splits the tests of a suite into shards of similar total duration, one per device or JVM.
+ * <p>
+ * Tests are assigned longest first, each to the shard with the least work so far (LPT bin packing), using
+ * the historical durations of {@link TestDurations}. Tests without history count as the mean known
+ * duration. The result is written as one TestNG suite per shard, derived from the original suite file
+ * (same listeners, parameters, groups and parallel settings, at suite and {@code <test>} level) with only the
+ * shard's methods included:
+ * <pre>
+ *     java -cp &lt;test classpath&gt; com.globant.webdriver.utils.ShardPlanner suite-full.xml 2
+ *     mvn -DsuiteXmlFile=target/shards/suite-full-shard-1.xml -Ddevices=emulator-5554 test
+ *     mvn -DsuiteXmlFile=target/shards/suite-full-shard-2.xml -Ddevices=emulator-5556 test
+ * </pre>
+ */
+public class ShardPlanner {
+
+    /** Duration assumed for every test when no history exists at all. */
+    private static final long DEFAULT_MILLIS = 60_000;
+
+    /**
+     * Tests assigned to one shard.
+     *
+     * @param index  the shard number, from 1.
+     * @param tests  the test keys, longest first.
+     * @param millis the expected duration of the shard.
+     */
+    public record Shard(int index, List<String> tests, long millis) { }
+
+    /**
+     * Assigns tests to shards, longest first, each to the currently lightest shard.
+     *
+     * @param tests     the test keys.
+     * @param durations the known durations by test key.
+     * @param shards    the number of shards.
+     * @return the shards, in index order.
+     */
+    public static List<Shard> plan(List<String> tests, Map<String, Long> durations, int shards) {
+        long fallback = (long) durations.values().stream().mapToLong(Long::longValue).average().orElse(DEFAULT_MILLIS);
+        List<String> ordered = new ArrayList<>(tests);
+        ordered.sort(Comparator.comparingLong((String test) -> durations.getOrDefault(test, fallback)).reversed());
+
+        List<List<String>> assigned = new ArrayList<>();
+        long[] loads = new long[shards];
+        PriorityQueue<Integer> lightest = new PriorityQueue<>(Comparator.comparingLong((Integer i) -> loads[i]).thenComparing(i -> i));
+        for (int i = 0; i < shards; i++) {
+            assigned.add(new ArrayList<>());
+            lightest.add(i);
+        }
+        for (String test : ordered) {
+            int shard = lightest.poll();
+            assigned.get(shard).add(test);
+            loads[shard] += durations.getOrDefault(test, fallback);
+            lightest.add(shard);
+        }
+        List<Shard> result = new ArrayList<>();
+        for (int i = 0; i < shards; i++) {
+            result.add(new Shard(i + 1, assigned.get(i), loads[i]));
+        }
+        return result;
+    }
+
+    /**
+     * Lists the {@code @Test} methods of every class of a suite.
+     *
+     * @param suite the parsed suite.
+     * @return the test keys, {@code fully.qualified.Class#method}.
+     */
+    public static List<String> testsOf(XmlSuite suite) {
+        List<String> tests = new ArrayList<>();
+        for (XmlTest test : suite.getTests()) {
+            tests.addAll(testsOf(test));
+        }
+        return tests;
+    }
+
+    /**
+     * Builds the suite of one shard from the original suite.
+     *
+     * @param original the original suite.
+     * @param shard    the shard.
+     * @return the shard suite.
+     */
+    public static XmlSuite toSuite(XmlSuite original, Shard shard) {
+        return toSuite(original, original.getName() + " shard " + shard.index(), shard.tests());
+    }
+
+    /**
+     * Builds a suite that runs some tests of the original suite. The suite keeps the listeners, parameters,
+     * groups, parallel settings, preserve-order and time-out of the original suite. Each {@code <test>} of the
+     * original suite that has tests to run is kept with its own parameters, groups, parallel settings,
+     * preserve-order and time-out, and includes only those of its methods.
+     *
+     * @param original the original suite.
+     * @param name     the name of the new suite.
+     * @param tests    the test keys to include.
+     * @return the new suite.
+     */
+    public static XmlSuite toSuite(XmlSuite original, String name, List<String> tests) {
+        XmlSuite suite = new XmlSuite();
+        suite.setName(name);
+        suite.setParallel(original.getParallel());
+        suite.setThreadCount(original.getThreadCount());
+        suite.setDataProviderThreadCount(original.getDataProviderThreadCount());
+        suite.setPreserveOrder(original.getPreserveOrder());
+        suite.setTimeOut(original.getTimeOut());
+        suite.setListeners(original.getListeners());
+        suite.setParameters(original.getParameters());
+        suite.setIncludedGroups(original.getIncludedGroups());
+        suite.setExcludedGroups(original.getExcludedGroups());
+
+        Set<String> selected = new HashSet<>(tests);
+        for (XmlTest originalTest : original.getTests()) {
+            Map<String, List<XmlInclude>> byClass = new LinkedHashMap<>();
+            for (String key : testsOf(originalTest)) {
+                if (selected.contains(key)) {
+                    String[] parts = key.split("#", 2);
+                    byClass.computeIfAbsent(parts[0], className -> new ArrayList<>()).add(new XmlInclude(parts[1]));
+                }
+            }
+            if (byClass.isEmpty()) {
+                continue;
+            }
+            XmlTest test = new XmlTest(suite);
+            test.setName(originalTest.getName());
+            test.setParameters(originalTest.getLocalParameters());
+            test.setIncludedGroups(originalTest.getIncludedGroups());
+            test.setExcludedGroups(originalTest.getExcludedGroups());
+            test.setParallel(originalTest.getParallel());
+            test.setThreadCount(originalTest.getThreadCount());
+            test.setPreserveOrder(originalTest.getPreserveOrder());
+            long timeOut = originalTest.getTimeOut(0);
+            if (timeOut > 0) {
+                test.setTimeOut(timeOut);
+            }
+            List<XmlClass> classes = new ArrayList<>();
+            byClass.forEach((className, includes) -> {
+                XmlClass xmlClass = new XmlClass(className);
+                xmlClass.setIncludedMethods(includes);
+                classes.add(xmlClass);
+            });
+            test.setXmlClasses(classes);
+        }
+        return suite;
+    }
+
+    /**
+     * Writes one suite file per shard to {@code target/shards} and prints the plan.
+     *
+     * @param args the suite file (default {@code suite-full.xml}) and the number of shards
+     *             (default: the number of entries of {@code devices}).
+     * @throws IOException if the suite cannot be read or the shards cannot be written.
+     */
+    public static void main(String[] args) throws IOException {
+        Path suiteFile = Path.of(args.length > 0 ? args[0] : "suite-full.xml");
+        int shards = args.length > 1 ? Integer.parseInt(args[1]) : deviceCount();
+        Path outputDir = Path.of("target", "shards");
+        Files.createDirectories(outputDir);
+
+        Map<String, Long> durations = TestDurations.load();
+        String baseName = suiteFile.getFileName().toString().replaceFirst("\\.xml$", "");
+        for (XmlSuite original : new Parser(suiteFile.toString()).parseToList()) {
+            List<String> tests = testsOf(original);
+            long total = 0;
+            for (Shard shard : plan(tests, durations, shards)) {
+                Path file = outputDir.resolve(baseName + "-shard-" + shard.index() + ".xml");
+                Files.writeString(file, toSuite(original, shard).toXml());
+                total += shard.millis();
+                System.out.printf("Shard %d: %d tests, ~%d s -> %s%n", shard.index(), shard.tests().size(),
+                        shard.millis() / 1000, file);
+            }
+            System.out.printf("%d tests, ~%d s of work, ideal wall time ~%d s on %d shards%n",
+                    tests.size(), total / 1000, total / 1000 / shards, shards);
+        }
+    }
+
+    /**
+     * Lists the {@code @Test} methods of every class of one {@code <test>} of a suite.
+     */
+    private static List<String> testsOf(XmlTest test) {
+        List<String> tests = new ArrayList<>();
+        for (XmlClass xmlClass : test.getClasses()) {
+            List<String> included = xmlClass.getIncludedMethods().stream().map(XmlInclude::getName).toList();
+            Arrays.stream(xmlClass.getSupportClass().getMethods())
+                    .filter(method -> method.isAnnotationPresent(Test.class))
+                    .map(Method::getName)
+                    .filter(name -> included.isEmpty() || included.contains(name))
+                    .sorted()
+                    .forEach(name -> tests.add(xmlClass.getName() + "#" + name));
+        }
+        return tests;
+    }
+
+    /**
+     * Counts the entries of the {@code devices} configuration key without touching the {@link DeviceRegistry},
+     * which would start managed or replay servers.
+     */
+    private static int deviceCount() {
+        return (int) Math.max(1, Arrays.stream(TestConfig.get("devices", "RF8R70KZATW").split(","))
+                .filter(entry -> !entry.isBlank()).count());
+    }
+}
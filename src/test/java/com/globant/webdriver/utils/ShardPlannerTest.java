@@ -0,0 +1,50 @@
+package com.globant.webdriver.utils;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Assignment of tests to shards by {@link ShardPlanner#plan(List, Map, int)}.
+ */
+public class ShardPlannerTest {
+
+    /**
+     * Tests are taken longest first, each by the shard with the least work so far.
+     */
+    @Test
+    public void balancesByDuration() {
+        List<ShardPlanner.Shard> shards = ShardPlanner.plan(List.of("a", "b", "c", "d"),
+                Map.of("a", 100L, "b", 60L, "c", 50L, "d", 30L), 2);
+        Assert.assertEquals(shards, List.of(
+                new ShardPlanner.Shard(1, List.of("a", "d"), 130),
+                new ShardPlanner.Shard(2, List.of("b", "c"), 110)));
+    }
+
+    /**
+     * Tests without history count as the mean of the known durations.
+     */
+    @Test
+    public void estimatesUnknownTestsWithTheMean() {
+        List<ShardPlanner.Shard> shards = ShardPlanner.plan(List.of("a", "b", "new"),
+                Map.of("a", 100L, "b", 50L), 2);
+        Assert.assertEquals(shards, List.of(
+                new ShardPlanner.Shard(1, List.of("a"), 100),
+                new ShardPlanner.Shard(2, List.of("new", "b"), 125)));
+    }
+
+    /**
+     * Without any history the tests are spread evenly, and shards beyond the number of tests stay empty.
+     */
+    @Test
+    public void spreadsTestsWithoutHistory() {
+        List<ShardPlanner.Shard> shards = ShardPlanner.plan(List.of("a", "b", "c"), Map.of(), 4);
+        Assert.assertEquals(shards.size(), 4);
+        Assert.assertEquals(shards.stream().mapToInt(shard -> shard.tests().size()).sum(), 3);
+        Assert.assertEquals(shards.stream().filter(shard -> shard.tests().size() == 1).count(), 3);
+        Assert.assertEquals(shards.get(3), new ShardPlanner.Shard(4, List.of(), 0));
+        Assert.assertEquals(shards.get(0).millis(), shards.get(1).millis());
+    }
+}
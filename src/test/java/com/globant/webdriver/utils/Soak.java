@@ -0,0 +1,236 @@
+package com.globant.webdriver.utils;
+
+import org.testng.Reporter;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Repeats a flow for a number of iterations or a duration, on one or more sessions, and reports it per window.
+ * <p>
+ * A soak run stops after {@code soak.iterations} iterations (default 200, 0 for no limit) or after
+ * {@code soak.minutes} minutes (default 0, no limit), whichever comes first. Every session taking part in the
+ * same run claims its iterations from a shared counter, so the limits apply to the run as a whole. Iteration
+ * latencies go into one {@link LatencyHistogram} per window of {@code soak.window} iterations (default 50);
+ * when a window is full, its throughput, failures and percentiles are logged and kept as a {@link Window}, and the
+ * histogram is replaced. Memory therefore grows with the number of windows, not of iterations. A failed
+ * iteration is counted in its window and the flow recovers before the next one; the run fails once more than
+ * {@code soak.maxFailures} iterations failed (default 10). Iterations are not {@link Flow} checkpoints: the
+ * flow of the calling test is ended, so the steps of thousands of iterations are not recorded.
+ */
+public class Soak {
+
+    /** Runs of the suite, by flow name. */
+    private static final Map<String, Run> RUNS = new ConcurrentHashMap<>();
+
+    /**
+     * Summary of one window of iterations.
+     *
+     * @param flow       the flow name.
+     * @param index      the window number, from 1.
+     * @param iterations the iterations completed in the window.
+     * @param failures   the iterations that failed.
+     * @param perMinute  the iterations completed per minute, across all sessions.
+     * @param p50        the median iteration latency, in milliseconds.
+     * @param p95        the 95th percentile.
+     * @param p99        the 99th percentile.
+     * @param max        the slowest iteration.
+     */
+    public record Window(String flow, int index, long iterations, long failures, double perMinute,
+                         double p50, double p95, double p99, double max) {
+
+        @Override
+        public String toString() {
+            return String.format("Soak %s window %d: %d iterations (%d failed), %.1f/min, p50 %.0f  p95 %.0f  p99 %.0f  max %.0f ms",
+                    flow, index, iterations, failures, perMinute, p50, p95, p99, max);
+        }
+    }
+
+    /**
+     * Change between the first and the last window of a run.
+     *
+     * @param flow           the flow name.
+     * @param windows        the windows of the run.
+     * @param p50Change      relative change of the median latency, e.g. 0.12 for 12% slower.
+     * @param p50Slope       least-squares slope of the median latency per window, relative to the first window.
+     * @param perMinuteChange relative change of the throughput.
+     */
+    public record Trend(String flow, int windows, double p50Change, double p50Slope, double perMinuteChange) {
+
+        @Override
+        public String toString() {
+            return String.format("Soak %s trend over %d windows: p50 %+.0f%% (%+.1f%% per window), throughput %+.0f%%",
+                    flow, windows, p50Change * 100, p50Slope * 100, perMinuteChange * 100);
+        }
+    }
+
+    /**
+     * A soak run of one flow, shared by the sessions that repeat it.
+     */
+    public static class Run {
+        private final String flow;
+        private final long maxIterations = TestConfig.getInt("soak.iterations", 200);
+        private final long deadline;
+        private final int windowSize = Math.max(1, TestConfig.getInt("soak.window", 50));
+        private final int maxFailures = TestConfig.getInt("soak.maxFailures", 10);
+        private final AtomicLong claimed = new AtomicLong();
+        private final List<Window> windows = new ArrayList<>();
+        private LatencyHistogram current = new LatencyHistogram();
+        private long windowStart = System.nanoTime();
+        private long failures;
+
+        Run(String flow) {
+            this.flow = flow;
+            long minutes = TestConfig.getInt("soak.minutes", 0);
+            deadline = minutes > 0 ? System.nanoTime() + TimeUnit.MINUTES.toNanos(minutes) : Long.MAX_VALUE;
+        }
+
+        /**
+         * Claims the next iteration of the run.
+         *
+         * @return true if the calling session should run one more iteration.
+         */
+        public boolean next() {
+            if (System.nanoTime() >= deadline) {
+                return false;
+            }
+            return maxIterations <= 0 || claimed.incrementAndGet() <= maxIterations;
+        }
+
+        /**
+         * Runs and times one iteration. When it fails, the failure is counted and logged, and the flow recovers.
+         *
+         * @param iteration the iteration.
+         * @param recovery  brings the session back to where an iteration starts, after a failure.
+         * @throws AssertionError once more than {@code soak.maxFailures} iterations failed.
+         */
+        public void iteration(Runnable iteration, Runnable recovery) {
+            Flow.end();
+            long start = System.nanoTime();
+            try {
+                iteration.run();
+                record(System.nanoTime() - start, false);
+            } catch (RuntimeException | AssertionError e) {
+                long failed = record(System.nanoTime() - start, true);
+                Reporter.log("Soak " + flow + " iteration failed: " + String.valueOf(e.getMessage()).lines().findFirst().orElse(""), true);
+                if (failed > maxFailures) {
+                    throw new AssertionError("Soak " + flow + " stopped after " + failed + " failed iterations", e);
+                }
+                recovery.run();
+            }
+        }
+
+        /**
+         * Returns the closed windows of the run.
+         *
+         * @return the windows, oldest first.
+         */
+        public synchronized List<Window> windows() {
+            return List.copyOf(windows);
+        }
+
+        /** @return the failures so far in the run. */
+        private synchronized long record(long nanos, boolean error) {
+            current.record(nanos, error);
+            if (error) {
+                failures++;
+            }
+            if (current.count() >= windowSize) {
+                close();
+            }
+            return failures;
+        }
+
+        /** Closes the current window, if it has any iteration. */
+        private synchronized void close() {
+            if (current.count() == 0) {
+                return;
+            }
+            long now = System.nanoTime();
+            double minutes = Math.max(1, now - windowStart) / (double) TimeUnit.MINUTES.toNanos(1);
+            Window window = new Window(flow, windows.size() + 1, current.count(), current.errors(),
+                    current.count() / minutes, current.percentileMillis(50), current.percentileMillis(95),
+                    current.percentileMillis(99), current.maxMillis());
+            windows.add(window);
+            Reporter.log(window.toString(), true);
+            current = new LatencyHistogram();
+            windowStart = now;
+        }
+    }
+
+    /**
+     * Returns the run of a flow, starting it on first use.
+     *
+     * @param flow the flow name, e.g. {@code login}.
+     * @return the run shared by every session repeating the flow.
+     */
+    public static Run run(String flow) {
+        return RUNS.computeIfAbsent(flow, Run::new);
+    }
+
+    /**
+     * Computes how the latency and throughput of a run changed from its first to its last window.
+     *
+     * @param flow    the flow name.
+     * @param windows the windows of the run, oldest first.
+     * @return the trend, with no change when there are fewer than two windows.
+     */
+    public static Trend trend(String flow, List<Window> windows) {
+        int n = windows.size();
+        if (n < 2 || windows.getFirst().p50() == 0 || windows.getFirst().perMinute() == 0) {
+            return new Trend(flow, n, 0, 0, 0);
+        }
+        double first = windows.getFirst().p50();
+        double meanIndex = (n - 1) / 2.0;
+        double meanP50 = windows.stream().mapToDouble(Window::p50).average().orElse(0);
+        double covariance = 0;
+        double variance = 0;
+        for (int i = 0; i < n; i++) {
+            covariance += (i - meanIndex) * (windows.get(i).p50() - meanP50);
+            variance += (i - meanIndex) * (i - meanIndex);
+        }
+        return new Trend(flow, n, windows.getLast().p50() / first - 1, covariance / variance / first,
+                windows.getLast().perMinute() / windows.getFirst().perMinute() - 1);
+    }
+
+    /**
+     * Closes the last window of every run, logs the trend of each run and writes all windows to
+     * {@code soak.csv} in a directory.
+     *
+     * @param directory the output directory.
+     * @return the trends, one per run.
+     */
+    public static List<Trend> report(Path directory) {
+        Map<String, List<Window>> runs = new TreeMap<>();
+        RUNS.forEach((flow, run) -> {
+            run.close();
+            runs.put(flow, run.windows());
+        });
+        StringBuilder csv = new StringBuilder("flow,window,iterations,failures,per_minute,p50_ms,p95_ms,p99_ms,max_ms\n");
+        List<Trend> trends = new ArrayList<>();
+        runs.forEach((flow, windows) -> {
+            windows.forEach(w -> csv.append(String.format(Locale.ROOT, "%s,%d,%d,%d,%.2f,%.1f,%.1f,%.1f,%.1f%n",
+                    flow, w.index(), w.iterations(), w.failures(), w.perMinute(), w.p50(), w.p95(), w.p99(), w.max())));
+            Trend trend = trend(flow, windows);
+            Reporter.log(trend.toString(), true);
+            trends.add(trend);
+        });
+        try {
+            Files.createDirectories(directory);
+            Files.writeString(directory.resolve("soak.csv"), csv);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot write soak report to " + directory, e);
+        }
+        return trends;
+    }
+}
@@ -0,0 +1,284 @@
+package com.globant.webdriver.utils;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.openqa.selenium.json.Json;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Minimal in-process W3C/Appium HTTP server used to exercise the framework without a device.
+ * <p>
+ * It answers session creation and deletion, {@code /status}, timeouts and element lookups
+ * with well-formed W3C payloads, {@code mobile: getPerformanceData} and {@code mobile: shell dumpsys gfxinfo}
+ * with the tables a device answers, and {@code null} values for every other command.
+ * Gzip-encoded request bodies are accepted, like the Appium server does.
+ * Additional commands can be stubbed with {@link #on(String, String, Function)}.
+ * It also counts the sessions and commands it served, so pooling and transport
+ * behaviour can be verified from plain numbers.
+ */
+public class StubAppiumServer implements AutoCloseable {
+
+    /** W3C key identifying a web element reference in a JSON payload. */
+    public static final String ELEMENT_KEY = "element-6066-11e4-a52e-4f735466cecf";
+
+    private static final Json JSON = new Json();
+
+    private final HttpServer server;
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+    private final Set<String> sessions = ConcurrentHashMap.newKeySet();
+    private final Map<String, Function<Map<String, Object>, Object>> routes = new ConcurrentHashMap<>();
+    private final AtomicInteger sessionsCreated = new AtomicInteger();
+    private final AtomicInteger commandsServed = new AtomicInteger();
+    private volatile long latencyMillis;
+
+    /**
+     * Creates and starts a stub server on the given port of the loopback interface.
+     *
+     * @param port the port to listen on, or 0 to pick a free one.
+     */
+    public StubAppiumServer(int port) {
+        try {
+            server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        server.createContext("/", this::handle);
+        server.setExecutor(executor);
+        server.start();
+    }
+
+    /**
+     * Creates and starts a stub server on a free port.
+     */
+    public StubAppiumServer() {
+        this(0);
+    }
+
+    /**
+     * Returns the base URL of the server, usable wherever an Appium URL is expected.
+     *
+     * @return the server URL.
+     */
+    public URL getUrl() {
+        try {
+            return new URL("http://127.0.0.1:" + server.getAddress().getPort() + "/");
+        } catch (MalformedURLException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Stubs a session command.
+     *
+     * @param method  the HTTP method, e.g. {@code POST}.
+     * @param command the command path after {@code /session/{id}}, e.g. {@code /appium/device/terminate_app}.
+     * @param handler function receiving the decoded request body and returning the {@code value} to answer.
+     * @return this server, for chaining.
+     */
+    public StubAppiumServer on(String method, String command, Function<Map<String, Object>, Object> handler) {
+        routes.put(method + " " + command, handler);
+        return this;
+    }
+
+    /**
+     * Adds an artificial delay to every response, to emulate device round trips.
+     *
+     * @param latencyMillis delay in milliseconds.
+     */
+    public void setLatencyMillis(long latencyMillis) {
+        this.latencyMillis = latencyMillis;
+    }
+
+    /**
+     * Ends a session on the server side, as a crashed UiAutomator2 server would.
+     *
+     * @param sessionId the session to kill.
+     */
+    public void killSession(String sessionId) {
+        sessions.remove(sessionId);
+    }
+
+    /** @return number of sessions created since the server started. */
+    public int getSessionsCreated() {
+        return sessionsCreated.get();
+    }
+
+    /** @return number of HTTP commands served since the server started. */
+    public int getCommandsServed() {
+        return commandsServed.get();
+    }
+
+    /**
+     * Dispatches an HTTP exchange to the matching W3C command handler.
+     *
+     * @param exchange the HTTP exchange.
+     * @throws IOException if the response cannot be written.
+     */
+    private void handle(HttpExchange exchange) throws IOException {
+        commandsServed.incrementAndGet();
+        if (latencyMillis > 0) {
+            try {
+                Thread.sleep(latencyMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        String method = exchange.getRequestMethod();
+        String path = exchange.getRequestURI().getPath().replaceAll("/+$", "");
+        InputStream in = exchange.getRequestBody();
+        if ("gzip".equalsIgnoreCase(exchange.getRequestHeaders().getFirst("Content-Encoding"))) {
+            in = new GZIPInputStream(in);
+        }
+        String body = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        Map<String, Object> payload = body.isBlank() ? Map.of() : JSON.toType(body, Json.MAP_TYPE);
+
+        if (path.equals("/status")) {
+            respond(exchange, 200, Map.of("ready", true, "message", "stub appium server", "build", Map.of("version", "stub")));
+            return;
+        }
+        if (method.equals("POST") && path.equals("/session")) {
+            respond(exchange, 200, newSession(payload));
+            return;
+        }
+        if (!path.startsWith("/session/")) {
+            respond(exchange, 404, error("unknown command", "Unknown path " + path));
+            return;
+        }
+
+        String rest = path.substring("/session/".length());
+        int slash = rest.indexOf('/');
+        String sessionId = slash < 0 ? rest : rest.substring(0, slash);
+        String command = slash < 0 ? "" : rest.substring(slash);
+        if (!sessions.contains(sessionId)) {
+            respond(exchange, 404, error("invalid session id", "Session " + sessionId + " does not exist"));
+            return;
+        }
+        if (method.equals("DELETE") && command.isEmpty()) {
+            sessions.remove(sessionId);
+            respond(exchange, 200, null);
+            return;
+        }
+
+        Function<Map<String, Object>, Object> handler = routes.get(method + " " + command);
+        if (handler != null) {
+            respond(exchange, 200, handler.apply(payload));
+        } else if (command.equals("/timeouts") && method.equals("GET")) {
+            respond(exchange, 200, Map.of("implicit", 0, "pageLoad", 300000, "script", 30000));
+        } else if (command.equals("/element")) {
+            respond(exchange, 200, Map.of(ELEMENT_KEY, UUID.randomUUID().toString()));
+        } else if (command.equals("/elements")) {
+            respond(exchange, 200, List.of(Map.of(ELEMENT_KEY, UUID.randomUUID().toString())));
+        } else if (command.endsWith("/displayed")) {
+            respond(exchange, 200, true);
+        } else if (command.endsWith("/rect")) {
+            respond(exchange, 200, Map.of("x", 0, "y", 0, "width", 1080, "height", 400));
+        } else if (command.equals("/execute/sync")) {
+            respond(exchange, 200, executeScript(payload));
+        } else {
+            respond(exchange, 200, null);
+        }
+    }
+
+    /**
+     * Registers a new session and builds its W3C new-session response.
+     *
+     * @param payload the new-session request body.
+     * @return the {@code value} of the response.
+     */
+    @SuppressWarnings("unchecked")
+    private Map<String, Object> newSession(Map<String, Object> payload) {
+        String sessionId = UUID.randomUUID().toString();
+        sessions.add(sessionId);
+        sessionsCreated.incrementAndGet();
+
+        Map<String, Object> capabilities = new LinkedHashMap<>();
+        Object requested = payload.get("capabilities");
+        if (requested instanceof Map<?, ?> caps && caps.get("alwaysMatch") instanceof Map<?, ?> alwaysMatch) {
+            capabilities.putAll((Map<String, Object>) alwaysMatch);
+        }
+        capabilities.putIfAbsent("platformName", "Android");
+        capabilities.putIfAbsent("appium:automationName", "UiAutomator2");
+        return Map.of("sessionId", sessionId, "capabilities", capabilities);
+    }
+
+    /**
+     * Answers the {@code mobile:} scripts that report app performance, with values that change between calls.
+     *
+     * @param payload the execute request body.
+     * @return the script result, {@code null} for other scripts.
+     */
+    private Object executeScript(Map<String, Object> payload) {
+        Object args = payload.get("args") instanceof List<?> list && !list.isEmpty() ? list.get(0) : Map.of();
+        Object dataType = args instanceof Map<?, ?> map ? map.get("dataType") : null;
+        int call = commandsServed.get();
+        return switch (String.valueOf(payload.get("script"))) {
+            case "mobile: getPerformanceData" -> switch (String.valueOf(dataType)) {
+                case "cpuinfo" -> List.of(List.of("user", "kernel"), List.of(String.valueOf(call % 40), String.valueOf(call % 7)));
+                case "memoryinfo" -> List.of(List.of("totalPss", "nativePss", "dalvikPss"),
+                        List.of(String.valueOf(90_000 + call), String.valueOf(30_000 + call / 2), String.valueOf(20_000)));
+                default -> null;
+            };
+            case "mobile: shell" -> "Total frames rendered: " + call + "\nJanky frames: " + call / 20 + " (5.00%)\n";
+            default -> null;
+        };
+    }
+
+    private static Map<String, Object> error(String error, String message) {
+        return Map.of("error", error, "message", message, "stacktrace", "");
+    }
+
+    private static void respond(HttpExchange exchange, int status, Object value) throws IOException {
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("value", value);
+        byte[] bytes = JSON.toJson(response).getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    /**
+     * Starts one stub server per port given as argument and keeps them running until the JVM exits.
+     * Useful to simulate several devices on one machine, e.g. with
+     * {@code devices=emulator-5554@http://127.0.0.1:4801/,emulator-5556@http://127.0.0.1:4802/}.
+     *
+     * @param args the ports to listen on; defaults to 4723.
+     */
+    public static void main(String[] args) {
+        String[] ports = args.length == 0 ? new String[]{"4723"} : args;
+        for (String port : ports) {
+            StubAppiumServer stub = new StubAppiumServer(Integer.parseInt(port));
+            System.out.println("Stub Appium server listening on " + stub.getUrl());
+        }
+    }
+
+    /**
+     * Stops the server immediately.
+     */
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,73 @@
+package com.globant.webdriver.utils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.Properties;
+
+/**
+ * Utility class for reading the framework configuration.
+ * <p>
+ * Values are loaded from the {@code config.properties} file on the test classpath
+ * ({@code src/test/resources}) and can be overridden with JVM system properties,
+ * e.g. {@code mvn test -Dappium.url=http://127.0.0.1:4725/}.
+ */
+public class TestConfig {
+
+    /** Name of the configuration file on the test classpath. */
+    private static final String CONFIG_FILE = "config.properties";
+
+    /** Properties loaded from the configuration file. */
+    private static final Properties PROPERTIES = load();
+
+    /**
+     * Loads the configuration file from the classpath, if present.
+     *
+     * @return the loaded properties, empty if the file does not exist.
+     */
+    private static Properties load() {
+        Properties properties = new Properties();
+        try (InputStream in = TestConfig.class.getClassLoader().getResourceAsStream(CONFIG_FILE)) {
+            if (in != null) {
+                properties.load(in);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to read " + CONFIG_FILE, e);
+        }
+        return properties;
+    }
+
+    /**
+     * Returns the value of a configuration key, giving priority to JVM system properties.
+     *
+     * @param key          the configuration key.
+     * @param defaultValue the value returned when the key is not configured.
+     * @return the configured value or the default value.
+     */
+    public static String get(String key, String defaultValue) {
+        String value = System.getProperty(key, PROPERTIES.getProperty(key));
+        return value == null || value.isBlank() ? defaultValue : value.trim();
+    }
+
+    /**
+     * Returns an integer configuration value.
+     *
+     * @param key          the configuration key.
+     * @param defaultValue the value returned when the key is not configured.
+     * @return the configured value or the default value.
+     */
+    public static int getInt(String key, int defaultValue) {
+        return Integer.parseInt(get(key, String.valueOf(defaultValue)));
+    }
+
+    /**
+     * Returns a boolean configuration value.
+     *
+     * @param key          the configuration key.
+     * @param defaultValue the value returned when the key is not configured.
+     * @return the configured value or the default value.
+     */
+    public static boolean getBoolean(String key, boolean defaultValue) {
+        return Boolean.parseBoolean(get(key, String.valueOf(defaultValue)));
+    }
+}
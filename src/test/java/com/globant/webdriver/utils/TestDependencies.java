@@ -0,0 +1,162 @@
+package com.globant.webdriver.utils;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Map of the screen classes and locator fields each test touches, recorded at runtime.
+ * <p>
+ * While a test runs, every screen it builds or navigates to is recorded as
+ * {@code com.globant.webdriver.screens.LoginScreen}, and every annotated field it uses, live or through a
+ * {@link UiSnapshot}, as {@code com.globant.webdriver.screens.LoginScreen#emailInput} (named after the class
+ * that declares the field). {@link #save()} merges the dependencies of the run into the map file
+ * ({@code selection.dependencyFile}, default {@code test-dependencies.properties}), keyed like
+ * {@link TestDurations} as {@code fully.qualified.Class#method}. The update is incremental. A test that
+ * passed replaces its entry with what it touched in this run. A test that failed adds what it touched to its
+ * entry, since it may have stopped early. Tests that did not run keep their entries. The {@link TestSelector}
+ * reads the map to pick the tests affected by a change.
+ */
+public class TestDependencies {
+
+    /** Dependencies touched by the test running on the current thread, null outside tests. */
+    private static final ThreadLocal<Set<String>> TOUCHED = new ThreadLocal<>();
+
+    /** Dependencies of the tests of the current run, and whether every invocation of each test passed. */
+    private static final Map<String, Set<String>> CURRENT = new ConcurrentHashMap<>();
+    private static final Map<String, Boolean> PASSED = new ConcurrentHashMap<>();
+
+    /** Class declaring each field, by {@code Class#field} as used. */
+    private static final Map<String, String> DECLARING = new ConcurrentHashMap<>();
+
+    /**
+     * Returns the path of the map file.
+     *
+     * @return the map file.
+     */
+    public static Path file() {
+        return Path.of(TestConfig.get("selection.dependencyFile", "test-dependencies.properties"));
+    }
+
+    /**
+     * Starts recording the dependencies of a test on the current thread.
+     */
+    public static void startTest() {
+        TOUCHED.set(new TreeSet<>());
+    }
+
+    /**
+     * Records a screen class used by the current test.
+     *
+     * @param screen the screen class.
+     */
+    public static void touch(Class<?> screen) {
+        Set<String> touched = TOUCHED.get();
+        if (touched != null) {
+            touched.add(screen.getName());
+        }
+    }
+
+    /**
+     * Records an annotated field used by the current test.
+     *
+     * @param screen the screen class the field was used through.
+     * @param field  the field name.
+     */
+    public static void touch(Class<?> screen, String field) {
+        Set<String> touched = TOUCHED.get();
+        if (touched != null) {
+            touched.add(DECLARING.computeIfAbsent(screen.getName() + "#" + field, key -> declaring(screen, field)) + "#" + field);
+        }
+    }
+
+    /**
+     * Stops recording on the current thread and keeps the dependencies of the test for {@link #save()}.
+     *
+     * @param test   the test key, {@code fully.qualified.Class#method}.
+     * @param passed whether the test passed.
+     */
+    public static void endTest(String test, boolean passed) {
+        Set<String> touched = TOUCHED.get();
+        TOUCHED.remove();
+        if (touched != null) {
+            CURRENT.computeIfAbsent(test, key -> ConcurrentHashMap.newKeySet()).addAll(touched);
+            PASSED.merge(test, passed, Boolean::logicalAnd);
+        }
+    }
+
+    /**
+     * Loads the map.
+     *
+     * @return the dependencies by test key, empty if nothing was stored yet.
+     */
+    public static Map<String, Set<String>> load() {
+        Map<String, Set<String>> dependencies = new TreeMap<>();
+        Path file = file();
+        if (!Files.exists(file)) {
+            return dependencies;
+        }
+        Properties properties = new Properties();
+        try (Reader reader = Files.newBufferedReader(file)) {
+            properties.load(reader);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read test dependencies from " + file, e);
+        }
+        properties.forEach((test, touched) -> dependencies.put((String) test, new TreeSet<>(
+                Arrays.stream(((String) touched).split(",")).filter(entry -> !entry.isBlank()).toList())));
+        return dependencies;
+    }
+
+    /**
+     * Merges the dependencies of the current run into the map file.
+     */
+    public static synchronized void save() {
+        if (CURRENT.isEmpty()) {
+            return;
+        }
+        Map<String, Set<String>> dependencies = load();
+        CURRENT.forEach((test, touched) -> {
+            Set<String> entry = PASSED.getOrDefault(test, false)
+                    ? new TreeSet<>() : dependencies.getOrDefault(test, new TreeSet<>());
+            entry.addAll(touched);
+            dependencies.put(test, entry);
+        });
+        CURRENT.clear();
+        PASSED.clear();
+        Path file = file();
+        try {
+            if (file.toAbsolutePath().getParent() != null) {
+                Files.createDirectories(file.toAbsolutePath().getParent());
+            }
+            try (Writer writer = Files.newBufferedWriter(file)) {
+                writer.write("# Screen classes and fields touched by each test, updated after each run.\n");
+                for (Map.Entry<String, Set<String>> entry : dependencies.entrySet()) {
+                    writer.write(entry.getKey() + "=" + String.join(",", entry.getValue()) + "\n");
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot write test dependencies to " + file, e);
+        }
+    }
+
+    private static String declaring(Class<?> screen, String field) {
+        for (Class<?> type = screen; type != null; type = type.getSuperclass()) {
+            try {
+                return type.getDeclaredField(field).getDeclaringClass().getName();
+            } catch (NoSuchFieldException e) {
+                // keep looking in the superclass
+            }
+        }
+        return screen.getName();
+    }
+}
@@ -0,0 +1,92 @@
+package com.globant.webdriver.utils;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Store of historical test durations, used by the {@link ShardPlanner} to balance shards.
+ * <p>
+ * Durations of the current run are collected with {@link #record(String, long)} and merged into the
+ * store file ({@code shard.durationsFile}, default {@code test-durations.properties}) by {@link #save()}:
+ * each test keeps the average of its stored duration and its latest one, so a single slow run does not
+ * reshape the shards. Tests are keyed as {@code fully.qualified.Class#method}.
+ */
+public class TestDurations {
+
+    /** Durations measured in the current run, in milliseconds. */
+    private static final Map<String, Long> CURRENT = new ConcurrentHashMap<>();
+
+    /**
+     * Returns the path of the store file.
+     *
+     * @return the store file.
+     */
+    public static Path file() {
+        return Path.of(TestConfig.get("shard.durationsFile", "test-durations.properties"));
+    }
+
+    /**
+     * Records the duration of a test in the current run.
+     *
+     * @param test   the test key.
+     * @param millis the test duration.
+     */
+    public static void record(String test, long millis) {
+        CURRENT.merge(test, millis, Long::sum);
+    }
+
+    /**
+     * Loads the stored durations.
+     *
+     * @return the durations in milliseconds by test key, empty if nothing was stored yet.
+     */
+    public static Map<String, Long> load() {
+        Map<String, Long> durations = new TreeMap<>();
+        Path file = file();
+        if (!Files.exists(file)) {
+            return durations;
+        }
+        Properties properties = new Properties();
+        try (Reader reader = Files.newBufferedReader(file)) {
+            properties.load(reader);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read test durations from " + file, e);
+        }
+        properties.forEach((test, millis) -> durations.put((String) test, Long.parseLong((String) millis)));
+        return durations;
+    }
+
+    /**
+     * Merges the durations of the current run into the store file.
+     */
+    public static synchronized void save() {
+        if (CURRENT.isEmpty()) {
+            return;
+        }
+        Map<String, Long> durations = load();
+        CURRENT.forEach((test, millis) -> durations.merge(test, millis, (stored, latest) -> (stored + latest) / 2));
+        CURRENT.clear();
+        Path file = file();
+        try {
+            if (file.toAbsolutePath().getParent() != null) {
+                Files.createDirectories(file.toAbsolutePath().getParent());
+            }
+            try (Writer writer = Files.newBufferedWriter(file)) {
+                writer.write("# Historical test durations in milliseconds, updated after each run.\n");
+                for (Map.Entry<String, Long> entry : durations.entrySet()) {
+                    writer.write(entry.getKey() + "=" + entry.getValue() + "\n");
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot write test durations to " + file, e);
+        }
+    }
+}
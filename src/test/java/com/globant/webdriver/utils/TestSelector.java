@@ -0,0 +1,342 @@
+package com.globant.webdriver.utils;
+
+import org.testng.xml.Parser;
+import org.testng.xml.XmlSuite;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Selects the tests of a suite that a change can affect, from the {@link TestDependencies} map.
+ * <p>
+ * The changed files are those that differ between a git revision and the working tree, plus the untracked
+ * ones. Each one is classified:
+ * <ul>
+ *     <li>a screen class: the changed lines of the diff are mapped to the annotated element fields they belong
+ *     to (the annotation lines and the declaration). A field change selects the tests that touched that field;
+ *     any other code change selects the tests that touched the class or one of its subclasses. Comment and blank
+ *     lines change nothing;</li>
+ *     <li>a test class: all its tests are selected;</li>
+ *     <li>a file matching {@code selection.ignore} (default: Markdown files, {@code LICENSE}, {@code .gitignore})
+ *     or a data file of the framework (durations, dependencies, transition baselines, install state): nothing;</li>
+ *     <li>anything else, e.g. a utility, the configuration or the build: the whole suite is selected.</li>
+ * </ul>
+ * Tests without recorded dependencies are always selected. The reduced suite keeps the listeners and settings
+ * of the original suite, so it records fresh dependencies for the tests it runs:
+ * <pre>
+ *     java -cp &lt;test classpath&gt; com.globant.webdriver.utils.TestSelector suite-full.xml origin/main
+ *     mvn -DsuiteXmlFile=target/selected/suite-full-selected.xml test
+ * </pre>
+ */
+public class TestSelector {
+
+    /** Source directories of the screens and of the tests, relative to the project directory. */
+    private static final String SOURCES = "src/test/java/";
+    private static final String SCREENS = SOURCES + "com/globant/webdriver/screens/";
+    private static final String TESTS = SOURCES + "com/globant/webdriver/tests/";
+
+    /** Declaration of an element field, e.g. {@code private WebElement emailInput;}. */
+    private static final Pattern ELEMENT_FIELD = Pattern.compile(
+            "^\\s*(?:(?:private|protected|public|final)\\s+)*(?:List<WebElement>|WebElement)\\s+(\\w+)\\s*;");
+
+    /** Classes already looked up, empty when a class no longer exists. */
+    private static final Map<String, Optional<Class<?>>> CLASSES = new ConcurrentHashMap<>();
+
+    /**
+     * Change to a screen class.
+     *
+     * @param screen the fully qualified screen class.
+     * @param field  the changed element field, or null when the change can affect the whole class.
+     */
+    public record Change(String screen, String field) {
+
+        /**
+         * Tells whether the change can affect a recorded dependency.
+         *
+         * @param dependency a screen class or a {@code Class#field} entry of the {@link TestDependencies}.
+         * @return true if the dependency is the changed field, or belongs to the changed class or a subclass.
+         */
+        public boolean affects(String dependency) {
+            if (field != null) {
+                return dependency.equals(screen + "#" + field);
+            }
+            String touched = dependency.split("#", 2)[0];
+            if (touched.equals(screen)) {
+                return true;
+            }
+            Optional<Class<?>> changed = load(screen);
+            Optional<Class<?>> used = load(touched);
+            return changed.isPresent() && used.isPresent() && changed.get().isAssignableFrom(used.get());
+        }
+
+        @Override
+        public String toString() {
+            String simpleName = screen.substring(screen.lastIndexOf('.') + 1);
+            return field == null ? simpleName : simpleName + "#" + field;
+        }
+    }
+
+    /**
+     * Changes that matter for test selection.
+     *
+     * @param screens     the changes to screen classes.
+     * @param testClasses the changed test classes, fully qualified.
+     * @param others      the changed files that can affect any test, relative to the project directory.
+     */
+    public record Changes(Set<Change> screens, Set<String> testClasses, List<String> others) { }
+
+    /**
+     * Collects the changes between a git revision and the working tree of the project directory.
+     *
+     * @param base the revision to compare with, e.g. {@code HEAD} or {@code origin/main}.
+     * @return the classified changes.
+     * @throws IOException if git fails.
+     */
+    public static Changes changes(String base) throws IOException {
+        Set<String> files = new TreeSet<>(git("diff", "--name-only", "--relative", "--no-renames", base, "--"));
+        Set<String> untracked = new TreeSet<>(git("ls-files", "--others", "--exclude-standard"));
+        files.addAll(untracked);
+
+        Set<Change> screens = new LinkedHashSet<>();
+        Set<String> testClasses = new TreeSet<>();
+        List<String> others = new ArrayList<>();
+        for (String file : files) {
+            if (isIgnored(Path.of(file))) {
+                continue;
+            }
+            if (file.startsWith(SCREENS) && file.endsWith(".java")) {
+                screens.addAll(untracked.contains(file)
+                        ? Set.of(new Change(className(file), null))
+                        : screenChanges(className(file), git("diff", "--unified=1000000", "--relative", "--no-renames", base, "--", file)));
+            } else if (file.startsWith(TESTS) && file.endsWith(".java")) {
+                testClasses.add(className(file));
+            } else {
+                others.add(file);
+            }
+        }
+        return new Changes(screens, testClasses, others);
+    }
+
+    /**
+     * Selects the tests a change can affect.
+     *
+     * @param tests        the test keys of the suite, {@code fully.qualified.Class#method}.
+     * @param dependencies the recorded dependencies by test key.
+     * @param changes      the changes.
+     * @return the selected test keys, in suite order, with the reason each one was selected.
+     */
+    public static Map<String, String> select(List<String> tests, Map<String, Set<String>> dependencies, Changes changes) {
+        Map<String, String> selected = new LinkedHashMap<>();
+        for (String test : tests) {
+            reason(test, dependencies.get(test), changes).ifPresent(reason -> selected.put(test, reason));
+        }
+        return selected;
+    }
+
+    /**
+     * Writes the reduced suite of every suite in a suite file to {@code target/selected} and prints why each
+     * test was selected. When no test is affected, no suite is written.
+     *
+     * @param args the suite file (default {@code suite-full.xml}) and the git revision to compare the working
+     *             tree with (default {@code HEAD}).
+     * @throws IOException if the suite cannot be read, git fails or the reduced suite cannot be written.
+     */
+    public static void main(String[] args) throws IOException {
+        Path suiteFile = Path.of(args.length > 0 ? args[0] : "suite-full.xml");
+        String base = args.length > 1 ? args[1] : "HEAD";
+        Path outputDir = Path.of("target", "selected");
+        Files.createDirectories(outputDir);
+
+        Changes changes = changes(base);
+        Map<String, Set<String>> dependencies = TestDependencies.load();
+        String baseName = suiteFile.getFileName().toString().replaceFirst("\\.xml$", "");
+        Path file = outputDir.resolve(baseName + "-selected.xml");
+        for (XmlSuite original : new Parser(suiteFile.toString()).parseToList()) {
+            List<String> tests = ShardPlanner.testsOf(original);
+            Map<String, String> selected = select(tests, dependencies, changes);
+            selected.forEach((test, reason) -> System.out.printf("  %s: %s%n", test, reason));
+            if (selected.isEmpty()) {
+                Files.deleteIfExists(file);
+                System.out.printf("No test of %s is affected by the changes since %s%n", suiteFile, base);
+                continue;
+            }
+            Files.writeString(file, ShardPlanner.toSuite(original, original.getName() + " selected",
+                    List.copyOf(selected.keySet())).toXml());
+            System.out.printf("%d of %d tests selected by the changes since %s -> %s%n",
+                    selected.size(), tests.size(), base, file);
+        }
+    }
+
+    private static Optional<String> reason(String test, Set<String> touched, Changes changes) {
+        if (!changes.others().isEmpty()) {
+            return Optional.of(changes.others().getFirst() + " changed");
+        }
+        if (changes.testClasses().contains(test.split("#", 2)[0])) {
+            return Optional.of("test class changed");
+        }
+        if (touched == null) {
+            return Optional.of("no recorded dependencies");
+        }
+        for (Change change : changes.screens()) {
+            for (String dependency : touched) {
+                if (change.affects(dependency)) {
+                    String via = dependency.substring(dependency.lastIndexOf('.') + 1);
+                    return Optional.of(change + " changed" + (via.equals(change.toString()) ? "" : ", touches " + via));
+                }
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Maps the changed lines of a full-context diff of a screen file to the fields they belong to,
+     * on both the old and the new side.
+     */
+    static Set<Change> screenChanges(String screen, List<String> diff) {
+        List<String> oldLines = new ArrayList<>();
+        List<String> newLines = new ArrayList<>();
+        BitSet oldChanged = new BitSet();
+        BitSet newChanged = new BitSet();
+        boolean body = false;
+        for (String line : diff) {
+            if (line.startsWith("@@")) {
+                body = true;
+                continue;
+            }
+            if (!body) {
+                continue;
+            }
+            char kind = line.isEmpty() ? ' ' : line.charAt(0);
+            String text = line.isEmpty() ? "" : line.substring(1);
+            switch (kind) {
+                case ' ' -> {
+                    oldLines.add(text);
+                    newLines.add(text);
+                }
+                case '-' -> {
+                    oldChanged.set(oldLines.size());
+                    oldLines.add(text);
+                }
+                case '+' -> {
+                    newChanged.set(newLines.size());
+                    newLines.add(text);
+                }
+                default -> {
+                    // "\ No newline at end of file"
+                }
+            }
+        }
+        Set<Change> changes = new LinkedHashSet<>(affected(screen, oldLines, oldChanged));
+        changes.addAll(affected(screen, newLines, newChanged));
+        return changes;
+    }
+
+    private static Set<Change> affected(String screen, List<String> lines, BitSet changed) {
+        String[] fields = fieldBlocks(lines);
+        Set<Change> changes = new LinkedHashSet<>();
+        for (int i = changed.nextSetBit(0); i >= 0; i = changed.nextSetBit(i + 1)) {
+            String line = lines.get(i).strip();
+            if (line.isEmpty() || line.startsWith("//") || line.startsWith("/*") || line.startsWith("*")) {
+                continue;
+            }
+            changes.add(new Change(screen, fields[i]));
+        }
+        return changes;
+    }
+
+    /**
+     * Names the element field each line belongs to: its declaration and the annotation lines right above it.
+     *
+     * @return the field name by line index, null for lines outside field blocks.
+     */
+    private static String[] fieldBlocks(List<String> lines) {
+        String[] fields = new String[lines.size()];
+        for (int i = 0; i < lines.size(); i++) {
+            Matcher declaration = ELEMENT_FIELD.matcher(lines.get(i));
+            if (!declaration.find()) {
+                continue;
+            }
+            fields[i] = declaration.group(1);
+            for (int j = i - 1; j >= 0 && isAnnotationLine(lines.get(j)); j--) {
+                fields[j] = declaration.group(1);
+            }
+        }
+        return fields;
+    }
+
+    /** Tells whether a line can be part of the annotations of a field, including multi-line ones. */
+    private static boolean isAnnotationLine(String line) {
+        String stripped = line.strip();
+        return !stripped.isEmpty() && !stripped.startsWith("/") && !stripped.startsWith("*")
+                && !stripped.endsWith(";") && !stripped.endsWith("{") && !stripped.endsWith("}");
+    }
+
+    private static boolean isIgnored(Path file) {
+        Path normalized = file.normalize();
+        boolean dataFile = Stream.of(TestDurations.file(), TestDependencies.file(),
+                        Path.of(TestConfig.get("transitions.baseline", "transition-baselines.json")),
+                        Path.of(TestConfig.get("startup.stateFile", "install-state.properties")))
+                .anyMatch(data -> data.normalize().equals(normalized));
+        return dataFile || Arrays.stream(TestConfig.get("selection.ignore", "**.md,LICENSE,.gitignore").split(","))
+                .filter(pattern -> !pattern.isBlank())
+                .map(pattern -> FileSystems.getDefault().getPathMatcher("glob:" + pattern.strip()))
+                .anyMatch(matcher -> matcher.matches(normalized));
+    }
+
+    private static String className(String file) {
+        return file.substring(SOURCES.length(), file.length() - ".java".length()).replace('/', '.');
+    }
+
+    private static Optional<Class<?>> load(String className) {
+        return CLASSES.computeIfAbsent(className, name -> {
+            try {
+                return Optional.of(Class.forName(name, false, TestSelector.class.getClassLoader()));
+            } catch (ClassNotFoundException | LinkageError e) {
+                return Optional.empty();
+            }
+        });
+    }
+
+    /**
+     * Runs git in the project directory.
+     *
+     * @return the lines git printed.
+     * @throws IOException if git cannot be started or fails.
+     */
+    private static List<String> git(String... args) throws IOException {
+        List<String> command = new ArrayList<>(List.of("git"));
+        command.addAll(List.of(args));
+        Process process = new ProcessBuilder(command).redirectError(ProcessBuilder.Redirect.INHERIT).start();
+        List<String> lines;
+        try (BufferedReader reader = process.inputReader()) {
+            lines = reader.lines().toList();
+        }
+        try {
+            int exit = process.waitFor();
+            if (exit != 0) {
+                throw new IOException(String.join(" ", command) + " failed with exit code " + exit);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException(String.join(" ", command) + " was interrupted", e);
+        }
+        return lines;
+    }
+}
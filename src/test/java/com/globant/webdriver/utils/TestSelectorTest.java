@@ -0,0 +1,107 @@
+package com.globant.webdriver.utils;
+
+import com.globant.webdriver.utils.TestSelector.Change;
+import com.globant.webdriver.utils.TestSelector.Changes;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Selection of the tests affected by a change, and mapping of screen diffs to fields, by {@link TestSelector}.
+ */
+public class TestSelectorTest {
+
+    private static final String BASE_SCREEN = "com.globant.webdriver.screens.BaseScreen";
+    private static final String LOGIN_SCREEN = "com.globant.webdriver.screens.LoginScreen";
+    private static final String SWIPE_SCREEN = "com.globant.webdriver.screens.SwipeScreen";
+
+    private static final List<String> TESTS = List.of("Tests#login", "Tests#swipe", "Other#newTest");
+
+    private static final Map<String, Set<String>> DEPENDENCIES = Map.of(
+            "Tests#login", Set.of(LOGIN_SCREEN, LOGIN_SCREEN + "#emailInput"),
+            "Tests#swipe", Set.of(SWIPE_SCREEN, SWIPE_SCREEN + "#cards"));
+
+    /**
+     * A field change selects the tests that touched that field, and tests without recorded dependencies.
+     */
+    @Test
+    public void selectsByField() {
+        Map<String, String> selected = TestSelector.select(TESTS, DEPENDENCIES,
+                changes(Set.of(new Change(LOGIN_SCREEN, "emailInput")), Set.of(), List.of()));
+        Assert.assertEquals(selected, Map.of(
+                "Tests#login", "LoginScreen#emailInput changed",
+                "Other#newTest", "no recorded dependencies"));
+
+        selected = TestSelector.select(TESTS, DEPENDENCIES,
+                changes(Set.of(new Change(LOGIN_SCREEN, "passwordInput")), Set.of(), List.of()));
+        Assert.assertEquals(selected.keySet(), Set.of("Other#newTest"));
+    }
+
+    /**
+     * A change to a screen class selects the tests that touched it or one of its subclasses.
+     */
+    @Test
+    public void selectsBySubclass() {
+        Map<String, String> selected = TestSelector.select(TESTS, DEPENDENCIES,
+                changes(Set.of(new Change(BASE_SCREEN, null)), Set.of(), List.of()));
+        Assert.assertTrue(selected.get("Tests#login").startsWith("BaseScreen changed, touches LoginScreen"));
+        Assert.assertTrue(selected.get("Tests#swipe").startsWith("BaseScreen changed, touches SwipeScreen"));
+
+        selected = TestSelector.select(TESTS, DEPENDENCIES,
+                changes(Set.of(new Change(SWIPE_SCREEN, null)), Set.of(), List.of()));
+        Assert.assertEquals(selected.keySet(), Set.of("Tests#swipe", "Other#newTest"));
+    }
+
+    /**
+     * A changed test class selects its tests, and any other change selects the whole suite.
+     */
+    @Test
+    public void selectsByTestClassAndOtherFiles() {
+        Map<String, String> selected = TestSelector.select(TESTS, DEPENDENCIES,
+                changes(Set.of(), Set.of("Tests"), List.of()));
+        Assert.assertEquals(selected, Map.of(
+                "Tests#login", "test class changed",
+                "Tests#swipe", "test class changed",
+                "Other#newTest", "no recorded dependencies"));
+
+        selected = TestSelector.select(TESTS, DEPENDENCIES, changes(Set.of(), Set.of(), List.of("pom.xml")));
+        Assert.assertEquals(List.copyOf(selected.keySet()), TESTS);
+        Assert.assertEquals(selected.get("Tests#swipe"), "pom.xml changed");
+    }
+
+    /**
+     * Changed annotation and declaration lines map to their field, other code lines to the whole class, and
+     * comments and blank lines to nothing.
+     */
+    @Test
+    public void mapsDiffLinesToFields() {
+        List<String> diff = List.of(
+                "diff --git a/LoginScreen.java b/LoginScreen.java",
+                "--- a/LoginScreen.java",
+                "+++ b/LoginScreen.java",
+                "@@ -1,12 +1,13 @@",
+                " public class LoginScreen extends BaseScreen {",
+                "-    @AndroidFindBy(accessibility = \"input-email\")",
+                "+    @AndroidFindBy(accessibility = \"input-mail\")",
+                "     private WebElement emailInput;",
+                "+    // the password field",
+                "+",
+                "     @AndroidFindBy(accessibility = \"input-password\")",
+                "     private WebElement passwordInput;",
+                "",
+                "     public void login() {",
+                "-        emailInput.click();",
+                "+        passwordInput.click();",
+                "     }",
+                " }");
+        Assert.assertEquals(TestSelector.screenChanges(LOGIN_SCREEN, diff),
+                Set.of(new Change(LOGIN_SCREEN, "emailInput"), new Change(LOGIN_SCREEN, null)));
+    }
+
+    private static Changes changes(Set<Change> screens, Set<String> testClasses, List<String> others) {
+        return new Changes(screens, testClasses, others);
+    }
+}
@@ -0,0 +1,309 @@
+package com.globant.webdriver.utils;
+
+import io.appium.java_client.AppiumBy;
+import io.appium.java_client.AppiumDriver;
+import org.openqa.selenium.By;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.json.Json;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Latency of screen transitions and user actions, compared against stored baselines.
+ * <p>
+ * With {@code transitions.enabled=true}, screens time every navigation from the tap on the menu item until
+ * the title of the target screen is visible, and the actions that end in a visible change (sign-up and
+ * login alerts, card swipes), under names such as {@code navigate.LoginScreen} or {@code LoginScreen.signUpAlert}.
+ * Every sample is kept, so reports show exact percentiles. At the end of the suite the samples are compared
+ * with the baseline file ({@code transitions.baseline}, default {@code transition-baselines.json}) by a
+ * one-sided Mann-Whitney U test. A transition regresses when it has at least {@code transitions.minSamples}
+ * samples on both sides (default 10), is slower with a p-value under {@code transitions.alpha} (default 0.01),
+ * and its median grew by at least {@code transitions.minSlowdown} (default 0.10, i.e. 10%). The significance
+ * test keeps noisy runs from failing the gate, and the minimum slowdown keeps tiny but consistent changes
+ * from failing it. Baselines are (re)written from the current samples when the file does not exist or
+ * {@code transitions.updateBaseline=true}.
+ * <p>
+ * The end of a transition is detected by {@link #awaitVisible}, which polls a find of the marker element every
+ * {@code transitions.pollMs} (default 50), so the resolution of a sample is the poll interval plus one find,
+ * and the app is not loaded by back-to-back page source dumps while it is being timed.
+ */
+public class Transitions {
+
+    private static final Json JSON = new Json();
+
+    /** Samples in milliseconds, by transition name. */
+    private static final Map<String, List<Double>> SAMPLES = new ConcurrentHashMap<>();
+
+    /**
+     * Percentiles of one transition.
+     *
+     * @param name  the transition name.
+     * @param count the number of samples.
+     * @param p50   the median, in milliseconds.
+     * @param p90   the 90th percentile.
+     * @param p95   the 95th percentile.
+     * @param p99   the 99th percentile.
+     * @param max   the slowest sample.
+     */
+    public record Summary(String name, int count, double p50, double p90, double p95, double p99, double max) {
+
+        @Override
+        public String toString() {
+            return String.format("%-32s n=%-4d p50 %7.0f  p90 %7.0f  p95 %7.0f  p99 %7.0f  max %7.0f ms",
+                    name, count, p50, p90, p95, p99, max);
+        }
+    }
+
+    /**
+     * A statistically significant slowdown.
+     *
+     * @param name         the transition name.
+     * @param baselineP50  the baseline median, in milliseconds.
+     * @param currentP50   the current median.
+     * @param baselineP95  the baseline 95th percentile.
+     * @param currentP95   the current 95th percentile.
+     * @param pValue       the one-sided Mann-Whitney p-value.
+     */
+    public record Regression(String name, double baselineP50, double currentP50, double baselineP95,
+                             double currentP95, double pValue) {
+
+        @Override
+        public String toString() {
+            return String.format("%s: p50 %.0f -> %.0f ms (%+.0f%%), p95 %.0f -> %.0f ms, p=%.4f", name,
+                    baselineP50, currentP50, (currentP50 / baselineP50 - 1) * 100, baselineP95, currentP95, pValue);
+        }
+    }
+
+    /**
+     * Tells whether transitions are timed.
+     *
+     * @return true if {@code transitions.enabled=true}.
+     */
+    public static boolean isEnabled() {
+        return TestConfig.getBoolean("transitions.enabled", false);
+    }
+
+    /**
+     * Records one sample.
+     *
+     * @param name  the transition name.
+     * @param nanos the transition duration.
+     */
+    public static void record(String name, long nanos) {
+        SAMPLES.computeIfAbsent(name, key -> Collections.synchronizedList(new ArrayList<>())).add(nanos / 1_000_000.0);
+    }
+
+    /**
+     * Waits until an element is visible, polling one find of its UiSelector (and a visibility check once it is
+     * found) every {@code transitions.pollMs}, for at most {@code snapshot.timeout} seconds.
+     *
+     * @param driver the session.
+     * @param marker the locator of the element that ends the transition.
+     * @return true if the element became visible in time.
+     */
+    public static boolean awaitVisible(AppiumDriver driver, UiLocator marker) {
+        By selector = AppiumBy.androidUIAutomator(marker.toUiSelector());
+        long interval = TimeUnit.MILLISECONDS.toNanos(TestConfig.getInt("transitions.pollMs", 50));
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(TestConfig.getInt("snapshot.timeout", 10));
+        while (true) {
+            long polled = System.nanoTime();
+            try {
+                List<WebElement> found = driver.findElements(selector);
+                if (!found.isEmpty() && found.get(0).isDisplayed()) {
+                    return true;
+                }
+            } catch (WebDriverException e) {
+                // the element went away between the find and the check, poll again
+            }
+            long next = polled + interval;
+            if (next >= deadline) {
+                return false;
+            }
+            LockSupport.parkNanos(next - System.nanoTime());
+        }
+    }
+
+    /**
+     * Returns the samples of the current run.
+     *
+     * @return the samples in milliseconds by transition name, names in alphabetical order.
+     */
+    public static Map<String, List<Double>> samples() {
+        Map<String, List<Double>> samples = new TreeMap<>();
+        SAMPLES.forEach((name, values) -> {
+            synchronized (values) {
+                samples.put(name, List.copyOf(values));
+            }
+        });
+        return samples;
+    }
+
+    /**
+     * Summarizes samples with exact percentiles.
+     *
+     * @param name    the transition name.
+     * @param samples the samples in milliseconds.
+     * @return the summary.
+     */
+    public static Summary summarize(String name, List<Double> samples) {
+        List<Double> sorted = new ArrayList<>(samples);
+        Collections.sort(sorted);
+        return new Summary(name, sorted.size(), percentile(sorted, 50), percentile(sorted, 90),
+                percentile(sorted, 95), percentile(sorted, 99), sorted.isEmpty() ? 0 : sorted.getLast());
+    }
+
+    /**
+     * Loads the baseline samples.
+     *
+     * @param file the baseline file.
+     * @return the samples by transition name, empty if the file does not exist.
+     */
+    public static Map<String, List<Double>> loadBaseline(Path file) {
+        if (!Files.exists(file)) {
+            return Map.of();
+        }
+        try {
+            Map<String, Object> entries = JSON.toType(Files.readString(file), Json.MAP_TYPE);
+            Map<String, List<Double>> baseline = new TreeMap<>();
+            entries.forEach((name, values) -> baseline.put(name,
+                    ((List<?>) values).stream().map(value -> ((Number) value).doubleValue()).toList()));
+            return baseline;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read transition baselines from " + file, e);
+        }
+    }
+
+    /**
+     * Writes samples as the new baseline.
+     *
+     * @param file    the baseline file.
+     * @param samples the samples by transition name.
+     */
+    public static void saveBaseline(Path file, Map<String, List<Double>> samples) {
+        try {
+            Files.writeString(file, JSON.toJson(samples));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot write transition baselines to " + file, e);
+        }
+    }
+
+    /**
+     * Compares the current samples with the baseline.
+     *
+     * @param baseline the baseline samples by transition name.
+     * @param current  the current samples by transition name.
+     * @return the transitions that regressed significantly.
+     */
+    public static List<Regression> compare(Map<String, List<Double>> baseline, Map<String, List<Double>> current) {
+        int minSamples = TestConfig.getInt("transitions.minSamples", 10);
+        double alpha = Double.parseDouble(TestConfig.get("transitions.alpha", "0.01"));
+        double minSlowdown = Double.parseDouble(TestConfig.get("transitions.minSlowdown", "0.10"));
+        List<Regression> regressions = new ArrayList<>();
+        current.forEach((name, samples) -> {
+            List<Double> reference = baseline.get(name);
+            if (reference == null || reference.size() < minSamples || samples.size() < minSamples) {
+                return;
+            }
+            Summary before = summarize(name, reference);
+            Summary after = summarize(name, samples);
+            double pValue = slowerPValue(reference, samples);
+            if (pValue < alpha && after.p50() >= before.p50() * (1 + minSlowdown)) {
+                regressions.add(new Regression(name, before.p50(), after.p50(), before.p95(), after.p95(), pValue));
+            }
+        });
+        return regressions;
+    }
+
+    /**
+     * Writes the summaries of the current run to {@code transitions.json} in a directory.
+     *
+     * @param directory the output directory.
+     * @return the summaries, one per transition.
+     */
+    public static List<Summary> export(Path directory) {
+        List<Summary> summaries = samples().entrySet().stream().map(e -> summarize(e.getKey(), e.getValue())).toList();
+        Map<String, Object> report = new LinkedHashMap<>();
+        for (Summary summary : summaries) {
+            report.put(summary.name(), Map.of("count", summary.count(), "p50", summary.p50(), "p90", summary.p90(),
+                    "p95", summary.p95(), "p99", summary.p99(), "max", summary.max()));
+        }
+        try {
+            Files.createDirectories(directory);
+            Files.writeString(directory.resolve("transitions.json"), JSON.toJson(report));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot write transition report to " + directory, e);
+        }
+        return summaries;
+    }
+
+    /**
+     * One-sided Mann-Whitney U test that the current samples are slower than the baseline,
+     * with the normal approximation and tie-corrected ranks.
+     *
+     * @return the p-value.
+     */
+    static double slowerPValue(List<Double> baseline, List<Double> current) {
+        int n1 = baseline.size();
+        int n2 = current.size();
+        List<double[]> all = new ArrayList<>(n1 + n2);
+        baseline.forEach(value -> all.add(new double[] {value, 0}));
+        current.forEach(value -> all.add(new double[] {value, 1}));
+        all.sort((a, b) -> Double.compare(a[0], b[0]));
+
+        double currentRanks = 0;
+        double tieCorrection = 0;
+        for (int i = 0; i < all.size(); ) {
+            int j = i;
+            while (j < all.size() && all.get(j)[0] == all.get(i)[0]) {
+                j++;
+            }
+            double rank = (i + 1 + j) / 2.0;
+            for (int k = i; k < j; k++) {
+                if (all.get(k)[1] == 1) {
+                    currentRanks += rank;
+                }
+            }
+            int ties = j - i;
+            tieCorrection += (double) ties * ties * ties - ties;
+            i = j;
+        }
+        double u = currentRanks - n2 * (n2 + 1) / 2.0;
+        double n = n1 + n2;
+        double variance = n1 * n2 / 12.0 * ((n + 1) - tieCorrection / (n * (n - 1)));
+        if (variance <= 0) {
+            return 1;
+        }
+        double z = (u - n1 * n2 / 2.0 - 0.5) / Math.sqrt(variance);
+        return 1 - normalCdf(z);
+    }
+
+    private static double percentile(List<Double> sorted, double percentile) {
+        if (sorted.isEmpty()) {
+            return 0;
+        }
+        int rank = (int) Math.ceil(percentile / 100 * sorted.size());
+        return sorted.get(Math.max(0, rank - 1));
+    }
+
+    /** Standard normal CDF, from the Abramowitz and Stegun 7.1.26 approximation of erf. */
+    private static double normalCdf(double z) {
+        double x = Math.abs(z) / Math.sqrt(2);
+        double t = 1 / (1 + 0.3275911 * x);
+        double erf = 1 - t * (0.254829592 + t * (-0.284496736 + t * (1.421413741 + t * (-1.453152027 + t * 1.061405429))))
+                * Math.exp(-x * x);
+        return z >= 0 ? (1 + erf) / 2 : (1 - erf) / 2;
+    }
+}
@@ -0,0 +1,49 @@
+package com.globant.webdriver.utils;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * The one-sided Mann-Whitney U test of {@link Transitions}.
+ */
+public class TransitionsTest {
+
+    /**
+     * Samples that are all slower than the baseline are significant, faster ones are not.
+     */
+    @Test
+    public void detectsSlowerSamples() {
+        List<Double> baseline = range(1, 20);
+        List<Double> slower = range(31, 50);
+        Assert.assertTrue(Transitions.slowerPValue(baseline, slower) < 0.001);
+        Assert.assertTrue(Transitions.slowerPValue(slower, baseline) > 0.999);
+    }
+
+    /**
+     * Interleaved samples from the same range are not significant either way.
+     */
+    @Test
+    public void acceptsSimilarSamples() {
+        List<Double> odd = IntStream.range(0, 20).mapToObj(i -> 2.0 * i + 1).toList();
+        List<Double> even = IntStream.range(0, 20).mapToObj(i -> 2.0 * i + 2).toList();
+        double pValue = Transitions.slowerPValue(odd, even);
+        Assert.assertTrue(pValue > 0.2 && pValue < 0.8, "p = " + pValue);
+    }
+
+    /**
+     * Identical samples have no rank variance and are never significant.
+     */
+    @Test
+    public void ignoresTies() {
+        List<Double> constant = Collections.nCopies(15, 42.0);
+        Assert.assertEquals(Transitions.slowerPValue(constant, constant), 1.0);
+    }
+
+    private static List<Double> range(int from, int to) {
+        return IntStream.rangeClosed(from, to).mapToObj(i -> (double) i).toList();
+    }
+}
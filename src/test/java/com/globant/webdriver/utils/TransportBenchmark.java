@@ -0,0 +1,75 @@
+package com.globant.webdriver.utils;
+
+import io.appium.java_client.AppiumDriver;
+import io.appium.java_client.android.AndroidDriver;
+import io.appium.java_client.android.options.UiAutomator2Options;
+import org.openqa.selenium.By;
+
+import java.util.Arrays;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Measures the client-side overhead of one command with the default transport and with the gzip request filter
+ * of {@link HttpTransport}.
+ * <p>
+ * Sessions are opened against an in-process {@link StubAppiumServer} that answers immediately, so the
+ * measured time is the cost of serializing, sending and parsing a command. Each transport runs a warm-up
+ * and then the same mix of commands (get timeouts, find element, element rect); mean and percentiles
+ * are printed in microseconds. The timeouts of {@link HttpTransport} do not change the cost of a command, so
+ * only the request compression is compared. Run it with:
+ * <pre>
+ *     java -cp &lt;test classpath&gt; com.globant.webdriver.utils.TransportBenchmark [commands]
+ * </pre>
+ */
+public class TransportBenchmark {
+
+    private static final int WARM_UP = 200;
+
+    /**
+     * Runs the benchmark.
+     *
+     * @param args optionally, the number of measured commands per transport (default 2000).
+     */
+    public static void main(String[] args) {
+        int commands = args.length > 0 ? Integer.parseInt(args[0]) : 2000;
+        try (StubAppiumServer stub = new StubAppiumServer()) {
+            UiAutomator2Options options = new UiAutomator2Options().setDeviceName("stub");
+            run("default", commands, () -> new AndroidDriver(stub.getUrl(), options));
+            run("gzip", commands, () -> new AndroidDriver(HttpTransport.clientConfig(stub.getUrl())
+                    .withFilter(HttpTransport.gzipRequests(0)), options));
+        }
+    }
+
+    private static void run(String name, int commands, Supplier<AppiumDriver> factory) {
+        AppiumDriver driver = factory.get();
+        try {
+            Function<Integer, Runnable> command = i -> switch (i % 3) {
+                case 0 -> () -> driver.manage().timeouts().getImplicitWaitTimeout();
+                case 1 -> () -> driver.findElement(By.id("benchmark"));
+                default -> () -> driver.findElement(By.id("benchmark")).getRect();
+            };
+            for (int i = 0; i < WARM_UP; i++) {
+                command.apply(i).run();
+            }
+            long[] micros = new long[commands];
+            for (int i = 0; i < commands; i++) {
+                Runnable next = command.apply(i);
+                long start = System.nanoTime();
+                next.run();
+                micros[i] = (System.nanoTime() - start) / 1_000;
+            }
+            Arrays.sort(micros);
+            double mean = Arrays.stream(micros).average().orElse(0);
+            System.out.printf("%-11s %6d commands  mean %7.1f us  p50 %6d us  p90 %6d us  p99 %6d us%n",
+                    name, commands, mean, percentile(micros, 50), percentile(micros, 90), percentile(micros, 99));
+        } finally {
+            driver.quit();
+        }
+    }
+
+    private static long percentile(long[] sorted, int percentile) {
+        int index = (int) Math.ceil(percentile / 100.0 * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(sorted.length - 1, index))];
+    }
+}
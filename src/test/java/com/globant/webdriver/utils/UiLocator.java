@@ -0,0 +1,167 @@
+package com.globant.webdriver.utils;
+
+import io.appium.java_client.pagefactory.AndroidFindBy;
+
+import java.lang.reflect.Field;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Locator that can be resolved locally against a {@link UiSnapshot} instead of on the device.
+ * <p>
+ * It is built from the {@link AndroidFindBy} annotation of a screen field and understands the
+ * strategies used by the screens: {@code accessibility} (content-desc), {@code id} (resource-id),
+ * {@code className}, and {@code uiAutomator} selectors made of {@code text}, {@code textContains},
+ * {@code description}, {@code resourceId}, {@code className} and {@code instance} calls.
+ *
+ * @param text        exact text to match, or null.
+ * @param textContains text fragment to match, or null.
+ * @param contentDesc content-desc to match, or null.
+ * @param resourceId  resource-id to match, or null.
+ * @param className   class name to match, or null.
+ * @param instance    zero-based index among the matching nodes, in document order.
+ * @param strategy    the {@link AndroidFindBy} strategy the locator was built from.
+ */
+public record UiLocator(String text, String textContains, String contentDesc, String resourceId,
+                        String className, int instance, String strategy) {
+
+    /** One {@code method("argument")} or {@code method(number)} call of a UiSelector chain. */
+    private static final Pattern SELECTOR_CALL = Pattern.compile("(\\w+)\\((?:\"((?:[^\"\\\\]|\\\\.)*)\"|(\\d+))\\)");
+
+    /** Locators already built, keyed by declaring class and field name. */
+    private static final Map<String, Optional<UiLocator>> CACHE = new ConcurrentHashMap<>();
+
+    /**
+     * Returns the locator of an annotated field of a screen class or of one of its superclasses.
+     * The field is recorded as a dependency of the running test in the {@link TestDependencies}.
+     *
+     * @param screenClass the screen class.
+     * @param fieldName   the name of the {@link AndroidFindBy} annotated field.
+     * @return the locator, or empty if the field uses a strategy that cannot be resolved locally.
+     * @throws IllegalArgumentException if the field does not exist or is not annotated.
+     */
+    public static Optional<UiLocator> ofField(Class<?> screenClass, String fieldName) {
+        TestDependencies.touch(screenClass, fieldName);
+        return CACHE.computeIfAbsent(screenClass.getName() + "#" + fieldName,
+                key -> of(findAnnotation(screenClass, fieldName)));
+    }
+
+    /**
+     * Builds a locator from an {@link AndroidFindBy} annotation.
+     *
+     * @param findBy the annotation.
+     * @return the locator, or empty if the strategy cannot be resolved locally.
+     */
+    public static Optional<UiLocator> of(AndroidFindBy findBy) {
+        if (!findBy.accessibility().isEmpty()) {
+            return Optional.of(new UiLocator(null, null, findBy.accessibility(), null, null, 0, "accessibility"));
+        }
+        if (!findBy.id().isEmpty()) {
+            return Optional.of(new UiLocator(null, null, null, findBy.id(), null, 0, "id"));
+        }
+        if (!findBy.className().isEmpty()) {
+            return Optional.of(new UiLocator(null, null, null, null, findBy.className(), 0, "className"));
+        }
+        if (!findBy.uiAutomator().isEmpty()) {
+            return parseUiSelector(findBy.uiAutomator());
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Parses a UiSelector expression such as {@code new UiSelector().className("x").instance(2)}.
+     *
+     * @param selector the UiAutomator selector.
+     * @return the locator, or empty if the selector uses unsupported calls.
+     */
+    public static Optional<UiLocator> parseUiSelector(String selector) {
+        String chain = selector.trim().replaceFirst("^new\\s+UiSelector\\(\\)\\.?", "");
+        String text = null;
+        String textContains = null;
+        String description = null;
+        String resourceId = null;
+        String className = null;
+        int instance = 0;
+        int position = 0;
+        Matcher matcher = SELECTOR_CALL.matcher(chain);
+        while (matcher.find()) {
+            String between = chain.substring(position, matcher.start());
+            if (!between.isEmpty() && !between.equals(".")) {
+                return Optional.empty();
+            }
+            String argument = matcher.group(2) != null ? matcher.group(2).replaceAll("\\\\(.)", "$1") : matcher.group(3);
+            switch (matcher.group(1)) {
+                case "text" -> text = argument;
+                case "textContains" -> textContains = argument;
+                case "description" -> description = argument;
+                case "resourceId" -> resourceId = argument;
+                case "className" -> className = argument;
+                case "instance" -> instance = Integer.parseInt(argument);
+                default -> {
+                    return Optional.empty();
+                }
+            }
+            position = matcher.end();
+        }
+        if (position == 0 || position != chain.length()) {
+            return Optional.empty();
+        }
+        return Optional.of(new UiLocator(text, textContains, description, resourceId, className, instance, "uiAutomator"));
+    }
+
+    /**
+     * Checks whether a snapshot node satisfies every criterion of this locator except the instance index.
+     *
+     * @param node the node to test.
+     * @return true if the node matches.
+     */
+    public boolean matches(UiSnapshot.Node node) {
+        return (text == null || text.equals(node.text()))
+                && (textContains == null || node.text().contains(textContains))
+                && (contentDesc == null || contentDesc.equals(node.contentDesc()))
+                && (resourceId == null || resourceId.equals(node.resourceId()))
+                && (className == null || className.equals(node.className()));
+    }
+
+    /**
+     * Writes this locator as a UiSelector expression, e.g. to nest it in a server-side {@code UiScrollable}.
+     *
+     * @return the selector, such as {@code new UiSelector().text("Home").instance(0)}.
+     */
+    public String toUiSelector() {
+        StringBuilder selector = new StringBuilder("new UiSelector()");
+        appendCall(selector, "text", text);
+        appendCall(selector, "textContains", textContains);
+        appendCall(selector, "description", contentDesc);
+        appendCall(selector, "resourceId", resourceId);
+        appendCall(selector, "className", className);
+        return selector.append(".instance(").append(instance).append(')').toString();
+    }
+
+    private static void appendCall(StringBuilder selector, String method, String argument) {
+        if (argument != null) {
+            selector.append('.').append(method).append("(\"")
+                    .append(argument.replace("\\", "\\\\").replace("\"", "\\\""))
+                    .append("\")");
+        }
+    }
+
+    private static AndroidFindBy findAnnotation(Class<?> screenClass, String fieldName) {
+        for (Class<?> type = screenClass; type != null; type = type.getSuperclass()) {
+            try {
+                Field field = type.getDeclaredField(fieldName);
+                AndroidFindBy findBy = field.getAnnotation(AndroidFindBy.class);
+                if (findBy == null) {
+                    throw new IllegalArgumentException(fieldName + " is not annotated with @AndroidFindBy");
+                }
+                return findBy;
+            } catch (NoSuchFieldException e) {
+                // keep looking in the superclass
+            }
+        }
+        throw new IllegalArgumentException("No field " + fieldName + " in " + screenClass.getName());
+    }
+}
@@ -0,0 +1,62 @@
+package com.globant.webdriver.utils;
+
+import com.globant.webdriver.screens.LoginScreen;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.Optional;
+
+/**
+ * Parsing of UiSelector expressions and annotations by {@link UiLocator}, and the way back with
+ * {@link UiLocator#toUiSelector()}.
+ */
+public class UiLocatorTest {
+
+    /**
+     * Every supported call of a selector chain is read, with or without the {@code new UiSelector()} prefix.
+     */
+    @Test
+    public void parsesSelectorChains() {
+        Assert.assertEquals(UiLocator.parseUiSelector("new UiSelector().text(\"Login\").instance(2)"),
+                Optional.of(new UiLocator("Login", null, null, null, null, 2, "uiAutomator")));
+        Assert.assertEquals(UiLocator.parseUiSelector("textContains(\"Sign\").className(\"android.widget.TextView\")"),
+                Optional.of(new UiLocator(null, "Sign", null, null, "android.widget.TextView", 0, "uiAutomator")));
+        Assert.assertEquals(UiLocator.parseUiSelector("resourceId(\"app:id/title\").description(\"say \\\"hi\\\"\")"),
+                Optional.of(new UiLocator(null, null, "say \"hi\"", "app:id/title", null, 0, "uiAutomator")));
+    }
+
+    /**
+     * Selectors with calls that cannot be resolved against a snapshot are rejected.
+     */
+    @Test
+    public void rejectsUnsupportedSelectors() {
+        Assert.assertTrue(UiLocator.parseUiSelector("resourceIdMatches(\".*title\")").isEmpty());
+        Assert.assertTrue(UiLocator.parseUiSelector("text(\"Login\").checked(true)").isEmpty());
+        Assert.assertTrue(UiLocator.parseUiSelector("new UiScrollable(new UiSelector().scrollable(true))").isEmpty());
+        Assert.assertTrue(UiLocator.parseUiSelector("").isEmpty());
+    }
+
+    /**
+     * Annotated screen fields are read from their {@code @AndroidFindBy} strategy.
+     */
+    @Test
+    public void readsScreenFields() {
+        Assert.assertEquals(UiLocator.ofField(LoginScreen.class, "emailInput"),
+                Optional.of(new UiLocator(null, null, "input-email", null, null, 0, "accessibility")));
+        Assert.assertEquals(UiLocator.ofField(LoginScreen.class, "loginTab"),
+                Optional.of(new UiLocator("Login", null, null, null, null, 0, "uiAutomator")));
+        Assert.expectThrows(IllegalArgumentException.class, () -> UiLocator.ofField(LoginScreen.class, "noSuchField"));
+    }
+
+    /**
+     * A locator written as a selector, quotes and backslashes included, parses back to itself.
+     */
+    @Test
+    public void writesSelectors() {
+        UiLocator accessibility = new UiLocator(null, null, "input-email", null, null, 0, "accessibility");
+        Assert.assertEquals(accessibility.toUiSelector(), "new UiSelector().description(\"input-email\").instance(0)");
+
+        UiLocator locator = new UiLocator("a \"quoted\" \\ text", "x", null, "app:id/y", "android.widget.Button", 3, "uiAutomator");
+        Assert.assertEquals(UiLocator.parseUiSelector(locator.toUiSelector()), Optional.of(locator));
+    }
+}
@@ -0,0 +1,275 @@
+package com.globant.webdriver.utils;
+
+import io.appium.java_client.AppiumDriver;
+import org.openqa.selenium.Rectangle;
+import org.w3c.dom.Element;
+import org.w3c.dom.NamedNodeMap;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+
+import javax.xml.parsers.DocumentBuilder;
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.parsers.ParserConfigurationException;
+import java.io.IOException;
+import java.io.StringReader;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Immutable, locally indexed copy of the UI hierarchy of the screen.
+ * <p>
+ * A snapshot costs a single {@code getPageSource} command. Once taken, any number of
+ * {@link UiLocator} lookups and visibility checks are resolved in memory through indexes by
+ * text, resource-id, content-desc and class, instead of a find plus an {@code isDisplayed}
+ * round trip per element. {@link #stats()} reports how many server commands were avoided.
+ */
+public class UiSnapshot {
+
+    /** Bounds attribute format used by UiAutomator2, e.g. {@code [0,63][1080,210]}. */
+    private static final Pattern BOUNDS = Pattern.compile("\\[(-?\\d+),(-?\\d+)]\\[(-?\\d+),(-?\\d+)]");
+
+    /** Commands a live lookup would have needed for one resolved check: find element plus isDisplayed. */
+    private static final int COMMANDS_PER_LIVE_CHECK = 2;
+
+    private static final AtomicLong CAPTURES = new AtomicLong();
+    private static final AtomicLong LOOKUPS = new AtomicLong();
+
+    /**
+     * One element of the UI hierarchy.
+     *
+     * @param className   the element class, e.g. {@code android.widget.TextView}.
+     * @param text        the element text, empty if none.
+     * @param resourceId  the element resource-id, empty if none.
+     * @param contentDesc the element content-desc (accessibility id), empty if none.
+     * @param displayed   the {@code displayed} attribute reported by UiAutomator2.
+     * @param scrollable  the {@code scrollable} attribute reported by UiAutomator2.
+     * @param bounds      the element bounds on screen.
+     */
+    public record Node(String className, String text, String resourceId, String contentDesc,
+                       boolean displayed, boolean scrollable, Rectangle bounds) {
+
+        /**
+         * Tells whether the element is displayed and occupies some screen area.
+         *
+         * @return true if the element is visible.
+         */
+        public boolean isVisible() {
+            return displayed && bounds.getWidth() > 0 && bounds.getHeight() > 0;
+        }
+    }
+
+    /**
+     * Counters of the snapshot engine across all sessions.
+     *
+     * @param captures       page sources fetched from the server.
+     * @param lookups        locator lookups resolved in memory.
+     * @param avoidedCommands server commands saved compared to live find plus isDisplayed calls.
+     */
+    public record Stats(long captures, long lookups, long avoidedCommands) {
+
+        @Override
+        public String toString() {
+            return String.format("UI snapshots: %d captures, %d local lookups, %d server commands avoided",
+                    captures, lookups, avoidedCommands);
+        }
+    }
+
+    private final List<Node> nodes;
+    private final Map<String, List<Node>> byText = new HashMap<>();
+    private final Map<String, List<Node>> byResourceId = new HashMap<>();
+    private final Map<String, List<Node>> byContentDesc = new HashMap<>();
+    private final Map<String, List<Node>> byClass = new HashMap<>();
+
+    /**
+     * Parses and indexes a UiAutomator2 page source.
+     *
+     * @param pageSource the XML hierarchy returned by {@code getPageSource}.
+     */
+    public UiSnapshot(String pageSource) {
+        List<Node> parsed = new ArrayList<>();
+        collect(parse(pageSource).getDocumentElement(), parsed);
+        this.nodes = Collections.unmodifiableList(parsed);
+        for (Node node : nodes) {
+            index(byText, node.text(), node);
+            index(byResourceId, node.resourceId(), node);
+            index(byContentDesc, node.contentDesc(), node);
+            index(byClass, node.className(), node);
+        }
+    }
+
+    /**
+     * Fetches the current UI hierarchy with a single server command.
+     *
+     * @param driver the session to read the hierarchy from.
+     * @return the snapshot.
+     */
+    public static UiSnapshot capture(AppiumDriver driver) {
+        CAPTURES.incrementAndGet();
+        return new UiSnapshot(driver.getPageSource());
+    }
+
+    /**
+     * Builds a snapshot from a hierarchy fetched elsewhere, e.g. by the {@link Settle} detector,
+     * and counts it as a capture.
+     *
+     * @param pageSource the XML hierarchy returned by {@code getPageSource}.
+     * @return the snapshot.
+     */
+    static UiSnapshot parsed(String pageSource) {
+        CAPTURES.incrementAndGet();
+        return new UiSnapshot(pageSource);
+    }
+
+    /**
+     * Fetches the UI hierarchy until the given locator is visible or the timeout expires.
+     * Useful right after a navigation, where the target screen may still be rendering.
+     *
+     * @param driver  the session to read the hierarchy from.
+     * @param locator the locator that must be visible.
+     * @param timeout the maximum time to wait.
+     * @return the first snapshot where the locator is visible, or the last one taken on timeout.
+     */
+    public static UiSnapshot captureWhen(AppiumDriver driver, UiLocator locator, Duration timeout) {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        UiSnapshot snapshot = capture(driver);
+        while (!snapshot.isDisplayed(locator) && System.nanoTime() < deadline) {
+            snapshot = capture(driver);
+        }
+        return snapshot;
+    }
+
+    /**
+     * Returns every node of the hierarchy, in document order.
+     *
+     * @return the nodes.
+     */
+    public List<Node> getNodes() {
+        return nodes;
+    }
+
+    /**
+     * Resolves a locator against the snapshot.
+     *
+     * @param locator the locator to resolve.
+     * @return the matching node, or empty if the element was not on screen.
+     */
+    public Optional<Node> find(UiLocator locator) {
+        LOOKUPS.incrementAndGet();
+        int remaining = locator.instance();
+        for (Node node : candidates(locator)) {
+            if (locator.matches(node) && remaining-- == 0) {
+                return Optional.of(node);
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Checks whether the element identified by the locator is visible in the snapshot.
+     *
+     * @param locator the locator to check.
+     * @return true if a matching node exists and is visible.
+     */
+    public boolean isDisplayed(UiLocator locator) {
+        return find(locator).map(Node::isVisible).orElse(false);
+    }
+
+    /**
+     * Returns the current counters of the snapshot engine.
+     *
+     * @return a {@link Stats} snapshot.
+     */
+    public static Stats stats() {
+        long captures = CAPTURES.get();
+        long lookups = LOOKUPS.get();
+        return new Stats(captures, lookups, Math.max(0, lookups * COMMANDS_PER_LIVE_CHECK - captures));
+    }
+
+    /**
+     * Picks the smallest index able to answer the locator.
+     *
+     * @param locator the locator to resolve.
+     * @return the nodes worth testing, in document order.
+     */
+    private List<Node> candidates(UiLocator locator) {
+        if (locator.resourceId() != null) {
+            return byResourceId.getOrDefault(locator.resourceId(), List.of());
+        }
+        if (locator.contentDesc() != null) {
+            return byContentDesc.getOrDefault(locator.contentDesc(), List.of());
+        }
+        if (locator.text() != null) {
+            return byText.getOrDefault(locator.text(), List.of());
+        }
+        if (locator.className() != null) {
+            return byClass.getOrDefault(locator.className(), List.of());
+        }
+        return nodes;
+    }
+
+    private static void index(Map<String, List<Node>> index, String key, Node node) {
+        if (!key.isEmpty()) {
+            index.computeIfAbsent(key, k -> new ArrayList<>()).add(node);
+        }
+    }
+
+    private static void collect(Element element, List<Node> nodes) {
+        if (!element.getTagName().equals("hierarchy")) {
+            nodes.add(toNode(element));
+        }
+        for (org.w3c.dom.Node child = element.getFirstChild(); child != null; child = child.getNextSibling()) {
+            if (child instanceof Element childElement) {
+                collect(childElement, nodes);
+            }
+        }
+    }
+
+    private static Node toNode(Element element) {
+        NamedNodeMap attributes = element.getAttributes();
+        String className = attribute(attributes, "class");
+        return new Node(
+                className.isEmpty() ? element.getTagName() : className,
+                attribute(attributes, "text"),
+                attribute(attributes, "resource-id"),
+                attribute(attributes, "content-desc"),
+                !"false".equals(attribute(attributes, "displayed")),
+                "true".equals(attribute(attributes, "scrollable")),
+                bounds(attribute(attributes, "bounds")));
+    }
+
+    private static String attribute(NamedNodeMap attributes, String name) {
+        org.w3c.dom.Node attribute = attributes.getNamedItem(name);
+        return attribute == null ? "" : attribute.getNodeValue();
+    }
+
+    private static Rectangle bounds(String bounds) {
+        Matcher matcher = BOUNDS.matcher(bounds);
+        if (!matcher.matches()) {
+            return new Rectangle(0, 0, 0, 0);
+        }
+        int left = Integer.parseInt(matcher.group(1));
+        int top = Integer.parseInt(matcher.group(2));
+        int right = Integer.parseInt(matcher.group(3));
+        int bottom = Integer.parseInt(matcher.group(4));
+        return new Rectangle(left, top, bottom - top, right - left);
+    }
+
+    private static org.w3c.dom.Document parse(String pageSource) {
+        try {
+            DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+            factory.setFeature("http://apache.org/xml/features/disallow-doctype-decl", true);
+            DocumentBuilder builder = factory.newDocumentBuilder();
+            return builder.parse(new InputSource(new StringReader(pageSource)));
+        } catch (ParserConfigurationException | SAXException | IOException e) {
+            throw new IllegalArgumentException("Unable to parse the page source", e);
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.globant.webdriver.utils;
+
+import org.openqa.selenium.Rectangle;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.Optional;
+
+/**
+ * Parsing of page sources and local lookups by {@link UiSnapshot}.
+ */
+public class UiSnapshotTest {
+
+    private static final String PAGE_SOURCE = """
+            <?xml version="1.0" encoding="UTF-8"?>
+            <hierarchy rotation="0">
+              <android.widget.FrameLayout class="android.widget.FrameLayout" bounds="[0,0][1080,2340]" displayed="true">
+                <android.widget.TextView class="android.widget.TextView" text="Login" bounds="[0,63][540,210]" displayed="true"/>
+                <android.widget.TextView class="android.widget.TextView" text="Login" resource-id="app:id/second" bounds="[540,63][1080,210]"/>
+                <android.widget.EditText class="android.widget.EditText" content-desc="input-email" bounds="[0,0][0,0]"/>
+                <android.widget.TextView class="android.widget.TextView" text="Hidden" displayed="false" bounds="[0,300][100,400]"/>
+                <android.widget.ScrollView class="android.widget.ScrollView" scrollable="true" bounds="invalid"/>
+              </android.widget.FrameLayout>
+            </hierarchy>
+            """;
+
+    private final UiSnapshot snapshot = new UiSnapshot(PAGE_SOURCE);
+
+    /**
+     * Every element but the root {@code hierarchy} becomes a node, in document order, with its bounds.
+     */
+    @Test
+    public void parsesNodesAndBounds() {
+        Assert.assertEquals(snapshot.getNodes().size(), 6);
+        UiSnapshot.Node login = snapshot.getNodes().get(1);
+        Assert.assertEquals(login.className(), "android.widget.TextView");
+        Assert.assertEquals(login.bounds(), new Rectangle(0, 63, 147, 540));
+        Assert.assertEquals(login.bounds().getWidth(), 540);
+        Assert.assertEquals(login.bounds().getHeight(), 147);
+        UiSnapshot.Node scrollView = snapshot.getNodes().get(5);
+        Assert.assertTrue(scrollView.scrollable());
+        Assert.assertEquals(scrollView.bounds(), new Rectangle(0, 0, 0, 0));
+    }
+
+    /**
+     * Lookups honour the instance index and combine every criterion of the locator.
+     */
+    @Test
+    public void findsByInstanceAndCriteria() {
+        Optional<UiSnapshot.Node> first = snapshot.find(locator("text(\"Login\")"));
+        Optional<UiSnapshot.Node> second = snapshot.find(locator("text(\"Login\").instance(1)"));
+        Assert.assertEquals(first.map(node -> node.bounds().getX()), Optional.of(0));
+        Assert.assertEquals(second.map(node -> node.bounds().getX()), Optional.of(540));
+        Assert.assertTrue(snapshot.find(locator("text(\"Login\").instance(2)")).isEmpty());
+
+        Assert.assertEquals(snapshot.find(locator("resourceId(\"app:id/second\").text(\"Login\")")), second);
+        Assert.assertTrue(snapshot.find(locator("resourceId(\"app:id/second\").text(\"Hidden\")")).isEmpty());
+        Assert.assertEquals(snapshot.find(locator("textContains(\"ogi\")")), first);
+        Assert.assertTrue(snapshot.find(locator("text(\"Missing\")")).isEmpty());
+    }
+
+    /**
+     * Nodes are displayed only when UiAutomator2 reports them displayed and they have an area.
+     */
+    @Test
+    public void checksVisibility() {
+        Assert.assertTrue(snapshot.isDisplayed(locator("text(\"Login\")")));
+        Assert.assertTrue(snapshot.isDisplayed(locator("resourceId(\"app:id/second\")")));
+        Assert.assertTrue(snapshot.find(locator("description(\"input-email\")")).isPresent());
+        Assert.assertFalse(snapshot.isDisplayed(locator("description(\"input-email\")")));
+        Assert.assertFalse(snapshot.isDisplayed(locator("text(\"Hidden\")")));
+        Assert.assertFalse(snapshot.isDisplayed(locator("text(\"Missing\")")));
+    }
+
+    private static UiLocator locator(String selector) {
+        return UiLocator.parseUiSelector(selector).orElseThrow();
+    }
+}
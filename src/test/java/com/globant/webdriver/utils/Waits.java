@@ -0,0 +1,231 @@
+package com.globant.webdriver.utils;
+
+import io.appium.java_client.AppiumDriver;
+import org.openqa.selenium.NoSuchElementException;
+import org.openqa.selenium.StaleElementReferenceException;
+import org.openqa.selenium.TimeoutException;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Adaptive explicit wait engine that replaces the global implicit wait.
+ * <p>
+ * Every wait is keyed by a locator (e.g. {@code LoginScreen.signUpTab}) and keeps a latency history
+ * for that key: how long the condition usually takes to hold and how long one poll costs.
+ * Polling interval and timeout are derived from that history, so elements that appear quickly
+ * fail fast when they do not, while slow ones keep a generous timeout. Only waits that missed at least once
+ * are recorded: a condition that holds on the first poll, such as a cached element handle, says nothing about
+ * how long the element takes when it is slow, and would shrink the timeout to the minimum. Until a key has
+ * enough such history, the maximum timeout is used. Screen field proxies wait through {@link #retrying(String, Supplier)}.
+ * Absence checks ({@link #isAbsent(AppiumDriver, UiLocator, String)}) poll {@link UiSnapshot}s, so they return
+ * after a single command when the element is already gone, and have their own history.
+ * <p>
+ * Bounds are read from {@link TestConfig}: {@code wait.minTimeout} and {@code wait.maxTimeout}
+ * (milliseconds, defaults 500 and 10000), {@code wait.minInterval} and {@code wait.maxInterval}
+ * (milliseconds, defaults 25 and 500). The time spent waiting, from the first poll that missed until the
+ * condition held or timed out, is accumulated per test thread; conditions that hold on the first poll do not count.
+ */
+public class Waits {
+
+    /** Number of successful waits that missed at least once needed before the timeout adapts to the history. */
+    private static final int WARM_UP_SAMPLES = 3;
+
+    /** Weight of the latest sample in the moving averages. */
+    private static final double EWMA_WEIGHT = 0.3;
+
+    /** Decay applied to the peak wait at each sample, so old outliers are forgotten. */
+    private static final double PEAK_DECAY = 0.9;
+
+    private static final Map<String, History> HISTORY = new ConcurrentHashMap<>();
+
+    /** Set while a condition is evaluated, so element proxies do not nest their own retries. */
+    private static final ThreadLocal<Boolean> POLLING = ThreadLocal.withInitial(() -> false);
+
+    /** Time spent waiting and number of waits of the test running on the current thread. */
+    private static final ThreadLocal<long[]> TEST_TOTALS = ThreadLocal.withInitial(() -> new long[2]);
+
+    /**
+     * Latency history of one wait key.
+     */
+    private static class History {
+
+        private int samples;
+        private double meanWaitNanos;
+        private double peakWaitNanos;
+        private double meanPollNanos;
+
+        synchronized void record(long waitNanos, long pollNanos) {
+            if (samples == 0) {
+                meanWaitNanos = waitNanos;
+                meanPollNanos = pollNanos;
+            } else {
+                meanWaitNanos += EWMA_WEIGHT * (waitNanos - meanWaitNanos);
+                meanPollNanos += EWMA_WEIGHT * (pollNanos - meanPollNanos);
+            }
+            peakWaitNanos = Math.max(waitNanos, peakWaitNanos * PEAK_DECAY);
+            samples++;
+        }
+
+        synchronized long timeoutNanos(long min, long max) {
+            if (samples < WARM_UP_SAMPLES) {
+                return max;
+            }
+            return clamp((long) (2 * peakWaitNanos + 3 * meanPollNanos), min, max);
+        }
+
+        synchronized long intervalNanos(long min, long max) {
+            return clamp((long) (meanWaitNanos / 4), min, max);
+        }
+    }
+
+    /**
+     * Polls a condition until it returns a value other than null or false.
+     * Missing or stale elements while polling count as "not yet".
+     *
+     * @param key       the latency history key, usually {@code Screen.field}.
+     * @param condition the condition to evaluate.
+     * @param <T>       the condition result type.
+     * @return the first non-null, non-false value of the condition.
+     * @throws TimeoutException if the condition did not hold within the adaptive timeout.
+     */
+    private static <T> T until(String key, Supplier<T> condition) {
+        History history = HISTORY.computeIfAbsent(key, k -> new History());
+        long timeout = history.timeoutNanos(millis("wait.minTimeout", 500), millis("wait.maxTimeout", 10_000));
+        long interval = history.intervalNanos(millis("wait.minInterval", 25), millis("wait.maxInterval", 500));
+        long start = System.nanoTime();
+        long firstMiss = 0;
+        boolean nested = POLLING.get();
+        POLLING.set(true);
+        try {
+            while (true) {
+                long pollStart = System.nanoTime();
+                RuntimeException failure = null;
+                T value = null;
+                try {
+                    value = condition.get();
+                } catch (NoSuchElementException | StaleElementReferenceException e) {
+                    failure = e;
+                }
+                long now = System.nanoTime();
+                if (value != null && !Boolean.FALSE.equals(value)) {
+                    if (firstMiss != 0) {
+                        history.record(now - start, now - pollStart);
+                    }
+                    return value;
+                }
+                if (firstMiss == 0) {
+                    firstMiss = now;
+                }
+                if (now - start >= timeout) {
+                    throw new TimeoutException(String.format("Condition '%s' not met after %d ms",
+                            key, Duration.ofNanos(now - start).toMillis()), failure);
+                }
+                sleep(interval);
+            }
+        } finally {
+            POLLING.set(nested);
+            if (firstMiss != 0) {
+                // a condition that held on the first poll did not wait
+                long[] totals = TEST_TOTALS.get();
+                totals[0] += System.nanoTime() - firstMiss;
+                totals[1]++;
+            }
+        }
+    }
+
+    /**
+     * Runs an element action, retrying it while the element is missing or stale.
+     * Used by the screen field proxies instead of an implicit wait. Inside another wait the action
+     * runs only once, since the outer wait already polls.
+     *
+     * @param key    the latency history key of the element.
+     * @param action the action to run.
+     * @param <T>    the action result type.
+     * @return the action result.
+     */
+    public static <T> T retrying(String key, Supplier<T> action) {
+        if (POLLING.get()) {
+            return action.get();
+        }
+        try {
+            return until(key, () -> new Result<>(action.get())).value();
+        } catch (TimeoutException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Waits for an element to be gone, i.e. missing from the UI hierarchy or not visible in it.
+     * Each poll is one {@code getPageSource}, so an element that is already gone costs a single command
+     * and no waiting, and no find command is sent for an element that does not exist.
+     *
+     * @param driver  the session to check.
+     * @param locator the locator of the element.
+     * @param key     the latency history key of the element, usually {@code Screen.field}.
+     * @return true if the element is gone within the adaptive timeout, false otherwise.
+     */
+    public static boolean isAbsent(AppiumDriver driver, UiLocator locator, String key) {
+        try {
+            return until(key + "#absent", () -> !UiSnapshot.capture(driver).isDisplayed(locator));
+        } catch (TimeoutException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Returns the time the current test thread spent in waits since the last {@link #resetTestTotals()}.
+     *
+     * @return waited time in milliseconds.
+     */
+    public static long testWaitMillis() {
+        return Duration.ofNanos(TEST_TOTALS.get()[0]).toMillis();
+    }
+
+    /**
+     * Returns the number of waits of the current test thread since the last {@link #resetTestTotals()},
+     * i.e. of conditions that did not hold on their first poll.
+     *
+     * @return number of waits.
+     */
+    public static long testWaitCount() {
+        return TEST_TOTALS.get()[1];
+    }
+
+    /**
+     * Resets the per-test wait counters of the current thread.
+     */
+    public static void resetTestTotals() {
+        TEST_TOTALS.remove();
+    }
+
+    /**
+     * Wrapper making any action result, including null or false, a satisfied condition.
+     *
+     * @param value the action result.
+     * @param <T>   the result type.
+     */
+    private record Result<T>(T value) { }
+
+    private static long millis(String key, long defaultMillis) {
+        return Duration.ofMillis(TestConfig.getInt(key, (int) defaultMillis)).toNanos();
+    }
+
+    private static long clamp(long value, long min, long max) {
+        return Math.max(min, Math.min(max, value));
+    }
+
+    private static void sleep(long nanos) {
+        try {
+            Thread.sleep(Duration.ofNanos(nanos));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new TimeoutException("Interrupted while waiting", e);
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.globant.webdriver.utils;
+
+import io.appium.java_client.AppiumDriver;
+import io.appium.java_client.android.AndroidDriver;
+import io.appium.java_client.android.options.UiAutomator2Options;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+/**
+ * Snapshot-based absence checks of {@link Waits}, on the {@link StubAppiumServer}.
+ */
+public class WaitsTest {
+
+    private static final String PAGE_SOURCE = """
+            <hierarchy>
+              <android.widget.TextView class="android.widget.TextView" text="FULLY OPEN SOURCE" bounds="[0,100][1080,400]"/>
+            </hierarchy>
+            """;
+
+    private StubAppiumServer stub;
+    private AppiumDriver driver;
+
+    /**
+     * Starts the stub with a fixed page source and a short maximum timeout.
+     */
+    @BeforeClass
+    public void startStub() {
+        System.setProperty("wait.maxTimeout", "600");
+        stub = new StubAppiumServer().on("GET", "/source", body -> PAGE_SOURCE);
+        driver = new AndroidDriver(stub.getUrl(), new UiAutomator2Options().setDeviceName("stub"));
+    }
+
+    /**
+     * Quits the session, stops the stub and restores the configuration.
+     */
+    @AfterClass(alwaysRun = true)
+    public void stopStub() {
+        driver.quit();
+        stub.close();
+        System.clearProperty("wait.maxTimeout");
+    }
+
+    /**
+     * An element that is already gone costs a single page source.
+     */
+    @Test
+    public void returnsAtOnceWhenGone() {
+        int commands = stub.getCommandsServed();
+        Assert.assertTrue(Waits.isAbsent(driver, locator("text(\"GREAT COMMUNITY\")"), "WaitsTest.gone"));
+        Assert.assertEquals(stub.getCommandsServed() - commands, 1);
+    }
+
+    /**
+     * An element that stays visible is reported present once the timeout expires.
+     */
+    @Test
+    public void timesOutWhileVisible() {
+        long start = System.nanoTime();
+        Assert.assertFalse(Waits.isAbsent(driver, locator("text(\"FULLY OPEN SOURCE\")"), "WaitsTest.visible"));
+        Assert.assertTrue(System.nanoTime() - start < 5_000_000_000L);
+    }
+
+    private static UiLocator locator(String selector) {
+        return UiLocator.parseUiSelector(selector).orElseThrow();
+    }
+}